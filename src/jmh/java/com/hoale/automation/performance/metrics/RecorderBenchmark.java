@@ -0,0 +1,104 @@
+package com.hoale.automation.performance.metrics;
+
+import com.hoale.automation.performance.model.TestResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cost of recording one request from many threads at once: TestResult's striped
+ * recorders (about one per core) against the single set of shared atomic counters it
+ * used before (two increments, an add, two CAS loops and an atomic histogram bucket).
+ * Run it at increasing thread counts on a multi-core machine and compare total
+ * throughput; the recorders should keep growing up to the core count while the shared
+ * counters flatten out or drop:
+ *
+ * <pre>
+ * mvn -Pbenchmark package
+ * java -jar target/benchmarks.jar RecorderBenchmark -t 1
+ * java -jar target/benchmarks.jar RecorderBenchmark -t 8
+ * </pre>
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 19:00:00 UTC
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecorderBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        final TestResult result = new TestResult();
+        final SharedCounters counters = new SharedCounters();
+    }
+
+    /** Latencies cycled per thread so the JIT cannot fold the recorded value. */
+    @State(Scope.Thread)
+    public static class Latencies {
+        final long[] nanos = new long[1024];
+        int next;
+
+        @Setup
+        public void setUp() {
+            for (int i = 0; i < nanos.length; i++) {
+                nanos[i] = ThreadLocalRandom.current().nextLong(100_000, 500_000_000);
+            }
+        }
+
+        long next() {
+            return nanos[next++ & (nanos.length - 1)];
+        }
+    }
+
+    @Benchmark
+    public void stripedRecorders(Shared shared, Latencies latencies) {
+        shared.result.recordRequestNanos(true, latencies.next());
+    }
+
+    @Benchmark
+    public void sharedAtomics(Shared shared, Latencies latencies) {
+        shared.counters.record(true, latencies.next());
+    }
+
+    /** The recording path TestResult had before striped recorders. */
+    static final class SharedCounters {
+        private final AtomicInteger totalRequests = new AtomicInteger();
+        private final AtomicInteger successfulRequests = new AtomicInteger();
+        private final AtomicLong totalResponseTime = new AtomicLong();
+        private final AtomicLong minResponseTime = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong maxResponseTime = new AtomicLong();
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        void record(boolean success, long responseTimeNanos) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(responseTimeNanos);
+            histogram.record(TimeUnit.NANOSECONDS.toMicros(responseTimeNanos));
+            totalRequests.incrementAndGet();
+            if (success) {
+                successfulRequests.incrementAndGet();
+            }
+            totalResponseTime.addAndGet(millis);
+            long prev;
+            do {
+                prev = minResponseTime.get();
+            } while (!minResponseTime.compareAndSet(prev, Math.min(prev, millis)));
+            do {
+                prev = maxResponseTime.get();
+            } while (!maxResponseTime.compareAndSet(prev, Math.max(prev, millis)));
+        }
+    }
+}
@@ -30,6 +30,7 @@ public class Application {
             System.out.println("🔗 Health check: http://localhost:8080/api/health");
             System.out.println("📊 Info: http://localhost:8080/api/info");
             System.out.println("👤 Users: http://localhost:8080/api/users/123");
+            System.out.println("📈 Metrics: http://localhost:8080/api/metrics");
             System.out.println("🛑 Press Ctrl+C to stop");
 
             // Keep running
@@ -1,4 +1,10 @@
 package com.hoale.automation.performance;
+
+import com.hoale.automation.performance.distributed.Agent;
+import com.hoale.automation.performance.samplelog.SampleLogAnalyzer;
+
+import java.util.Arrays;
+
 /**
  * Performance Test Main Entry Point
  *
@@ -13,6 +19,28 @@ public class Main {
         System.out.println("Repository: automation-performance-testing-with-github-action");
         System.out.println("========================================");
 
+        if (args.length > 0 && "agent".equals(args[0])) {
+            // Distributed load agent: Main agent <port>
+            try {
+                new Agent(args.length > 1 ? Integer.parseInt(args[1]) : 7001).serve();
+            } catch (Exception e) {
+                System.err.println("Agent failed: " + e.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+
+        if (args.length > 0 && "analyze".equals(args[0])) {
+            // Offline sample log analysis: Main analyze <directory> [filters]
+            try {
+                SampleLogAnalyzer.fromArgs(Arrays.copyOfRange(args, 1, args.length)).analyze(System.out);
+            } catch (Exception e) {
+                System.err.println("Analysis failed: " + e.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+
         PerformanceTestRunner.main(args);
     }
 }
\ No newline at end of file
@@ -2,15 +2,49 @@ package com.hoale.automation.performance;
 
 import com.hoale.automation.performance.config.PerformanceConfig;
 import com.hoale.automation.performance.model.TestResult;
+import com.hoale.automation.performance.model.TimeSeries;
+import com.hoale.automation.performance.replay.ReplayLog;
+import com.hoale.automation.performance.samplelog.SampleLog;
+import com.hoale.automation.performance.monitor.GeneratorFootprint;
+import com.hoale.automation.performance.monitor.GeneratorHealth;
+import com.hoale.automation.performance.monitor.LiveMetrics;
+import com.hoale.automation.performance.monitor.MetricsServer;
+import com.hoale.automation.performance.monitor.SloWatchdog;
+import com.hoale.automation.performance.monitor.TimeSeriesSampler;
+import com.hoale.automation.performance.scenario.EndpointMix;
+import com.hoale.automation.performance.scenario.Scenario;
+import com.hoale.automation.performance.scheduler.ConstantArrivalRateScheduler;
+import com.hoale.automation.performance.scheduler.LoadProfile;
+import com.hoale.automation.performance.scheduler.ProfileArrivalScheduler;
+import com.hoale.automation.performance.scheduler.RateLimiter;
+import com.hoale.automation.performance.scheduler.RateLimiterMXBean;
+import com.hoale.automation.performance.scheduler.ReplayScheduler;
+import com.hoale.automation.performance.scheduler.RunControl;
+import com.hoale.automation.performance.scheduler.StageTracker;
+import com.hoale.automation.performance.scheduler.ThinkTime;
+import com.hoale.automation.performance.worker.AsyncHttpWorker;
 import com.hoale.automation.performance.worker.HttpWorker;
+import com.hoale.automation.performance.worker.NioHttpWorker;
+import com.hoale.automation.performance.worker.SharedConnectionPool;
+import com.hoale.automation.performance.worker.VirtualThreads;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
 
 /**
  * Performance Test Engine
@@ -22,10 +56,20 @@ public class PerformanceTestEngine {
 
     private final PerformanceConfig config;
     private final TestResult testResult;
+    private StageTracker stages;
+    private RunControl control;
+    private RateLimiter rateLimiter;
+    private SampleLog sampleLog;
+    private GeneratorHealth health;
 
     public PerformanceTestEngine(PerformanceConfig config) {
         this.config = config;
-        this.testResult = new TestResult();
+        this.testResult = new TestResult(config.getHistogramPrecisionBits());
+    }
+
+    /** The result being filled in; safe to read while the test is running. */
+    public TestResult getTestResult() {
+        return testResult;
     }
 
     public TestResult runTest() {
@@ -33,30 +77,486 @@ public class PerformanceTestEngine {
         System.out.println("Target: " + config.getTargetUrl());
         System.out.println("Threads: " + config.getThreadCount());
         System.out.println("Requests per thread: " + config.getRequestsPerThread());
+        System.out.println("Execution mode: " + config.getExecutionMode());
+        System.out.println("Run mode: " + config.getRunMode() + " (grace period " + config.getGracePeriod() + "s)");
+        if (!config.isOpenModel() && !config.isAsync() && !config.isNio()) {
+            ThinkTime thinkTime = config.getThinkTime();
+            double maxRate = thinkTime.maxRatePerUser() * getUserCount();
+            System.out.println("Think time: " + thinkTime.describe()
+                    + (Double.isInfinite(maxRate) ? "" : String.format(" (max throughput %.2f req/s)", maxRate)));
+        }
+        if (config.isAsync()) {
+            System.out.println("Max in flight: " + config.getMaxInFlight() + ", I/O threads: " + config.getIoThreads()
+                    + ", HTTP/" + config.getHttpVersion());
+        }
+        if (config.isNio()) {
+            System.out.println("Connections: " + config.getThreadCount() + ", pipeline depth: " + config.getPipelineDepth()
+                    + ", selector threads: " + Math.min(config.getIoThreads(), config.getThreadCount()));
+        }
+        if (config.isReplay()) {
+            System.out.println("Replay: " + config.getReplayFile() + " (" + config.getReplayFormat() + ", speed-up x"
+                    + config.getReplaySpeedup() + ", base " + config.getReplayBaseUrl() + ")");
+        } else if (config.isOpenModel()) {
+            System.out.println("Load model: open (" + config.getTargetRate() + " req/s)");
+        }
+        if (config.isAbortEnabled()) {
+            System.out.println("Abort when the last " + config.getAbortWindow() + "s break:"
+                    + (config.getAbortErrorRate() > 0 ? " errors > " + config.getAbortErrorRate() + "%" : "")
+                    + (config.getAbortP95Ms() > 0 ? " p95 > " + config.getAbortP95Ms() + " ms" : "")
+                    + (config.getAbortP99Ms() > 0 ? " p99 > " + config.getAbortP99Ms() + " ms" : ""));
+        }
+        if (config.isRateLimited()) {
+            System.out.println("Rate limit: " + config.getRateLimit() + " req/s across all workers (burst " + config.getRateLimitBurst() + ")");
+            rateLimiter = new RateLimiter(config.getRateLimit(), config.getRateLimitBurst());
+            registerRateLimiter();
+        }
+        LoadProfile profile = config.getLoadProfile();
+        if (profile != null) {
+            System.out.println("Load profile:");
+            for (LoadProfile.Stage stage : profile.getStages()) {
+                System.out.println("  " + stage.getName() + ": " + TimeUnit.NANOSECONDS.toSeconds(stage.getDurationNanos()) + "s, "
+                        + (stage.isRamp() ? "ramp to " : "hold ") + (config.isOpenModel() ? stage.getRate() + " req/s" : stage.getUsers() + " users"));
+            }
+            if (config.isAsync() && !config.isOpenModel()) {
+                System.out.println("  (async closed model keeps maxInFlight fixed; only the open model follows the profile)");
+            }
+            if (config.isNio()) {
+                System.out.println("  (nio engine keeps threadCount connections open throughout; the profile is not followed)");
+            }
+        }
 
-        testResult.setStartTime(LocalDateTime.now());
+        Scenario scenario = config.getScenario();
+        if (scenario != null) {
+            System.out.println("Scenario: " + scenario.getSteps().stream()
+                    .map(step -> step.getMethod() + " " + step.getName()).collect(Collectors.joining(" -> ")));
+            for (Scenario.Step step : scenario.getSteps()) {
+                testResult.addStep(step.getName());
+            }
+            testResult.addTransaction();
+        }
+        EndpointMix mix = config.getMix();
+        if (mix != null) {
+            StringBuilder line = new StringBuilder("Endpoint mix:");
+            for (int i = 0; i < mix.size(); i++) {
+                Scenario.Step endpoint = mix.getEndpoint(i);
+                line.append(String.format(" %s %s %.0f%%,", endpoint.getMethod(), endpoint.getName(), mix.getShare(i)));
+                testResult.addEndpoint(endpoint.getName());
+            }
+            System.out.println(line.substring(0, line.length() - 1));
+        }
 
-        ExecutorService executor = Executors.newFixedThreadPool(config.getThreadCount());
-        List<Future<Void>> futures = new ArrayList<>();
+        int users = config.isAsync() ? config.getMaxInFlight()
+                : config.isNio() ? config.getThreadCount() * config.getPipelineDepth() : getUserCount();
+        GeneratorFootprint footprint = new GeneratorFootprint(config.getExecutionMode(), users);
+        footprint.start();
+        LocalDateTime start = LocalDateTime.now();
+        testResult.setStartTime(start);
+        long startNanos = System.nanoTime();
+        control = new RunControl(startNanos + getRunNanos());
+        if (profile != null) {
+            stages = new StageTracker(profile, testResult, startNanos);
+        }
+        if (config.isSampleLogEnabled()) {
+            Path directory = Path.of(config.getSampleLogDir(), start.format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss")));
+            try {
+                sampleLog = new SampleLog(directory, config.getSampleLogSegmentMb() * 1024L * 1024L, startNanos, System.currentTimeMillis());
+                System.out.println("Sample log: " + directory);
+            } catch (IOException e) {
+                System.err.println("Sample log disabled: " + e.getMessage());
+            }
+        }
+        TimeSeries series = new TimeSeries(config.getTimeSeriesIntervalMs(), config.getTimeSeriesCapacity());
+        TimeSeriesSampler sampler = new TimeSeriesSampler(testResult, series, startNanos);
+        sampler.start();
+        LiveMetrics live = new LiveMetrics(testResult, series, startNanos);
+        if (config.isProgress()) {
+            live.startProgress();
+        }
+        MetricsServer metricsServer = null;
+        if (config.isMetricsEnabled()) {
+            metricsServer = new MetricsServer(live);
+            try {
+                metricsServer.start(config.getMetricsPort());
+            } catch (IOException e) {
+                System.err.println("Live metrics endpoint disabled: " + e.getMessage());
+                metricsServer = null;
+            }
+        }
+        health = new GeneratorHealth(config, startNanos);
+        health.start();
+        SloWatchdog watchdog = null;
+        if (config.isAbortEnabled()) {
+            watchdog = new SloWatchdog(config, testResult, control, startNanos);
+            watchdog.start();
+        }
+
+        if (config.isAsync()) {
+            runAsync();
+        } else if (config.isNio()) {
+            runNio();
+        } else if (config.isReplay()) {
+            runReplay();
+        } else if (config.isOpenModel()) {
+            runOpenModel();
+        } else if (config.isVirtualThreads()) {
+            runVirtualUsers();
+        } else {
+            runClosedModel();
+        }
 
+        if (watchdog != null) {
+            watchdog.stop();
+        }
+        health.stop();
+        testResult.setGeneratorHealth(health);
+        live.stop();
+        if (metricsServer != null) {
+            metricsServer.stop();
+        }
+        sampler.stop();
+        // Set only once complete, so distributed progress updates do not carry the series every second
+        testResult.setTimeSeries(series);
+        // Late completions from abandoned requests must not change the numbers being reported
+        testResult.seal();
+        if (sampleLog != null) {
+            sampleLog.close();
+            System.out.println("Sample log: " + sampleLog.getSegmentCount() + " segments in " + sampleLog.getDirectory());
+        }
+        if (rateLimiter != null) {
+            testResult.setRateLimiterStats(rateLimiter.snapshot());
+            unregisterRateLimiter();
+        }
+        LocalDateTime end = LocalDateTime.now();
+        testResult.setEndTime(end);
+        if (stages != null) {
+            finishStages(start, end);
+        }
+        if (testResult.getTransactionResult() != null) {
+            for (TestResult step : testResult.getStepResults().values()) {
+                step.setStartTime(start);
+                step.setEndTime(end);
+            }
+            testResult.getTransactionResult().setStartTime(start);
+            testResult.getTransactionResult().setEndTime(end);
+        }
+        for (TestResult endpoint : testResult.getEndpointResults().values()) {
+            endpoint.setStartTime(start);
+            endpoint.setEndTime(end);
+        }
+        footprint.stop();
+        testResult.setGeneratorFootprint(footprint);
+        return testResult;
+    }
+
+    /** Exposes the limiter over JMX for the run, so its rate can be changed live. */
+    private void registerRateLimiter() {
         try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(RateLimiterMXBean.OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(rateLimiter, name);
+            System.out.println("Rate limit adjustable over JMX: " + RateLimiterMXBean.OBJECT_NAME);
+        } catch (JMException e) {
+            System.err.println("Rate limiter not exposed over JMX: " + e.getMessage());
+        }
+    }
+
+    private void unregisterRateLimiter() {
+        try {
+            ObjectName name = new ObjectName(RateLimiterMXBean.OBJECT_NAME);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            System.err.println("Rate limiter still registered over JMX: " + e.getMessage());
+        }
+    }
+
+    /** Users in the closed model: the profile's peak, or threadCount without a profile. */
+    private int getUserCount() {
+        LoadProfile profile = config.getLoadProfile();
+        return profile != null ? Math.max(1, profile.getMaxUsers()) : config.getThreadCount();
+    }
+
+    /** Run deadline: the whole profile when it is time bounded, else testDuration. */
+    private long getRunNanos() {
+        LoadProfile profile = config.getLoadProfile();
+        if (profile != null && profile.isTimeBounded()) {
+            return profile.getTotalDurationNanos();
+        }
+        return TimeUnit.SECONDS.toNanos(config.getTestDuration());
+    }
+
+    /** Time left until the grace period after the deadline, or after an early stop, runs out. */
+    private long nanosUntilGraceEnds() {
+        return Math.max(0, control.getEndNanos() + TimeUnit.SECONDS.toNanos(config.getGracePeriod()) - System.nanoTime());
+    }
+
+    /**
+     * Lets workers finish on their own until the deadline (or early stop) plus the grace period,
+     * then cancels whatever is still in flight and drops queued arrivals.
+     * Both are counted as cancelled rather than failed.
+     */
+    private void drain(ExecutorService executor) throws InterruptedException {
+        executor.shutdown();
+        long waitNanos = nanosUntilGraceEnds();
+        if (executor.awaitTermination(waitNanos, TimeUnit.NANOSECONDS)) {
+            return;
+        }
+
+        int cancelled = control.cancelInFlight();
+        List<Runnable> neverStarted = executor.shutdownNow();
+        testResult.recordCancelled(neverStarted.size());
+        System.out.println("⏹️ Grace period over: cancelled " + cancelled + " in-flight and "
+                + neverStarted.size() + " queued requests");
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            System.err.println("Workers still running after cancellation");
+        }
+    }
+
+    private void finishStages(LocalDateTime runStart, LocalDateTime runEnd) {
+        List<LoadProfile.Stage> profileStages = stages.getProfile().getStages();
+        for (int i = 0; i < profileStages.size(); i++) {
+            LoadProfile.Stage stage = profileStages.get(i);
+            LocalDateTime stageStart = runStart.plusNanos(stage.getStartNanos());
+            LocalDateTime stageEnd = stageStart.plusNanos(stage.getDurationNanos());
+            TestResult stageResult = stages.stageResult(i);
+            stageResult.setStartTime(stageStart.isAfter(runEnd) ? runEnd : stageStart);
+            stageResult.setEndTime(stageEnd.isAfter(runEnd) ? runEnd : stageEnd);
+        }
+    }
+
+    private void runClosedModel() {
+        ExecutorService executor = Executors.newFixedThreadPool(getUserCount());
+        List<Future<Void>> futures = new ArrayList<>();
+
+        try (SharedConnectionPool pool = new SharedConnectionPool(config)) {
             // Submit worker threads
-            for (int i = 0; i < config.getThreadCount(); i++) {
-                HttpWorker worker = new HttpWorker(config, testResult);
+            for (int i = 0; i < getUserCount(); i++) {
+                HttpWorker worker = new HttpWorker(config, testResult, pool.getClient(), control, stages, i);
+                worker.setRateLimiter(rateLimiter);
+                worker.setSampleLog(sampleLog);
                 futures.add(executor.submit(worker));
             }
 
             // Wait for completion
-            executor.shutdown();
-            executor.awaitTermination(config.getTestDuration(), TimeUnit.SECONDS);
+            drain(executor);
+            testResult.setConnectionPoolStats(pool.snapshot());
 
         } catch (InterruptedException e) {
             System.err.println("Test interrupted");
             executor.shutdownNow();
             Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Failed to close HTTP client: " + e.getMessage());
         }
+    }
 
-        testResult.setEndTime(LocalDateTime.now());
-        return testResult;
+    /**
+     * Closed model with one virtual thread per user. Virtual users block on I/O like
+     * platform workers but cost only a small heap object, so tens of thousands fit in
+     * one generator.
+     */
+    private void runVirtualUsers() {
+        ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+
+        try (SharedConnectionPool pool = new SharedConnectionPool(config)) {
+            for (int i = 0; i < getUserCount(); i++) {
+                HttpWorker worker = new HttpWorker(config, testResult, pool.getClient(), control, stages, i);
+                worker.setRateLimiter(rateLimiter);
+                worker.setSampleLog(sampleLog);
+                executor.submit(worker);
+            }
+
+            drain(executor);
+            testResult.setConnectionPoolStats(pool.snapshot());
+
+        } catch (InterruptedException e) {
+            System.err.println("Test interrupted");
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Failed to close HTTP client: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Open model: requests arrive at targetRate regardless of response times.
+     * threadCount bounds how many requests can be in flight; when all threads are
+     * busy, arrivals queue up and that waiting time is part of the measured latency.
+     * Arrivals still queued when the run ends are counted as cancelled, never sent.
+     * With virtual threads every arrival gets its own thread and the connection pool
+     * (maxConnectionsTotal) is what bounds concurrency.
+     */
+    private void runOpenModel() {
+        ExecutorService executor = config.isVirtualThreads()
+                ? VirtualThreads.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(config.getThreadCount());
+
+        try (SharedConnectionPool pool = new SharedConnectionPool(config)) {
+            HttpWorker worker = new HttpWorker(config, testResult, pool.getClient(), control, stages, 0);
+            worker.setSampleLog(sampleLog);
+            long dispatched = dispatchArrivals(plannedNanos -> executor.execute(() -> {
+                if (!control.isRunning()) {
+                    // Queued behind busy threads until the run was over: never sent
+                    testResult.recordCancelled(1);
+                    return;
+                }
+                health.recordLag(System.nanoTime() - plannedNanos);
+                worker.executeRequest(plannedNanos);
+            }));
+            System.out.println("Dispatched " + dispatched + " requests");
+
+            // Wait for in-flight requests before the shared client is closed
+            drain(executor);
+            testResult.setConnectionPoolStats(pool.snapshot());
+
+        } catch (InterruptedException e) {
+            System.err.println("Test interrupted");
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Failed to close HTTP client: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replays a recorded log at its original pace (times the speed-up). The log is read
+     * one line ahead of dispatch and at most threadCount requests are outstanding: when
+     * all are busy the dispatcher waits instead of queueing, so memory stays flat for any
+     * log size while latency still counts from each request's planned time.
+     */
+    private void runReplay() {
+        ExecutorService executor = config.isVirtualThreads()
+                ? VirtualThreads.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(config.getThreadCount());
+        Semaphore slots = new Semaphore(config.getThreadCount());
+
+        try (SharedConnectionPool pool = new SharedConnectionPool(config);
+             ReplayLog log = new ReplayLog(config.getReplayFile(), config.getReplayFormat(), config.getReplayBaseUrl())) {
+            HttpWorker worker = new HttpWorker(config, testResult, pool.getClient(), control);
+            worker.setSampleLog(sampleLog);
+            long dispatched = new ReplayScheduler(config.getReplaySpeedup()).run(log, control, (entry, plannedNanos) -> {
+                try {
+                    if (!slots.tryAcquire(control.nanosUntilDeadline(), TimeUnit.NANOSECONDS)) {
+                        // Due, but no slot freed up before the deadline
+                        testResult.recordCancelled(1);
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                executor.execute(() -> {
+                    try {
+                        health.recordLag(System.nanoTime() - plannedNanos);
+                        worker.executeReplay(entry, plannedNanos);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            });
+            System.out.println("Replayed " + dispatched + " requests" + (log.getSkipped() > 0 ? ", skipped " + log.getSkipped() + " unreadable lines" : ""));
+
+            drain(executor);
+            testResult.setConnectionPoolStats(pool.snapshot());
+
+        } catch (InterruptedException e) {
+            System.err.println("Test interrupted");
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Replay failed: " + e.getMessage());
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the open-model arrival schedule until the deadline: the profile's rate curve
+     * when one is configured, otherwise a constant targetRate.
+     *
+     * @return number of requests dispatched
+     */
+    private long dispatchArrivals(LongConsumer dispatcher) throws InterruptedException {
+        if (stages != null) {
+            LoadProfile profile = stages.getProfile();
+            return new ProfileArrivalScheduler(profile)
+                    .run(stages.getStartNanos(), profile.isTimeBounded() ? Long.MAX_VALUE : getRequestBudget(), control, dispatcher);
+        }
+        return new ConstantArrivalRateScheduler(config.getTargetRate()).run(getRequestBudget(), control, dispatcher);
+    }
+
+    /** threadCount x requestsPerThread in iterations mode; unlimited when the run is duration bounded. */
+    private long getRequestBudget() {
+        return config.isDurationBounded() ? Long.MAX_VALUE : (long) config.getThreadCount() * config.getRequestsPerThread();
+    }
+
+    /**
+     * Non-blocking engine: a single dispatcher thread feeds the async client, either
+     * back to back (closed model, concurrency = maxInFlight) or at targetRate (open model).
+     */
+    private void runAsync() {
+        long totalRequests = getRequestBudget();
+
+        try (AsyncHttpWorker worker = new AsyncHttpWorker(config, testResult, config.isOpenModel() ? stages : null, control)) {
+            worker.setSampleLog(sampleLog);
+            worker.start();
+
+            if (config.isOpenModel()) {
+                dispatchArrivals(plannedNanos -> {
+                    health.recordLag(System.nanoTime() - plannedNanos);
+                    try {
+                        if (!worker.send(plannedNanos)) {
+                            // Arrival was due but never got a slot before the deadline
+                            testResult.recordCancelled(1);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } else {
+                for (long i = 0; i < totalRequests && control.isRunning(); i++) {
+                    if (rateLimiter != null && !rateLimiter.acquire(1, control)) {
+                        break;
+                    }
+                    if (!worker.send()) {
+                        break;
+                    }
+                }
+            }
+
+            long waitNanos = nanosUntilGraceEnds();
+            if (!worker.awaitCompletion(waitNanos, TimeUnit.NANOSECONDS)) {
+                System.out.println("⏹️ Grace period over: cancelled " + worker.cancelOutstanding() + " in-flight requests");
+            }
+
+        } catch (InterruptedException e) {
+            System.err.println("Test interrupted");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Raw NIO engine: threadCount pipelined keep-alive connections on ioThreads selector
+     * threads, each sending back to back until the budget or the deadline runs out.
+     */
+    private void runNio() {
+        NioHttpWorker worker = new NioHttpWorker(config, testResult, control, getRequestBudget());
+        worker.setSampleLog(sampleLog);
+        try {
+            worker.start();
+            long waitNanos = nanosUntilGraceEnds();
+            if (!worker.awaitCompletion(waitNanos, TimeUnit.NANOSECONDS)) {
+                System.out.println("⏹️ Grace period over: cancelled " + worker.cancelOutstanding() + " in-flight requests");
+            }
+        } catch (InterruptedException e) {
+            System.err.println("Test interrupted");
+            Thread.currentThread().interrupt();
+        } finally {
+            worker.close();
+        }
     }
-}
\ No newline at end of file
+}
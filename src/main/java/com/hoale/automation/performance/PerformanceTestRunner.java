@@ -1,10 +1,18 @@
 package com.hoale.automation.performance;
 
+import com.hoale.automation.performance.capacity.CapacitySearch;
 import com.hoale.automation.performance.config.PerformanceConfig;
+import com.hoale.automation.performance.distributed.Coordinator;
+import com.hoale.automation.performance.monitor.GeneratorHealth;
+import com.hoale.automation.performance.model.OutcomeBreakdown;
+import com.hoale.automation.performance.model.PhaseBreakdown;
+import com.hoale.automation.performance.model.RateLimiterStats;
 import com.hoale.automation.performance.model.TestResult;
 import com.hoale.automation.performance.model.TestConfig;
 import com.hoale.automation.performance.report.PerformanceReportGenerator;
 
+import java.util.Map;
+
 /**
  * Enhanced Performance Test Runner with Report Generation (Dashboard, Config, Suggestions, Charts-ready)
  *
@@ -30,8 +38,17 @@ public class PerformanceTestRunner {
 
             // Load test configuration
             PerformanceConfig config = PerformanceConfig.load(args[0]);
-            PerformanceTestEngine engine = new PerformanceTestEngine(config);
-            TestResult result = engine.runTest();
+            TestResult result;
+            if (config.isCapacitySearch()) {
+                System.out.println("Capacity search: p99 <= " + config.getSloP99Ms() + " ms, errors <= " + config.getSloMaxErrorRate() + "%");
+                result = new CapacitySearch(config).run();
+            } else if (config.isDistributed()) {
+                System.out.println("Distributed run, agents: " + config.getAgents());
+                result = new Coordinator(config).run();
+            } else {
+                PerformanceTestEngine engine = new PerformanceTestEngine(config);
+                result = engine.runTest();
+            }
 
             // Convert PerformanceConfig to TestConfig for reporting
             TestConfig testConfig = config.toTestConfig();
@@ -42,11 +59,60 @@ public class PerformanceTestRunner {
             System.out.println("Total requests: " + result.getTotalRequests());
             System.out.println("Successful requests: " + result.getSuccessfulRequests());
             System.out.println("Failed requests: " + result.getFailedRequests());
+            System.out.println("Cancelled requests (stragglers): " + result.getCancelledRequests());
             System.out.println("Success rate: " + String.format("%.2f%%", result.getSuccessRate()));
             System.out.println("Average response time: " + String.format("%.2f ms", result.getAverageResponseTime()));
             System.out.println("Min response time: " + result.getMinResponseTime() + " ms");
             System.out.println("Max response time: " + result.getMaxResponseTime() + " ms");
+            System.out.println(String.format("Percentiles: p50 %.2f ms, p90 %.2f ms, p95 %.2f ms, p99 %.2f ms, p99.9 %.2f ms",
+                    result.getPercentile(50), result.getPercentile(90), result.getPercentile(95),
+                    result.getPercentile(99), result.getPercentile(99.9)));
             System.out.println("Throughput: " + String.format("%.2f req/sec", result.getThroughput()));
+            if (result.getTransactionResult() != null) {
+                System.out.println("Transactions: " + result.getTransactionResult().getTotalRequests()
+                        + String.format(" (%.2f%% success, avg %.2f ms)",
+                        result.getTransactionResult().getSuccessRate(), result.getTransactionResult().getAverageResponseTime()));
+            }
+            for (Map.Entry<String, TestResult> endpoint : result.getEndpointResults().entrySet()) {
+                TestResult r = endpoint.getValue();
+                System.out.println(String.format("Endpoint %s: %d requests, %.2f%% success, avg %.2f ms, p99 %.2f ms",
+                        endpoint.getKey(), r.getTotalRequests(), r.getSuccessRate(), r.getAverageResponseTime(), r.getPercentile(99)));
+            }
+            if (result.getConnectionPoolStats() != null) {
+                System.out.println("Pool lease wait: " + String.format("avg %.3f ms, max %.3f ms",
+                        result.getConnectionPoolStats().getAverageLeaseWaitMs(), result.getConnectionPoolStats().getMaxLeaseWaitMs())
+                        + ", connections opened: " + result.getConnectionPoolStats().getConnectionsOpened());
+            }
+            RateLimiterStats limiter = result.getRateLimiterStats();
+            if (limiter != null) {
+                System.out.println(String.format("Rate limit: %.2f of %.2f req/s (%.1f%%), limiter wait avg %.3f ms, max %.3f ms",
+                        result.getThroughput(), limiter.getTargetRate(), limiter.getAchievedShare(result.getThroughput()),
+                        limiter.getAverageWaitMs(), limiter.getMaxWaitMs()));
+            }
+            PhaseBreakdown phases = result.getPhaseBreakdown();
+            if (phases != null) {
+                StringBuilder line = new StringBuilder("Latency breakdown (mean):");
+                for (PhaseBreakdown.Phase phase : PhaseBreakdown.Phase.values()) {
+                    line.append(String.format(" %s %.3f ms,", phase.getLabel().toLowerCase(), phases.getMeanMs(phase)));
+                }
+                System.out.println(line.substring(0, line.length() - 1));
+            }
+            OutcomeBreakdown outcomes = result.getOutcomeBreakdown();
+            if (outcomes != null) {
+                StringBuilder line = new StringBuilder("Outcomes:");
+                for (OutcomeBreakdown.Category category : OutcomeBreakdown.Category.values()) {
+                    if (outcomes.getCount(category) > 0) {
+                        line.append(String.format(" %s %d (p99 %.2f ms),", category.getLabel().toLowerCase(),
+                                outcomes.getCount(category), outcomes.getPercentileMs(category, 99)));
+                    }
+                }
+                System.out.println(line.substring(0, line.length() - 1));
+            }
+            GeneratorHealth health = result.getGeneratorHealth();
+            if (health != null && health.isSaturated()) {
+                System.out.println("⚠️ Generator saturated, latencies may include the generator's own delays: "
+                        + String.join("; ", health.getSaturationReasons()));
+            }
 
             // Generate Reports (HTML, CSV, JSON, TXT)
             System.out.println();
@@ -71,7 +137,20 @@ public class PerformanceTestRunner {
             System.out.println();
             System.out.println("Final Test Result:");
             System.out.println("====================");
-            if (result.getSuccessRate() >= 95.0) {
+            if (result.getCapacitySearch() != null) {
+                // A capacity search passes when some load level met the SLO
+                if (result.getCapacitySearch().getKnee() != null) {
+                    System.out.println("PASSED - Capacity knee found within the SLO.");
+                    System.exit(0);
+                } else {
+                    System.out.println("FAILED - No probed load level met the SLO.");
+                    System.exit(1);
+                }
+            } else if (result.getAbortReason() != null) {
+                System.out.println("FAILED - Run aborted early by the SLO watchdog.");
+                System.out.println("Reason: " + result.getAbortReason());
+                System.exit(1);
+            } else if (result.getSuccessRate() >= 95.0) {
                 System.out.println("PASSED - Performance test completed successfully.");
                 System.out.println("All performance criteria met.");
                 System.exit(0);
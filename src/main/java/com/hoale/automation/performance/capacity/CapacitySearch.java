@@ -0,0 +1,145 @@
+package com.hoale.automation.performance.capacity;
+
+import com.hoale.automation.performance.PerformanceTestEngine;
+import com.hoale.automation.performance.config.PerformanceConfig;
+import com.hoale.automation.performance.distributed.Coordinator;
+import com.hoale.automation.performance.model.CapacitySearchResult;
+import com.hoale.automation.performance.model.TestResult;
+
+import java.util.Properties;
+
+/**
+ * Finds the highest sustainable load under an SLO by running short probes.
+ * The load level is threadCount in the closed model and targetRate in the open
+ * model. Levels double from capacity.min until a probe breaks the SLO (or
+ * capacity.max is reached), then a binary search between the last passing and
+ * first failing level narrows the knee down to capacity.tolerance percent.
+ *
+ * <pre>
+ * capacitySearch=true
+ * slo.p99Ms=500               # p99 latency limit
+ * slo.maxErrorRate=1          # failed + cancelled requests, percent
+ * capacity.min=5
+ * capacity.max=500
+ * capacity.probeDuration=20   # seconds per probe
+ * capacity.coolDown=3         # seconds between probes
+ * capacity.tolerance=5        # stop when the bracket is within this percent
+ * capacity.maxProbes=12
+ * </pre>
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 15:00:00 UTC
+ */
+public class CapacitySearch {
+
+    private final PerformanceConfig config;
+    private final boolean openModel;
+
+    public CapacitySearch(PerformanceConfig config) {
+        this.config = config;
+        this.openModel = config.isOpenModel();
+    }
+
+    /**
+     * Runs the search.
+     *
+     * @return the result of the knee probe (or of the lowest probe when none passed),
+     *         with the whole search attached
+     */
+    public TestResult run() throws Exception {
+        CapacitySearchResult search = new CapacitySearchResult(openModel ? "req/s" : "users",
+                config.getSloP99Ms(), config.getSloMaxErrorRate());
+        double min = config.getCapacityMin();
+        double max = config.getCapacityMax();
+
+        TestResult best = null;
+        TestResult lowest = null;
+        double passing = -1;
+        double failing = -1;
+        int probes = 0;
+
+        // Exponential phase: find a bracket [passing, failing]
+        for (double level = min; probes < config.getCapacityMaxProbes(); level = Math.min(max, level * 2)) {
+            TestResult result = probe(level, search);
+            probes++;
+            if (lowest == null) {
+                lowest = result;
+            }
+            if (!search.getProbes().get(search.getProbes().size() - 1).isPassed()) {
+                failing = level;
+                break;
+            }
+            passing = level;
+            best = result;
+            if (level >= max) {
+                break;
+            }
+        }
+
+        // Binary phase: narrow the bracket down to the tolerance
+        while (passing > 0 && failing > 0 && probes < config.getCapacityMaxProbes()
+                && (failing - passing) / failing * 100 > config.getCapacityTolerance()) {
+            double level = openModel ? (passing + failing) / 2 : Math.floor((passing + failing) / 2);
+            if (level <= passing) {
+                break;
+            }
+            TestResult result = probe(level, search);
+            probes++;
+            if (search.getProbes().get(search.getProbes().size() - 1).isPassed()) {
+                passing = level;
+                best = result;
+            } else {
+                failing = level;
+            }
+        }
+
+        CapacitySearchResult.Probe knee = search.getKnee();
+        System.out.println(knee != null
+                ? String.format("📈 Capacity knee: %s %s, %.2f req/s, p99 %.1f ms", format(knee.getLevel()), search.getDimension(),
+                        knee.getThroughput(), knee.getP99Ms())
+                : "📉 No load level met the SLO, not even " + format(min) + " " + search.getDimension());
+
+        TestResult result = best != null ? best : lowest;
+        result.setCapacitySearch(search);
+        return result;
+    }
+
+    private TestResult probe(double level, CapacitySearchResult search) throws Exception {
+        System.out.println();
+        System.out.println("🔎 Probe: " + format(level) + " " + search.getDimension() + " for " + config.getCapacityProbeDuration() + "s");
+        PerformanceConfig probeConfig = PerformanceConfig.fromProperties(probeProperties(level));
+        TestResult result = probeConfig.isDistributed()
+                ? new Coordinator(probeConfig).run()
+                : new PerformanceTestEngine(probeConfig).runTest();
+
+        int attempted = result.getTotalRequests() + result.getCancelledRequests();
+        double errorRate = attempted > 0 ? (result.getFailedRequests() + result.getCancelledRequests()) * 100.0 / attempted : 100.0;
+        double p99 = result.getPercentile(99);
+        // A probe the SLO watchdog cut short was already failing; no need to wait out its duration
+        boolean passed = attempted > 0 && result.getAbortReason() == null
+                && p99 <= config.getSloP99Ms() && errorRate <= config.getSloMaxErrorRate();
+        search.addProbe(new CapacitySearchResult.Probe(level, result.getThroughput(), result.getPercentile(50), p99, errorRate, passed));
+        System.out.println(String.format("   %s: %.2f req/s, p99 %.1f ms, errors %.2f%%",
+                passed ? "✅ within SLO" : "❌ SLO broken", result.getThroughput(), p99, errorRate));
+
+        Thread.sleep(config.getCapacityCoolDown() * 1000L);
+        return result;
+    }
+
+    /** The configured run, fixed at {@code level}, for probeDuration seconds with no ramp or profile. */
+    private Properties probeProperties(double level) {
+        Properties props = config.getProperties();
+        props.remove("capacitySearch");
+        props.remove("loadProfile");
+        props.setProperty("rampUpTime", "0");
+        props.setProperty("runMode", "duration");
+        props.setProperty("testDuration", String.valueOf(config.getCapacityProbeDuration()));
+        // Connection limits default to threadCount, so they follow the users unless pinned explicitly
+        props.setProperty(openModel ? "targetRate" : "threadCount", openModel ? String.valueOf(level) : String.valueOf(Math.max(1, (long) level)));
+        return props;
+    }
+
+    private String format(double level) {
+        return openModel ? String.format("%.1f", level) : String.valueOf((long) level);
+    }
+}
@@ -1,8 +1,14 @@
 package com.hoale.automation.performance.config;
 
+import com.hoale.automation.performance.metrics.LatencyHistogram;
 import com.hoale.automation.performance.model.TestConfig;
+import com.hoale.automation.performance.scenario.EndpointMix;
+import com.hoale.automation.performance.scenario.Scenario;
+import com.hoale.automation.performance.scheduler.LoadProfile;
+import com.hoale.automation.performance.scheduler.ThinkTime;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.List;
 import java.util.Properties;
 
 /**
@@ -22,6 +28,92 @@ public class PerformanceConfig {
     private int responseTimeout = 10000;
     private int rampUpTime = 0;
 
+    // Run length: "iterations" (requestsPerThread, capped by testDuration) or "duration" (until testDuration)
+    private String runMode = "iterations";
+    private int gracePeriod = 5;
+
+    // Load model: "closed" (each thread fires back to back) or "open" (constant arrival rate)
+    private String loadModel = "closed";
+    private double targetRate = 0;
+
+    // Execution mode: "platform" (one OS thread per user), "virtual" (one virtual thread per user, JDK 21+)
+    // "async" (non-blocking client, concurrency bounded by maxInFlight) or "nio" (raw HTTP/1.1 over selectors)
+    private String executionMode = "platform";
+
+    // Async engine
+    private int maxInFlight;
+    private int ioThreads = 2;
+    private String httpVersion = "1.1";
+
+    // NIO engine: requests outstanding per connection (HTTP/1.1 pipelining)
+    private int pipelineDepth = 1;
+
+    // Shared connection pool (blocking modes)
+    private int maxConnectionsTotal;
+    private int maxConnectionsPerRoute;
+    private long keepAliveMs = 0;
+    private long idleEvictionMs = 0;
+    private long validateAfterInactivityMs = 2000;
+
+    // Latency histogram precision: values are kept within 1 / 2^bits of their true value
+    private int histogramPrecisionBits = LatencyHistogram.DEFAULT_PRECISION_BITS;
+
+    // Time series: one point per interval, the last timeSeriesCapacity of them kept
+    private long timeSeriesIntervalMs = 1000;
+    private int timeSeriesCapacity = 3600;
+
+    // Live view while running: console line every second, HTTP endpoint when metricsPort >= 0
+    private boolean progress = true;
+    private int metricsPort = -1;
+
+    // Generator self-monitoring: the run is flagged as saturated past these (0 turns a check off)
+    private double saturationCpuPercent = 90;
+    private double saturationGcPauseMs = 50;
+    private double saturationLagMs = 50;
+
+    // Raw per-request sample log (memory-mapped segments); null when not written
+    private String sampleLogDir;
+    private int sampleLogSegmentMb = 64;
+
+    // Global token bucket shared by all workers; 0 when the run is not rate limited
+    private double rateLimit;
+    private int rateLimitBurst = 1;
+
+    // Staged load profile (or implicit ramp-up); null when all users start at once
+    private LoadProfile loadProfile;
+    private ThinkTime thinkTime = ThinkTime.NONE;
+    private Scenario scenario;
+    private Scenario.Step request;
+    private EndpointMix mix;
+
+    // Traffic replay: recorded requests sent at their original inter-arrival times
+    private String replayFile;
+    private String replayFormat;
+    private double replaySpeedup = 1.0;
+    private String replayBaseUrl;
+
+    // SLO watchdog: abort the run early when a sliding window breaks one of these (0 = not checked)
+    private double abortErrorRate;
+    private double abortP95Ms;
+    private double abortP99Ms;
+    private int abortWindow = 10;
+    private int abortMinRequests = 20;
+
+    // Distributed mode: agent addresses (host:port), or "local:N" to start N agents on this host
+    private String agents;
+
+    // Capacity search: probe increasing loads and keep the highest one within the SLO
+    private boolean capacitySearch;
+    private double sloP99Ms;
+    private double sloMaxErrorRate = 1.0;
+    private double capacityMin = 1;
+    private double capacityMax = 1000;
+    private int capacityProbeDuration = 15;
+    private int capacityCoolDown = 2;
+    private double capacityTolerance = 5;
+    private int capacityMaxProbes = 15;
+    private Properties properties;
+
     // Test metadata
     private String testName;
     private String testDescription;
@@ -29,13 +121,19 @@ public class PerformanceConfig {
     private String framework;
     private String createdDate;
 
+    private static final List<String> EXECUTION_MODES = List.of("platform", "virtual", "async", "nio");
+
     public static PerformanceConfig load(String configFile) throws IOException {
         Properties props = new Properties();
         try (FileInputStream fis = new FileInputStream(configFile)) {
             props.load(fis);
         }
+        return fromProperties(props);
+    }
 
+    public static PerformanceConfig fromProperties(Properties props) {
         PerformanceConfig config = new PerformanceConfig();
+        config.properties = (Properties) props.clone();
         config.targetUrl = props.getProperty("targetUrl");
         config.httpMethod = props.getProperty("httpMethod", "GET");
         config.threadCount = Integer.parseInt(props.getProperty("threadCount", "10"));
@@ -44,6 +142,170 @@ public class PerformanceConfig {
         config.connectionTimeout = Integer.parseInt(props.getProperty("connectionTimeout", "5000"));
         config.responseTimeout = Integer.parseInt(props.getProperty("responseTimeout", "10000"));
         config.rampUpTime = Integer.parseInt(props.getProperty("rampUpTime", "0"));
+        config.runMode = props.getProperty("runMode", "iterations").trim().toLowerCase();
+        config.gracePeriod = Integer.parseInt(props.getProperty("gracePeriod", "5"));
+        config.loadModel = props.getProperty("loadModel", "closed").trim().toLowerCase();
+        config.targetRate = Double.parseDouble(props.getProperty("targetRate", "0"));
+
+        config.executionMode = props.getProperty("executionMode", "platform").trim().toLowerCase();
+        config.maxInFlight = Integer.parseInt(props.getProperty("maxInFlight", String.valueOf(config.threadCount)));
+        config.ioThreads = Integer.parseInt(props.getProperty("ioThreads", "2"));
+        config.httpVersion = props.getProperty("httpVersion", "1.1").trim();
+        config.pipelineDepth = Integer.parseInt(props.getProperty("pipelineDepth", "1"));
+        config.rateLimit = Double.parseDouble(props.getProperty("rateLimit", "0"));
+        config.rateLimitBurst = Integer.parseInt(props.getProperty("rateLimit.burst", "1"));
+        config.maxConnectionsTotal = Integer.parseInt(props.getProperty("maxConnectionsTotal", String.valueOf(config.threadCount)));
+        config.maxConnectionsPerRoute = Integer.parseInt(props.getProperty("maxConnectionsPerRoute", String.valueOf(config.maxConnectionsTotal)));
+        config.keepAliveMs = Long.parseLong(props.getProperty("keepAliveMs", "0"));
+        config.idleEvictionMs = Long.parseLong(props.getProperty("idleEvictionMs", "0"));
+        config.validateAfterInactivityMs = Long.parseLong(props.getProperty("validateAfterInactivityMs", "2000"));
+
+        if (!"closed".equals(config.loadModel) && !"open".equals(config.loadModel)) {
+            throw new IllegalArgumentException("Unknown loadModel: " + config.loadModel + " (expected closed or open)");
+        }
+        if (config.isOpenModel() && config.targetRate <= 0) {
+            throw new IllegalArgumentException("targetRate must be > 0 when loadModel=open");
+        }
+        config.loadProfile = LoadProfile.fromProperties(props, config.threadCount, config.targetRate,
+                config.rampUpTime, config.testDuration);
+        config.thinkTime = ThinkTime.fromProperties(props);
+        config.scenario = Scenario.fromProperties(props, config.targetUrl);
+        config.mix = EndpointMix.fromProperties(props, config.targetUrl);
+        if (config.scenario != null && config.mix != null) {
+            throw new IllegalArgumentException("Configure either scenario or mix, not both");
+        }
+        if (config.scenario == null && config.mix == null) {
+            if (config.targetUrl == null) {
+                throw new IllegalArgumentException("targetUrl is required unless a scenario or mix is configured");
+            }
+            config.request = Scenario.singleRequest(props, config.targetUrl, config.httpMethod);
+            config.httpMethod = config.request.getMethod();
+        }
+
+        if (!"iterations".equals(config.runMode) && !"duration".equals(config.runMode)) {
+            throw new IllegalArgumentException("Unknown runMode: " + config.runMode + " (expected iterations or duration)");
+        }
+        if (config.gracePeriod < 0) {
+            throw new IllegalArgumentException("gracePeriod must be >= 0");
+        }
+        if (!EXECUTION_MODES.contains(config.executionMode)) {
+            throw new IllegalArgumentException("Unknown executionMode: " + config.executionMode + " (expected one of " + EXECUTION_MODES + ")");
+        }
+        if (!"1.1".equals(config.httpVersion) && !"2".equals(config.httpVersion)) {
+            throw new IllegalArgumentException("Unknown httpVersion: " + config.httpVersion + " (expected 1.1 or 2)");
+        }
+        if (config.maxInFlight <= 0 || config.ioThreads <= 0) {
+            throw new IllegalArgumentException("maxInFlight and ioThreads must be > 0");
+        }
+        if (config.maxConnectionsTotal <= 0 || config.maxConnectionsPerRoute <= 0) {
+            throw new IllegalArgumentException("maxConnectionsTotal and maxConnectionsPerRoute must be > 0");
+        }
+        config.agents = props.getProperty("agents", "").trim();
+        config.capacitySearch = Boolean.parseBoolean(props.getProperty("capacitySearch", "false").trim());
+        config.sloP99Ms = Double.parseDouble(props.getProperty("slo.p99Ms", "0"));
+        config.sloMaxErrorRate = Double.parseDouble(props.getProperty("slo.maxErrorRate", "1"));
+        config.capacityMin = Double.parseDouble(props.getProperty("capacity.min", "1"));
+        config.capacityMax = Double.parseDouble(props.getProperty("capacity.max", "1000"));
+        config.capacityProbeDuration = Integer.parseInt(props.getProperty("capacity.probeDuration", "15"));
+        config.capacityCoolDown = Integer.parseInt(props.getProperty("capacity.coolDown", "2"));
+        config.capacityTolerance = Double.parseDouble(props.getProperty("capacity.tolerance", "5"));
+        config.capacityMaxProbes = Integer.parseInt(props.getProperty("capacity.maxProbes", "15"));
+        if (config.capacitySearch) {
+            if (config.sloP99Ms <= 0) {
+                throw new IllegalArgumentException("slo.p99Ms must be > 0 for capacitySearch");
+            }
+            if (config.capacityMin <= 0 || config.capacityMax < config.capacityMin) {
+                throw new IllegalArgumentException("capacity.min must be > 0 and <= capacity.max");
+            }
+            if (!config.isOpenModel() && config.capacityMin < 1) {
+                throw new IllegalArgumentException("capacity.min must be >= 1 in the closed model (it is a user count)");
+            }
+            if (config.capacityProbeDuration <= 0 || config.capacityMaxProbes <= 0) {
+                throw new IllegalArgumentException("capacity.probeDuration and capacity.maxProbes must be > 0");
+            }
+        }
+
+        if (config.scenario != null && (config.isAsync() || config.isNio())) {
+            throw new IllegalArgumentException("scenario runs need executionMode=platform or virtual");
+        }
+        config.replayFile = props.getProperty("replay.file");
+        if (config.replayFile != null) {
+            config.replayFile = config.replayFile.trim();
+            String defaultFormat = config.replayFile.endsWith(".jsonl") || config.replayFile.endsWith(".json") ? "jsonl" : "accesslog";
+            config.replayFormat = props.getProperty("replay.format", defaultFormat).trim().toLowerCase();
+            config.replaySpeedup = Double.parseDouble(props.getProperty("replay.speedup", "1"));
+            config.replayBaseUrl = props.getProperty("replay.baseUrl", config.targetUrl).trim();
+            if (!"jsonl".equals(config.replayFormat) && !"accesslog".equals(config.replayFormat)) {
+                throw new IllegalArgumentException("Unknown replay.format: " + config.replayFormat + " (expected jsonl or accesslog)");
+            }
+            if (config.replaySpeedup <= 0) {
+                throw new IllegalArgumentException("replay.speedup must be > 0");
+            }
+            if (config.scenario != null || config.mix != null || config.isAsync() || config.isNio()) {
+                throw new IllegalArgumentException("replay.file needs executionMode=platform or virtual and no scenario or mix");
+            }
+        }
+        config.histogramPrecisionBits = Integer.parseInt(props.getProperty("histogramPrecisionBits",
+                String.valueOf(LatencyHistogram.DEFAULT_PRECISION_BITS)));
+        if (config.histogramPrecisionBits < 1 || config.histogramPrecisionBits > 10) {
+            throw new IllegalArgumentException("histogramPrecisionBits must be between 1 and 10");
+        }
+        config.timeSeriesIntervalMs = Long.parseLong(props.getProperty("timeSeries.intervalMs", "1000"));
+        config.timeSeriesCapacity = Integer.parseInt(props.getProperty("timeSeries.capacity", "3600"));
+        if (config.timeSeriesIntervalMs <= 0 || config.timeSeriesCapacity <= 0) {
+            throw new IllegalArgumentException("timeSeries.intervalMs and timeSeries.capacity must be > 0");
+        }
+        config.progress = Boolean.parseBoolean(props.getProperty("progress", "true"));
+        config.metricsPort = Integer.parseInt(props.getProperty("metrics.port", "-1"));
+        if (config.metricsPort > 65535) {
+            throw new IllegalArgumentException("metrics.port must be at most 65535");
+        }
+        config.saturationCpuPercent = Double.parseDouble(props.getProperty("saturation.cpuPercent", "90"));
+        config.saturationGcPauseMs = Double.parseDouble(props.getProperty("saturation.gcPauseMs", "50"));
+        config.saturationLagMs = Double.parseDouble(props.getProperty("saturation.lagMs", "50"));
+        if (config.saturationCpuPercent < 0 || config.saturationGcPauseMs < 0 || config.saturationLagMs < 0) {
+            throw new IllegalArgumentException("saturation.cpuPercent, saturation.gcPauseMs and saturation.lagMs must be >= 0");
+        }
+        config.sampleLogDir = props.getProperty("sampleLog");
+        if (config.sampleLogDir != null && config.sampleLogDir.trim().isEmpty()) {
+            config.sampleLogDir = null;
+        }
+        config.sampleLogSegmentMb = Integer.parseInt(props.getProperty("sampleLog.segmentMb", "64"));
+        if (config.sampleLogSegmentMb < 1 || config.sampleLogSegmentMb > 1024) {
+            throw new IllegalArgumentException("sampleLog.segmentMb must be between 1 and 1024");
+        }
+        config.abortErrorRate = Double.parseDouble(props.getProperty("abort.errorRate", "0"));
+        config.abortP95Ms = Double.parseDouble(props.getProperty("abort.p95Ms", "0"));
+        config.abortP99Ms = Double.parseDouble(props.getProperty("abort.p99Ms", "0"));
+        config.abortWindow = Integer.parseInt(props.getProperty("abort.window", "10"));
+        config.abortMinRequests = Integer.parseInt(props.getProperty("abort.minRequests", "20"));
+        if (config.abortErrorRate < 0 || config.abortP95Ms < 0 || config.abortP99Ms < 0) {
+            throw new IllegalArgumentException("abort.errorRate, abort.p95Ms and abort.p99Ms must be >= 0");
+        }
+        if (config.abortWindow <= 0 || config.abortMinRequests <= 0) {
+            throw new IllegalArgumentException("abort.window and abort.minRequests must be > 0");
+        }
+        if (config.rateLimit < 0 || config.rateLimitBurst <= 0) {
+            throw new IllegalArgumentException("rateLimit must be >= 0 and rateLimit.burst > 0");
+        }
+        if (config.isRateLimited() && (config.isOpenModel() || config.isNio() || config.isReplay())) {
+            throw new IllegalArgumentException("rateLimit applies to the closed model with executionMode=platform, virtual or async"
+                    + " (the open model already sets its rate with targetRate)");
+        }
+        if (config.isNio()) {
+            if (config.mix != null) {
+                throw new IllegalArgumentException("executionMode=nio sends a single request; mix needs another execution mode");
+            }
+            if (config.isOpenModel()) {
+                throw new IllegalArgumentException("executionMode=nio supports loadModel=closed only");
+            }
+            if (!config.request.isConstant() || !"http".equalsIgnoreCase(config.request.getUri().getScheme())) {
+                throw new IllegalArgumentException("executionMode=nio needs a constant request (no ${variables}) to an http:// URL");
+            }
+            if (config.pipelineDepth <= 0) {
+                throw new IllegalArgumentException("pipelineDepth must be > 0");
+            }
+        }
 
         // Test metadata
         config.testName = props.getProperty("testName", "Performance Test");
@@ -64,6 +326,88 @@ public class PerformanceConfig {
     public int getConnectionTimeout() { return connectionTimeout; }
     public int getResponseTimeout() { return responseTimeout; }
     public int getRampUpTime() { return rampUpTime; }
+    public String getRunMode() { return runMode; }
+    public boolean isDurationBounded() { return "duration".equals(runMode); }
+    public int getGracePeriod() { return gracePeriod; }
+    public String getLoadModel() { return loadModel; }
+    public double getTargetRate() { return targetRate; }
+    public boolean isOpenModel() { return "open".equals(loadModel); }
+    public String getExecutionMode() { return executionMode; }
+    public boolean isVirtualThreads() { return "virtual".equals(executionMode); }
+    public boolean isAsync() { return "async".equals(executionMode); }
+    public boolean isNio() { return "nio".equals(executionMode); }
+    public int getMaxInFlight() { return maxInFlight; }
+    public int getIoThreads() { return ioThreads; }
+    public String getHttpVersion() { return httpVersion; }
+    public boolean isHttp2() { return "2".equals(httpVersion); }
+    public int getPipelineDepth() { return pipelineDepth; }
+    public int getMaxConnectionsTotal() { return maxConnectionsTotal; }
+    public int getMaxConnectionsPerRoute() { return maxConnectionsPerRoute; }
+    public long getKeepAliveMs() { return keepAliveMs; }
+    public long getIdleEvictionMs() { return idleEvictionMs; }
+    public long getValidateAfterInactivityMs() { return validateAfterInactivityMs; }
+    /** Aggregate request rate all workers together are held to, in requests per second; 0 for none. */
+    public double getRateLimit() { return rateLimit; }
+    public boolean isRateLimited() { return rateLimit > 0; }
+    /** Requests that may go out back to back after the limiter has been idle. */
+    public int getRateLimitBurst() { return rateLimitBurst; }
+    public LoadProfile getLoadProfile() { return loadProfile; }
+    public ThinkTime getThinkTime() { return thinkTime; }
+    public Scenario getScenario() { return scenario; }
+    /** Recorded request log to replay, or null. */
+    public String getReplayFile() { return replayFile; }
+    public boolean isReplay() { return replayFile != null; }
+    public String getReplayFormat() { return replayFormat; }
+    public double getReplaySpeedup() { return replaySpeedup; }
+    /** Scheme and host that the log's relative paths are sent to; targetUrl by default. */
+    public String getReplayBaseUrl() { return replayBaseUrl; }
+    /** Weighted endpoints to pick from per request, or null. */
+    public EndpointMix getMix() { return mix; }
+    /** Sub-buckets per power of two, as a power of two: 5 keeps latencies within about 3%, 7 within 1%. */
+    public int getHistogramPrecisionBits() { return histogramPrecisionBits; }
+    public long getTimeSeriesIntervalMs() { return timeSeriesIntervalMs; }
+    /** Points kept; a longer run keeps its last timeSeriesCapacity intervals. */
+    public int getTimeSeriesCapacity() { return timeSeriesCapacity; }
+    /** Print a progress line every second while the run is going. */
+    public boolean isProgress() { return progress; }
+    /** Port of the live metrics endpoint, 0 for any free port, or negative when it is off. */
+    public int getMetricsPort() { return metricsPort; }
+    public boolean isMetricsEnabled() { return metricsPort >= 0; }
+    /** Generator CPU, as a share of all cores, that flags the run as saturated when held for a few seconds; 0 when off. */
+    public double getSaturationCpuPercent() { return saturationCpuPercent; }
+    /** Longest acceptable single GC pause in the generator; 0 when off. */
+    public double getSaturationGcPauseMs() { return saturationGcPauseMs; }
+    /** Longest acceptable delay between a request's planned and actual start; 0 when off. */
+    public double getSaturationLagMs() { return saturationLagMs; }
+    /** Directory that each run's sample log goes into (in a timestamped subdirectory), or null. */
+    public String getSampleLogDir() { return sampleLogDir; }
+    public boolean isSampleLogEnabled() { return sampleLogDir != null; }
+    public int getSampleLogSegmentMb() { return sampleLogSegmentMb; }
+    /** True when any abort threshold is set, so the SLO watchdog runs. */
+    public boolean isAbortEnabled() { return abortErrorRate > 0 || abortP95Ms > 0 || abortP99Ms > 0; }
+    /** Error rate (percent) over the window above which the run is aborted; 0 for none. */
+    public double getAbortErrorRate() { return abortErrorRate; }
+    public double getAbortP95Ms() { return abortP95Ms; }
+    public double getAbortP99Ms() { return abortP99Ms; }
+    /** Sliding window the watchdog judges, in seconds. */
+    public int getAbortWindow() { return abortWindow; }
+    /** Fewest requests in the window before it is judged. */
+    public int getAbortMinRequests() { return abortMinRequests; }
+    public String getAgents() { return agents; }
+    public boolean isCapacitySearch() { return capacitySearch; }
+    public double getSloP99Ms() { return sloP99Ms; }
+    public double getSloMaxErrorRate() { return sloMaxErrorRate; }
+    public double getCapacityMin() { return capacityMin; }
+    public double getCapacityMax() { return capacityMax; }
+    public int getCapacityProbeDuration() { return capacityProbeDuration; }
+    public int getCapacityCoolDown() { return capacityCoolDown; }
+    public double getCapacityTolerance() { return capacityTolerance; }
+    public int getCapacityMaxProbes() { return capacityMaxProbes; }
+    public boolean isDistributed() { return !agents.isEmpty(); }
+    /** The properties this config was built from; shipped to distributed agents. */
+    public Properties getProperties() { return (Properties) properties.clone(); }
+    /** The single request sent when neither a scenario nor a mix is configured. */
+    public Scenario.Step getRequest() { return request; }
     public String getTestName() { return testName; }
     public String getTestDescription() { return testDescription; }
     public String getTestAuthor() { return testAuthor; }
@@ -78,7 +422,10 @@ public class PerformanceConfig {
                 this.httpMethod,
                 this.testDuration,
                 this.connectionTimeout,
-                this.responseTimeout
+                this.responseTimeout,
+                this.loadModel,
+                this.targetRate,
+                this.executionMode
         );
     }
 }
\ No newline at end of file
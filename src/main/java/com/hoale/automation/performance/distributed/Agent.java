@@ -0,0 +1,122 @@
+package com.hoale.automation.performance.distributed;
+
+import com.hoale.automation.performance.PerformanceTestEngine;
+import com.hoale.automation.performance.config.PerformanceConfig;
+import com.hoale.automation.performance.model.TestResult;
+import com.hoale.automation.performance.scheduler.RunControl;
+import com.hoale.automation.performance.worker.AsyncHttpWorker;
+import com.hoale.automation.performance.worker.SharedConnectionPool;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load generator agent: waits for a coordinator on a TCP port, runs its share of the
+ * load with the regular engine and streams results back. Serves one run per
+ * connection, one connection at a time, until the process is stopped.
+ *
+ * <pre>
+ * java -cp ... com.hoale.automation.performance.Main agent 7001
+ * </pre>
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 14:00:00 UTC
+ */
+public class Agent {
+
+    private final int port;
+
+    public Agent(int port) {
+        this.port = port;
+    }
+
+    public void serve() throws IOException {
+        try (ServerSocket server = new ServerSocket(port)) {
+            System.out.println("🛰️ Agent listening on port " + server.getLocalPort());
+            while (!Thread.currentThread().isInterrupted()) {
+                try (Socket socket = server.accept()) {
+                    System.out.println("Coordinator connected from " + socket.getRemoteSocketAddress());
+                    handle(socket);
+                } catch (IOException e) {
+                    System.err.println("Agent run aborted: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void handle(Socket socket) throws IOException {
+        socket.setTcpNoDelay(true);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+        Protocol.expect(in, Protocol.CONFIG);
+        Properties props = Protocol.readProperties(in);
+        PerformanceConfig config;
+        try {
+            config = PerformanceConfig.fromProperties(props);
+        } catch (RuntimeException e) {
+            out.writeByte(Protocol.ERROR);
+            out.writeUTF(String.valueOf(e.getMessage()));
+            out.flush();
+            return;
+        }
+        warmUp(config);
+        out.writeByte(Protocol.READY);
+        out.flush();
+
+        Protocol.expect(in, Protocol.START);
+        long delayMillis = in.readLong();
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        System.out.println("Agent " + props.getProperty("agentIndex") + " starting: " + config.getThreadCount() + " users"
+                + (config.isOpenModel() ? ", " + config.getTargetRate() + " req/s" : ""));
+        PerformanceTestEngine engine = new PerformanceTestEngine(config);
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor();
+        progress.scheduleAtFixedRate(() -> {
+            try {
+                Protocol.writeResult(out, Protocol.PROGRESS, engine.getTestResult());
+            } catch (IOException e) {
+                System.err.println("Failed to send progress: " + e.getMessage());
+            }
+        }, 1, 1, TimeUnit.SECONDS);
+
+        TestResult result;
+        try {
+            result = engine.runTest();
+        } finally {
+            progress.shutdownNow();
+        }
+        Protocol.writeResult(out, Protocol.FINAL, result);
+        System.out.println("Agent finished: " + result.getTotalRequests() + " requests");
+    }
+
+    /**
+     * Loads the HTTP stack before reporting ready, so the first seconds after the
+     * common start are spent sending requests rather than loading classes.
+     */
+    private void warmUp(PerformanceConfig config) {
+        if (config.isAsync()) {
+            new AsyncHttpWorker(config, new TestResult(), null, new RunControl(System.nanoTime())).close();
+        } else if (!config.isNio()) {
+            try (SharedConnectionPool pool = new SharedConnectionPool(config)) {
+                pool.snapshot();
+            } catch (IOException e) {
+                System.err.println("Warm-up failed: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.hoale.automation.performance.distributed;
+
+import com.hoale.automation.performance.Main;
+import com.hoale.automation.performance.config.PerformanceConfig;
+import com.hoale.automation.performance.model.TestResult;
+import com.hoale.automation.performance.model.TimeSeries;
+import com.hoale.automation.performance.monitor.GeneratorHealth;
+import com.hoale.automation.performance.scheduler.LoadProfile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Drives a run across several {@link Agent}s: splits the load, starts every agent at
+ * the same moment, prints merged progress every second and merges the agents' final
+ * results (counters, latency histograms, time series and generator health) into one TestResult.
+ *
+ * <pre>
+ * agents=host1:7001,host2:7001   # agents already running
+ * agents=local:3                 # start 3 agent JVMs on this host
+ * </pre>
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 14:00:00 UTC
+ */
+public class Coordinator {
+
+    // Time for every agent to receive START before the common start instant
+    private static final long START_DELAY_MS = 1000;
+    private static final long CONNECT_TIMEOUT_MS = 15000;
+
+    private final PerformanceConfig config;
+    private final List<Process> localAgents = new ArrayList<>();
+
+    public Coordinator(PerformanceConfig config) {
+        this.config = config;
+    }
+
+    public TestResult run() throws IOException, InterruptedException {
+        List<InetSocketAddress> addresses = resolveAgents();
+        if (config.getThreadCount() < addresses.size()) {
+            throw new IllegalArgumentException("threadCount (" + config.getThreadCount() + ") must be at least the number of agents ("
+                    + addresses.size() + ")");
+        }
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            return runAgents(addresses, sockets);
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+            for (Process process : localAgents) {
+                process.destroy();
+            }
+        }
+    }
+
+    private TestResult runAgents(List<InetSocketAddress> addresses, List<Socket> sockets) throws IOException, InterruptedException {
+        int agents = addresses.size();
+        List<DataInputStream> inputs = new ArrayList<>();
+        List<DataOutputStream> outputs = new ArrayList<>();
+
+        for (int i = 0; i < agents; i++) {
+            Socket socket = connect(addresses.get(i));
+            sockets.add(socket);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            Protocol.writeProperties(out, LoadSplitter.forAgent(config.getProperties(), agents, i));
+            Protocol.expect(in, Protocol.READY);
+            inputs.add(in);
+            outputs.add(out);
+            System.out.println("Agent " + i + " ready at " + addresses.get(i));
+        }
+
+        // Relative delay rather than a wall-clock instant, so agent clocks need not agree
+        for (DataOutputStream out : outputs) {
+            out.writeByte(Protocol.START);
+            out.writeLong(START_DELAY_MS);
+            out.flush();
+        }
+
+        AtomicReferenceArray<TestResult> latest = new AtomicReferenceArray<>(agents);
+        AtomicReferenceArray<TestResult> finals = new AtomicReferenceArray<>(agents);
+        CountDownLatch done = new CountDownLatch(agents);
+        for (int i = 0; i < agents; i++) {
+            int index = i;
+            DataInputStream in = inputs.get(i);
+            Thread reader = new Thread(() -> readResults(index, in, latest, finals, done), "agent-reader-" + i);
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        long startNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(START_DELAY_MS);
+        long timeoutNanos = startNanos + TimeUnit.SECONDS.toNanos(getRunSeconds() + config.getGracePeriod() + 30);
+        while (!done.await(1, TimeUnit.SECONDS)) {
+            if (System.nanoTime() - timeoutNanos > 0) {
+                throw new IOException("Agents did not finish in time (" + done.getCount() + " still running)");
+            }
+            printProgress(latest, agents - (int) done.getCount(), agents, startNanos);
+        }
+
+        TestResult merged = new TestResult(config.getHistogramPrecisionBits());
+        GeneratorHealth health = null;
+        TimeSeries series = null;
+        for (int i = 0; i < agents; i++) {
+            TestResult result = finals.get(i);
+            if (result == null) {
+                throw new IOException("Agent " + i + " disconnected before sending its result");
+            }
+            merged.merge(result);
+            if (result.getGeneratorHealth() != null) {
+                if (health == null) {
+                    health = new GeneratorHealth(config, startNanos);
+                }
+                health.merge(result.getGeneratorHealth(), "agent " + i);
+            }
+            if (result.getTimeSeries() != null) {
+                if (series == null) {
+                    series = new TimeSeries(config.getTimeSeriesIntervalMs(), config.getTimeSeriesCapacity());
+                }
+                series.merge(result.getTimeSeries());
+            }
+        }
+        merged.setTimeSeries(series);
+        // Any saturated agent makes the merged run saturated
+        merged.setGeneratorHealth(health);
+        merged.seal();
+        return merged;
+    }
+
+    private void readResults(int index, DataInputStream in, AtomicReferenceArray<TestResult> latest,
+                             AtomicReferenceArray<TestResult> finals, CountDownLatch done) {
+        try {
+            while (true) {
+                byte type = in.readByte();
+                TestResult result = TestResult.readFrom(in);
+                if (type == Protocol.FINAL) {
+                    finals.set(index, result);
+                    return;
+                }
+                latest.set(index, result);
+            }
+        } catch (IOException e) {
+            System.err.println("Lost agent " + index + ": " + e.getMessage());
+        } finally {
+            done.countDown();
+        }
+    }
+
+    private void printProgress(AtomicReferenceArray<TestResult> latest, int finished, int agents, long startNanos) {
+        TestResult merged = new TestResult(config.getHistogramPrecisionBits());
+        for (int i = 0; i < latest.length(); i++) {
+            TestResult result = latest.get(i);
+            if (result != null) {
+                merged.merge(result);
+            }
+        }
+        double elapsed = Math.max(1e-3, (System.nanoTime() - startNanos) / 1e9);
+        System.out.println(String.format("[%5.1fs] agents %d/%d done, %d requests (%.1f req/s), %d failed, p50 %.1f ms, p95 %.1f ms, p99 %.1f ms",
+                elapsed, finished, agents, merged.getTotalRequests(), merged.getTotalRequests() / elapsed,
+                merged.getFailedRequests(), merged.getPercentile(50), merged.getPercentile(95), merged.getPercentile(99)));
+    }
+
+    private long getRunSeconds() {
+        LoadProfile profile = config.getLoadProfile();
+        if (profile != null && profile.isTimeBounded()) {
+            return TimeUnit.NANOSECONDS.toSeconds(profile.getTotalDurationNanos()) + 1;
+        }
+        return config.getTestDuration();
+    }
+
+    private Socket connect(InetSocketAddress address) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CONNECT_TIMEOUT_MS);
+        while (true) {
+            Socket socket = new Socket();
+            try {
+                socket.connect(address, (int) CONNECT_TIMEOUT_MS);
+                socket.setTcpNoDelay(true);
+                return socket;
+            } catch (IOException e) {
+                socket.close();
+                // Freshly started local agents may not be listening yet
+                if (System.nanoTime() - deadline > 0) {
+                    throw new IOException("Cannot reach agent at " + address + ": " + e.getMessage(), e);
+                }
+                Thread.sleep(200);
+            }
+        }
+    }
+
+    private List<InetSocketAddress> resolveAgents() throws IOException {
+        String agents = config.getAgents();
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        if (agents.startsWith("local:")) {
+            int count = Integer.parseInt(agents.substring("local:".length()).trim());
+            if (count <= 0) {
+                throw new IllegalArgumentException("agents=local:N needs N > 0");
+            }
+            for (int i = 0; i < count; i++) {
+                int port = freePort();
+                localAgents.add(startLocalAgent(port, i));
+                addresses.add(new InetSocketAddress("localhost", port));
+            }
+            return addresses;
+        }
+        for (String agent : agents.split(",")) {
+            String[] hostPort = agent.trim().split(":");
+            if (hostPort.length != 2) {
+                throw new IllegalArgumentException("Agent address must be host:port, got: " + agent);
+            }
+            addresses.add(new InetSocketAddress(hostPort[0], Integer.parseInt(hostPort[1])));
+        }
+        return addresses;
+    }
+
+    private Process startLocalAgent(int port, int index) throws IOException {
+        File log = Paths.get("reports", "agents", "agent-" + index + ".log").toFile();
+        log.getParentFile().mkdirs();
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), Main.class.getName(), "agent", String.valueOf(port))
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.hoale.automation.performance.distributed;
+
+import java.util.Properties;
+
+/**
+ * Splits one run's load across N agents: users, arrival rates, rate limits and
+ * connection limits are divided so that the agents together apply the configured load.
+ * Everything else (target, scenario, think time, durations) is shared as is.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 14:00:00 UTC
+ */
+public class LoadSplitter {
+
+    private static final String[] SPLIT_COUNTS = {"threadCount", "maxInFlight", "maxConnectionsTotal", "maxConnectionsPerRoute", "rateLimit.burst"};
+
+    private LoadSplitter() {
+    }
+
+    /** Properties for agent {@code index} (0-based) of {@code agents}. */
+    public static Properties forAgent(Properties props, int agents, int index) {
+        Properties agentProps = (Properties) props.clone();
+        agentProps.remove("agents");
+        agentProps.setProperty("agentIndex", String.valueOf(index));
+
+        for (String key : SPLIT_COUNTS) {
+            String value = props.getProperty(key);
+            if (value != null) {
+                agentProps.setProperty(key, String.valueOf(Math.max(1, share(Integer.parseInt(value.trim()), agents, index))));
+            }
+        }
+        splitRate(props, agentProps, "targetRate", agents);
+        splitRate(props, agentProps, "rateLimit", agents);
+
+        for (String key : props.stringPropertyNames()) {
+            if (!key.startsWith("stage.")) {
+                continue;
+            }
+            if (key.endsWith(".users")) {
+                agentProps.setProperty(key, String.valueOf(share(Integer.parseInt(props.getProperty(key).trim()), agents, index)));
+            } else if (key.endsWith(".rate")) {
+                splitRate(props, agentProps, key, agents);
+            }
+        }
+        int metricsPort = Integer.parseInt(props.getProperty("metrics.port", "-1").trim());
+        if (metricsPort > 0) {
+            // One endpoint per agent: agent i serves on metrics.port + i
+            agentProps.setProperty("metrics.port", String.valueOf(metricsPort + index));
+        }
+        if (props.getProperty("sampleLog") != null) {
+            // Agents on one host must not write into the same segments
+            agentProps.setProperty("sampleLog", props.getProperty("sampleLog") + "/agent-" + index);
+        }
+        return agentProps;
+    }
+
+    /** Even share of {@code total}; the first {@code total % agents} agents take one extra. */
+    static int share(int total, int agents, int index) {
+        return total / agents + (index < total % agents ? 1 : 0);
+    }
+
+    private static void splitRate(Properties props, Properties agentProps, String key, int agents) {
+        String value = props.getProperty(key);
+        if (value != null) {
+            agentProps.setProperty(key, String.valueOf(Double.parseDouble(value.trim()) / agents));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.hoale.automation.performance.distributed;
+
+import com.hoale.automation.performance.model.TestResult;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+/**
+ * Wire format between coordinator and agents: one type byte per message followed by
+ * its payload, over a plain TCP connection per agent.
+ *
+ * <pre>
+ * coordinator -> agent   CONFIG  properties text      agent -> coordinator   READY
+ *                        START   delay in ms                                 ERROR     message
+ *                                                                             PROGRESS  TestResult so far (every second)
+ *                                                                             FINAL     TestResult of the whole run
+ * </pre>
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 14:00:00 UTC
+ */
+final class Protocol {
+
+    static final byte CONFIG = 'C';
+    static final byte START = 'S';
+    static final byte READY = 'R';
+    static final byte ERROR = 'E';
+    static final byte PROGRESS = 'P';
+    static final byte FINAL = 'F';
+
+    private Protocol() {
+    }
+
+    static void writeProperties(DataOutputStream out, Properties props) throws IOException {
+        StringWriter text = new StringWriter();
+        props.store(text, null);
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        out.writeByte(CONFIG);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.flush();
+    }
+
+    static Properties readProperties(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        Properties props = new Properties();
+        props.load(new StringReader(new String(bytes, StandardCharsets.UTF_8)));
+        return props;
+    }
+
+    static void writeResult(DataOutputStream out, byte type, TestResult result) throws IOException {
+        synchronized (out) {
+            out.writeByte(type);
+            result.writeTo(out);
+            out.flush();
+        }
+    }
+
+    static void expect(DataInputStream in, byte type) throws IOException {
+        byte actual = in.readByte();
+        if (actual == ERROR) {
+            throw new IOException("Agent error: " + in.readUTF());
+        }
+        if (actual != type) {
+            throw new IOException("Protocol error: expected '" + (char) type + "' but got '" + (char) actual + "'");
+        }
+    }
+}
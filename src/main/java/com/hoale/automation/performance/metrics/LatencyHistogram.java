@@ -0,0 +1,171 @@
+package com.hoale.automation.performance.metrics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear latency histogram. Values below 2^precisionBits get their own
+ * bucket; above that every power of two is split into 2^precisionBits linear buckets,
+ * so any recorded value is reported within 1 / 2^precisionBits of its true value
+ * (about 3% at the default 5 bits) across the whole long range.
+ * Histograms with the same precision merge by adding bucket counts, which is what
+ * makes per-agent and per-interval results combinable.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 14:00:00 UTC
+ */
+public class LatencyHistogram {
+
+    public static final int DEFAULT_PRECISION_BITS = 5;
+
+    private final int precisionBits;
+    private final int subBuckets;
+    private final AtomicLongArray counts;
+
+    public LatencyHistogram() {
+        this(DEFAULT_PRECISION_BITS);
+    }
+
+    public LatencyHistogram(int precisionBits) {
+        if (precisionBits < 1 || precisionBits > 10) {
+            throw new IllegalArgumentException("precisionBits must be between 1 and 10");
+        }
+        this.precisionBits = precisionBits;
+        this.subBuckets = 1 << precisionBits;
+        this.counts = new AtomicLongArray((64 - precisionBits + 1) * subBuckets);
+    }
+
+    public int getPrecisionBits() { return precisionBits; }
+
+    public void record(long value) {
+        counts.incrementAndGet(indexOf(Math.max(0, value)));
+    }
+
+    /**
+     * Records like {@link #record} for a histogram only one thread writes to: a plain
+     * read and an ordered write instead of an atomic add. Readers still see every count.
+     */
+    public void recordSingleWriter(long value) {
+        int index = indexOf(Math.max(0, value));
+        counts.setRelease(index, counts.getPlain(index) + 1);
+    }
+
+    int indexOf(long value) {
+        if (value < subBuckets) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - precisionBits;
+        long top = value >>> shift; // in [subBuckets, 2 * subBuckets)
+        return (shift + 1) * subBuckets + (int) (top - subBuckets);
+    }
+
+    /** Largest value that falls into bucket {@code index}. */
+    long highestValueAt(int index) {
+        if (index < subBuckets) {
+            return index;
+        }
+        int shift = index / subBuckets - 1;
+        long top = subBuckets + index % subBuckets;
+        return ((top + 1) << shift) - 1;
+    }
+
+    public long getTotalCount() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * @param percentile 0-100
+     * @return the highest value equivalent to the given percentile, or 0 when empty
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = getTotalCount();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100.0, percentile) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return highestValueAt(i);
+            }
+        }
+        return highestValueAt(counts.length() - 1);
+    }
+
+    /** Adds every bucket of {@code other} into this histogram. */
+    public void merge(LatencyHistogram other) {
+        if (other.precisionBits != precisionBits) {
+            throw new IllegalArgumentException("Cannot merge histograms with precision " + other.precisionBits
+                    + " into " + precisionBits);
+        }
+        for (int i = 0; i < counts.length(); i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+    }
+
+    /** Point-in-time copy; later records into this histogram do not show up in it. */
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram(precisionBits);
+        copy.merge(this);
+        return copy;
+    }
+
+    /**
+     * What was recorded after {@code earlier}, a {@link #copy()} of this histogram taken
+     * before: bucket by bucket the difference, which is how sliding windows are cut
+     * out of a cumulative histogram.
+     */
+    public LatencyHistogram since(LatencyHistogram earlier) {
+        if (earlier.precisionBits != precisionBits) {
+            throw new IllegalArgumentException("Cannot subtract histograms with precision " + earlier.precisionBits
+                    + " from " + precisionBits);
+        }
+        LatencyHistogram delta = new LatencyHistogram(precisionBits);
+        for (int i = 0; i < counts.length(); i++) {
+            long count = counts.get(i) - earlier.counts.get(i);
+            if (count > 0) {
+                delta.counts.set(i, count);
+            }
+        }
+        return delta;
+    }
+
+    /** Sparse encoding: precision, number of non-empty buckets, then (index, count) pairs. */
+    public void writeTo(DataOutput out) throws IOException {
+        int nonEmpty = 0;
+        long[] snapshot = new long[counts.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = counts.get(i);
+            if (snapshot[i] != 0) {
+                nonEmpty++;
+            }
+        }
+        out.writeByte(precisionBits);
+        out.writeInt(nonEmpty);
+        for (int i = 0; i < snapshot.length; i++) {
+            if (snapshot[i] != 0) {
+                out.writeShort(i);
+                out.writeLong(snapshot[i]);
+            }
+        }
+    }
+
+    public static LatencyHistogram readFrom(DataInput in) throws IOException {
+        LatencyHistogram histogram = new LatencyHistogram(in.readByte());
+        int nonEmpty = in.readInt();
+        for (int i = 0; i < nonEmpty; i++) {
+            histogram.counts.addAndGet(in.readUnsignedShort(), in.readLong());
+        }
+        return histogram;
+    }
+}
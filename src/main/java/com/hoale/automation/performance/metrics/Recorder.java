@@ -0,0 +1,57 @@
+package com.hoale.automation.performance.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Request counters and latency histogram for one stripe of threads. A result keeps
+ * about one recorder per core and deals threads out over them, so only the few threads
+ * sharing a stripe ever touch the same counters and their atomic updates rarely
+ * contend. Readers may read at any time and see a slightly stale but consistent-enough
+ * view. The counters sit in the middle of a padded array, so two recorders never share
+ * a cache line.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 19:00:00 UTC
+ */
+public final class Recorder {
+
+    // 64-byte cache line worth of longs on either side of the counters
+    private static final int PAD = 8;
+    private static final int REQUESTS = PAD;
+    private static final int SUCCESSFUL = PAD + 1;
+    private static final int TOTAL_MILLIS = PAD + 2;
+    private static final int MIN_MILLIS = PAD + 3;
+    private static final int MAX_MILLIS = PAD + 4;
+
+    private final AtomicLongArray cells = new AtomicLongArray(MAX_MILLIS + 1 + PAD);
+    private final LatencyHistogram histogram;
+
+    public Recorder(int precisionBits) {
+        this.histogram = new LatencyHistogram(precisionBits);
+        cells.setRelease(MIN_MILLIS, Long.MAX_VALUE);
+    }
+
+    public void record(boolean success, long responseTimeMillis, long responseTimeMicros) {
+        histogram.record(responseTimeMicros);
+        cells.getAndIncrement(REQUESTS);
+        if (success) {
+            cells.getAndIncrement(SUCCESSFUL);
+        }
+        cells.getAndAdd(TOTAL_MILLIS, responseTimeMillis);
+        // Plain read first: once min and max settle, most requests write neither
+        if (responseTimeMillis < cells.getPlain(MIN_MILLIS)) {
+            cells.accumulateAndGet(MIN_MILLIS, responseTimeMillis, Math::min);
+        }
+        if (responseTimeMillis > cells.getPlain(MAX_MILLIS)) {
+            cells.accumulateAndGet(MAX_MILLIS, responseTimeMillis, Math::max);
+        }
+    }
+
+    public long getRequests() { return cells.getAcquire(REQUESTS); }
+    public long getSuccessful() { return cells.getAcquire(SUCCESSFUL); }
+    public long getTotalMillis() { return cells.getAcquire(TOTAL_MILLIS); }
+    /** Long.MAX_VALUE until something is recorded. */
+    public long getMinMillis() { return cells.getAcquire(MIN_MILLIS); }
+    public long getMaxMillis() { return cells.getAcquire(MAX_MILLIS); }
+    public LatencyHistogram getHistogram() { return histogram; }
+}
@@ -0,0 +1,78 @@
+package com.hoale.automation.performance.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Outcome of a capacity search: every probe run (the load-vs-latency curve) and
+ * the knee, the highest load level at which the SLO still held.
+ */
+public class CapacitySearchResult {
+    private final String dimension;
+    private final double sloP99Ms;
+    private final double sloMaxErrorRate;
+    private final List<Probe> probes = new ArrayList<>();
+
+    public CapacitySearchResult(String dimension, double sloP99Ms, double sloMaxErrorRate) {
+        this.dimension = dimension;
+        this.sloP99Ms = sloP99Ms;
+        this.sloMaxErrorRate = sloMaxErrorRate;
+    }
+
+    public void addProbe(Probe probe) {
+        probes.add(probe);
+    }
+
+    /** "users" (closed model) or "req/s" (open model). */
+    public String getDimension() { return dimension; }
+    public double getSloP99Ms() { return sloP99Ms; }
+    public double getSloMaxErrorRate() { return sloMaxErrorRate; }
+    /** Probes in the order they ran. */
+    public List<Probe> getProbes() { return Collections.unmodifiableList(probes); }
+
+    /** Probes sorted by load level: the load-vs-latency curve. */
+    public List<Probe> getCurve() {
+        List<Probe> curve = new ArrayList<>(probes);
+        curve.sort(Comparator.comparingDouble(Probe::getLevel));
+        return curve;
+    }
+
+    /** Highest passing probe, or null when even the lowest level broke the SLO. */
+    public Probe getKnee() {
+        Probe knee = null;
+        for (Probe probe : probes) {
+            if (probe.isPassed() && (knee == null || probe.getLevel() > knee.getLevel())) {
+                knee = probe;
+            }
+        }
+        return knee;
+    }
+
+    public static class Probe {
+        private final double level;
+        private final double throughput;
+        private final double p50Ms;
+        private final double p99Ms;
+        private final double errorRate;
+        private final boolean passed;
+
+        public Probe(double level, double throughput, double p50Ms, double p99Ms, double errorRate, boolean passed) {
+            this.level = level;
+            this.throughput = throughput;
+            this.p50Ms = p50Ms;
+            this.p99Ms = p99Ms;
+            this.errorRate = errorRate;
+            this.passed = passed;
+        }
+
+        public double getLevel() { return level; }
+        public double getThroughput() { return throughput; }
+        public double getP50Ms() { return p50Ms; }
+        public double getP99Ms() { return p99Ms; }
+        /** Failed plus cancelled requests, in percent. */
+        public double getErrorRate() { return errorRate; }
+        public boolean isPassed() { return passed; }
+    }
+}
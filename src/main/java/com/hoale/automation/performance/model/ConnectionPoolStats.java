@@ -0,0 +1,46 @@
+package com.hoale.automation.performance.model;
+
+/**
+ * Connection pool usage over a run: how long requests waited for a pooled
+ * connection and how many connections had to be opened and thrown away.
+ */
+public class ConnectionPoolStats {
+    private final int maxTotal;
+    private final int maxPerRoute;
+    private final long leases;
+    private final long totalLeaseWaitNanos;
+    private final long maxLeaseWaitNanos;
+    private final long connectionsOpened;
+    private final long connectionsClosed;
+    private final int leasedAtEnd;
+    private final int pendingAtEnd;
+
+    public ConnectionPoolStats(int maxTotal, int maxPerRoute, long leases, long totalLeaseWaitNanos,
+                               long maxLeaseWaitNanos, long connectionsOpened, long connectionsClosed,
+                               int leasedAtEnd, int pendingAtEnd) {
+        this.maxTotal = maxTotal;
+        this.maxPerRoute = maxPerRoute;
+        this.leases = leases;
+        this.totalLeaseWaitNanos = totalLeaseWaitNanos;
+        this.maxLeaseWaitNanos = maxLeaseWaitNanos;
+        this.connectionsOpened = connectionsOpened;
+        this.connectionsClosed = connectionsClosed;
+        this.leasedAtEnd = leasedAtEnd;
+        this.pendingAtEnd = pendingAtEnd;
+    }
+
+    public int getMaxTotal() { return maxTotal; }
+    public int getMaxPerRoute() { return maxPerRoute; }
+    public long getLeases() { return leases; }
+    public double getAverageLeaseWaitMs() {
+        return leases > 0 ? totalLeaseWaitNanos / 1_000_000.0 / leases : 0.0;
+    }
+    public double getMaxLeaseWaitMs() { return maxLeaseWaitNanos / 1_000_000.0; }
+    public long getConnectionsOpened() { return connectionsOpened; }
+    public long getConnectionsClosed() { return connectionsClosed; }
+    public double getReuseRate() {
+        return leases > 0 ? Math.max(0, leases - connectionsOpened) * 100.0 / leases : 0.0;
+    }
+    public int getLeasedAtEnd() { return leasedAtEnd; }
+    public int getPendingAtEnd() { return pendingAtEnd; }
+}
@@ -0,0 +1,168 @@
+package com.hoale.automation.performance.model;
+
+import com.hoale.automation.performance.metrics.LatencyHistogram;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * What requests ended in: a response status, counted per exact code and per class
+ * (2xx, 5xx, ...), or a transport error such as a connect timeout or a reset
+ * connection. Each category has its own latency histogram (in microseconds), so a
+ * run where fast 503s hide slow 200s shows both. Counting is lock-free; a category's
+ * histogram is created by the first request that lands in it.
+ */
+public class OutcomeBreakdown {
+
+    public enum Category {
+        STATUS_1XX("1xx"),
+        STATUS_2XX("2xx"),
+        STATUS_3XX("3xx"),
+        STATUS_4XX("4xx"),
+        STATUS_5XX("5xx"),
+        CONNECT_TIMEOUT("Connect Timeout"),
+        CONNECTION_REFUSED("Connection Refused"),
+        READ_TIMEOUT("Read Timeout"),
+        CONNECTION_RESET("Connection Reset"),
+        POOL_EXHAUSTED("Pool Exhausted"),
+        UNKNOWN_HOST("Unknown Host"),
+        TLS("TLS Error"),
+        INVALID_REQUEST("Invalid Request"),
+        OTHER("Other Error");
+
+        private final String label;
+
+        Category(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+    }
+
+    private static final Category[] CATEGORIES = Category.values();
+    private static final int MAX_STATUS = 600;
+
+    private final int precisionBits;
+    private final AtomicLongArray statusCounts = new AtomicLongArray(MAX_STATUS);
+    private final AtomicReferenceArray<LatencyHistogram> histograms = new AtomicReferenceArray<>(CATEGORIES.length);
+
+    public OutcomeBreakdown() {
+        this(LatencyHistogram.DEFAULT_PRECISION_BITS);
+    }
+
+    public OutcomeBreakdown(int precisionBits) {
+        this.precisionBits = precisionBits;
+    }
+
+    /** A response; codes outside 100-599 count as {@link Category#OTHER}. */
+    public void recordStatus(int status, long responseTimeNanos) {
+        if (status < 100 || status >= MAX_STATUS) {
+            recordError(Category.OTHER, responseTimeNanos);
+            return;
+        }
+        statusCounts.incrementAndGet(status);
+        histogram(CATEGORIES[status / 100 - 1]).record(TimeUnit.NANOSECONDS.toMicros(responseTimeNanos));
+    }
+
+    /** A request that got no response. */
+    public void recordError(Category category, long responseTimeNanos) {
+        histogram(category).record(TimeUnit.NANOSECONDS.toMicros(responseTimeNanos));
+    }
+
+    private LatencyHistogram histogram(Category category) {
+        LatencyHistogram histogram = histograms.get(category.ordinal());
+        if (histogram == null) {
+            histograms.compareAndSet(category.ordinal(), null, new LatencyHistogram(precisionBits));
+            histogram = histograms.get(category.ordinal());
+        }
+        return histogram;
+    }
+
+    public void merge(OutcomeBreakdown other) {
+        for (int status = 0; status < MAX_STATUS; status++) {
+            long count = other.statusCounts.get(status);
+            if (count > 0) {
+                statusCounts.addAndGet(status, count);
+            }
+        }
+        for (Category category : CATEGORIES) {
+            LatencyHistogram histogram = other.histograms.get(category.ordinal());
+            if (histogram != null) {
+                histogram(category).merge(histogram);
+            }
+        }
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeByte(precisionBits);
+        Map<Integer, Long> codes = getStatusCounts();
+        out.writeInt(codes.size());
+        for (Map.Entry<Integer, Long> code : codes.entrySet()) {
+            out.writeShort(code.getKey());
+            out.writeLong(code.getValue());
+        }
+        for (Category category : CATEGORIES) {
+            LatencyHistogram histogram = histograms.get(category.ordinal());
+            out.writeBoolean(histogram != null);
+            if (histogram != null) {
+                histogram.writeTo(out);
+            }
+        }
+    }
+
+    public static OutcomeBreakdown readFrom(DataInputStream in) throws IOException {
+        OutcomeBreakdown breakdown = new OutcomeBreakdown(in.readByte());
+        int codes = in.readInt();
+        for (int i = 0; i < codes; i++) {
+            breakdown.statusCounts.set(in.readShort(), in.readLong());
+        }
+        for (Category category : CATEGORIES) {
+            if (in.readBoolean()) {
+                breakdown.histograms.set(category.ordinal(), LatencyHistogram.readFrom(in));
+            }
+        }
+        return breakdown;
+    }
+
+    /** Requests per exact status code, in code order; codes never seen are left out. */
+    public Map<Integer, Long> getStatusCounts() {
+        Map<Integer, Long> codes = new LinkedHashMap<>();
+        for (int status = 0; status < MAX_STATUS; status++) {
+            long count = statusCounts.get(status);
+            if (count > 0) {
+                codes.put(status, count);
+            }
+        }
+        return codes;
+    }
+
+    public long getCount(Category category) {
+        LatencyHistogram histogram = histograms.get(category.ordinal());
+        return histogram != null ? histogram.getTotalCount() : 0;
+    }
+
+    public double getPercentileMs(Category category, double percentile) {
+        LatencyHistogram histogram = histograms.get(category.ordinal());
+        return histogram != null ? histogram.getValueAtPercentile(percentile) / 1000.0 : 0.0;
+    }
+
+    public long getTotalCount() {
+        long total = 0;
+        for (Category category : CATEGORIES) {
+            total += getCount(category);
+        }
+        return total;
+    }
+
+    /** Share of all classified requests that landed in {@code category}, in percent. */
+    public double getShare(Category category) {
+        long total = getTotalCount();
+        return total > 0 ? getCount(category) * 100.0 / total : 0.0;
+    }
+}
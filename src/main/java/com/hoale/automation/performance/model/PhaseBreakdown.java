@@ -0,0 +1,101 @@
+package com.hoale.automation.performance.model;
+
+import com.hoale.automation.performance.metrics.LatencyHistogram;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Where a request's time went: waiting for a pooled connection, opening one,
+ * writing the request, waiting for the first byte of the response and reading
+ * the body. One histogram (in microseconds) and one exact total per phase.
+ */
+public class PhaseBreakdown {
+
+    public enum Phase {
+        LEASE("Pool Lease"),
+        CONNECT("Connect"),
+        WRITE("Request Write"),
+        TTFB("Time to First Byte"),
+        BODY("Body Read");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() { return label; }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[PHASES.length];
+    private final AtomicLongArray totalMicros = new AtomicLongArray(PHASES.length);
+
+    public PhaseBreakdown() {
+        this(LatencyHistogram.DEFAULT_PRECISION_BITS);
+    }
+
+    public PhaseBreakdown(int precisionBits) {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram(precisionBits);
+        }
+    }
+
+    /** @param nanos time per phase, indexed by {@link Phase#ordinal()} */
+    public void record(long[] nanos) {
+        for (int i = 0; i < histograms.length; i++) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(nanos[i]);
+            histograms[i].record(micros);
+            totalMicros.addAndGet(i, micros);
+        }
+    }
+
+    public void merge(PhaseBreakdown other) {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i].merge(other.histograms[i]);
+            totalMicros.addAndGet(i, other.totalMicros.get(i));
+        }
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        for (int i = 0; i < histograms.length; i++) {
+            out.writeLong(totalMicros.get(i));
+            histograms[i].writeTo(out);
+        }
+    }
+
+    public static PhaseBreakdown readFrom(DataInputStream in) throws IOException {
+        PhaseBreakdown breakdown = new PhaseBreakdown();
+        for (int i = 0; i < breakdown.histograms.length; i++) {
+            breakdown.totalMicros.set(i, in.readLong());
+            breakdown.histograms[i] = LatencyHistogram.readFrom(in);
+        }
+        return breakdown;
+    }
+
+    public LatencyHistogram getHistogram(Phase phase) { return histograms[phase.ordinal()]; }
+    public long getCount() { return histograms[0].getTotalCount(); }
+
+    public double getMeanMs(Phase phase) {
+        long count = getCount();
+        return count > 0 ? totalMicros.get(phase.ordinal()) / 1000.0 / count : 0.0;
+    }
+
+    public double getPercentileMs(Phase phase, double percentile) {
+        return histograms[phase.ordinal()].getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /** Share of the summed phase means taken by {@code phase}, in percent. */
+    public double getShare(Phase phase) {
+        double total = 0;
+        for (Phase p : PHASES) {
+            total += getMeanMs(p);
+        }
+        return total > 0 ? getMeanMs(phase) * 100.0 / total : 0.0;
+    }
+}
@@ -0,0 +1,47 @@
+package com.hoale.automation.performance.model;
+
+/**
+ * Global rate limiter usage over a run: the rate it held the workers to and how
+ * long they were parked waiting for a permit.
+ */
+public class RateLimiterStats {
+    private final double targetRate;
+    private final int burst;
+    private final long acquisitions;
+    private final long permits;
+    private final long delayed;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+
+    public RateLimiterStats(double targetRate, int burst, long acquisitions, long permits, long delayed,
+                            long totalWaitNanos, long maxWaitNanos) {
+        this.targetRate = targetRate;
+        this.burst = burst;
+        this.acquisitions = acquisitions;
+        this.permits = permits;
+        this.delayed = delayed;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+    }
+
+    /** Rate in force at the end of the run, in requests per second. */
+    public double getTargetRate() { return targetRate; }
+    public int getBurst() { return burst; }
+    /** {@code achievedRate} as a share of the target rate, in percent. */
+    public double getAchievedShare(double achievedRate) {
+        return targetRate > 0 ? achievedRate * 100.0 / targetRate : 0.0;
+    }
+    public long getAcquisitions() { return acquisitions; }
+    /** Requests let through; a scenario iteration takes one permit per step. */
+    public long getPermits() { return permits; }
+    /** Share of acquisitions that had to wait for their slot, in percent. */
+    public double getDelayedRate() {
+        return acquisitions > 0 ? delayed * 100.0 / acquisitions : 0.0;
+    }
+    public double getTotalWaitSeconds() { return totalWaitNanos / 1_000_000_000.0; }
+    /** Mean wait over all acquisitions, including the ones that did not wait. */
+    public double getAverageWaitMs() {
+        return acquisitions > 0 ? totalWaitNanos / 1_000_000.0 / acquisitions : 0.0;
+    }
+    public double getMaxWaitMs() { return maxWaitNanos / 1_000_000.0; }
+}
@@ -8,9 +8,13 @@ public class TestConfig {
     private int testDurationSec;
     private int connectionTimeoutMs;
     private int responseTimeoutMs;
+    private String loadModel;
+    private double targetRate;
+    private String executionMode;
 
     public TestConfig(String targetUrl, int numberOfThreads, int requestsPerThread, String httpMethod,
-                      int testDurationSec, int connectionTimeoutMs, int responseTimeoutMs) {
+                      int testDurationSec, int connectionTimeoutMs, int responseTimeoutMs,
+                      String loadModel, double targetRate, String executionMode) {
         this.targetUrl = targetUrl;
         this.numberOfThreads = numberOfThreads;
         this.requestsPerThread = requestsPerThread;
@@ -18,6 +22,9 @@ public class TestConfig {
         this.testDurationSec = testDurationSec;
         this.connectionTimeoutMs = connectionTimeoutMs;
         this.responseTimeoutMs = responseTimeoutMs;
+        this.loadModel = loadModel;
+        this.targetRate = targetRate;
+        this.executionMode = executionMode;
     }
 
     public String getTargetUrl() { return targetUrl; }
@@ -27,4 +34,8 @@ public class TestConfig {
     public int getTestDurationSec() { return testDurationSec; }
     public int getConnectionTimeoutMs() { return connectionTimeoutMs; }
     public int getResponseTimeoutMs() { return responseTimeoutMs; }
+    public String getLoadModel() { return loadModel; }
+    public double getTargetRate() { return targetRate; }
+    public boolean isOpenModel() { return "open".equals(loadModel); }
+    public String getExecutionMode() { return executionMode; }
 }
\ No newline at end of file
@@ -1,12 +1,34 @@
 package com.hoale.automation.performance.model;
 
+import com.hoale.automation.performance.metrics.LatencyHistogram;
+import com.hoale.automation.performance.metrics.Recorder;
+import com.hoale.automation.performance.monitor.GeneratorFootprint;
+import com.hoale.automation.performance.monitor.GeneratorHealth;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public class TestResult {
 
+    // One recorder per core (rounded up to a power of two): at most that many threads record at
+    // the same instant, and memory stays bounded however many threads or virtual users there are
+    private static final int STRIPES = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1) << 1);
+    private static final AtomicInteger nextStripe = new AtomicInteger();
+    // Threads are dealt out round-robin, once for all results
+    private static final ThreadLocal<Integer> stripe = ThreadLocal.withInitial(() -> nextStripe.getAndIncrement() & (STRIPES - 1));
+
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     private final AtomicInteger totalRequests = new AtomicInteger(0);
@@ -14,15 +36,299 @@ public class TestResult {
     private final AtomicLong totalResponseTime = new AtomicLong(0);
     private final AtomicLong minResponseTime = new AtomicLong(Long.MAX_VALUE);
     private final AtomicLong maxResponseTime = new AtomicLong(0);
+    // Stragglers: requests cancelled after the drain grace period, kept out of the totals above
+    private final AtomicInteger cancelledRequests = new AtomicInteger(0);
+    private volatile boolean sealed;
+    // Set by the SLO watchdog when it stopped the run early
+    private volatile String abortReason;
+    // Latency distribution in microseconds; mergeable across agents
+    private final LatencyHistogram histogram;
+    // Striped recorders: each thread writes to its stripe's recorder, created on first use, and
+    // readers add them to the shared counters above (which hold merged and deserialized results)
+    private final AtomicReferenceArray<Recorder> recorders = new AtomicReferenceArray<>(STRIPES);
+    // Per-phase timings; created by the first request that reports them (blocking engines only)
+    private volatile PhaseBreakdown phaseBreakdown;
+    // Status codes and error types; created by the first request that reports one (totals only)
+    private volatile OutcomeBreakdown outcomeBreakdown;
+    private GeneratorFootprint generatorFootprint;
+    private GeneratorHealth generatorHealth;
+    private ConnectionPoolStats connectionPoolStats;
+    private RateLimiterStats rateLimiterStats;
+    private TimeSeries timeSeries;
+    private CapacitySearchResult capacitySearch;
+    // Per load-profile stage results, in stage order; filled before the run starts
+    private final Map<String, TestResult> stageResults = new LinkedHashMap<>();
+    // Scenario runs: one result per step plus one for the whole transaction
+    private final Map<String, TestResult> stepResults = new LinkedHashMap<>();
+    private TestResult transactionResult;
+    // Endpoint mix runs: one result per endpoint, in mix order
+    private final Map<String, TestResult> endpointResults = new LinkedHashMap<>();
+
+    public TestResult() {
+        this(LatencyHistogram.DEFAULT_PRECISION_BITS);
+    }
+
+    /** @param precisionBits latency histogram precision, see {@link LatencyHistogram} */
+    public TestResult(int precisionBits) {
+        this(new LatencyHistogram(precisionBits));
+    }
+
+    private TestResult(LatencyHistogram histogram) {
+        this.histogram = histogram;
+    }
+
+    /** An empty result recording at this one's precision, for stages, steps and endpoints. */
+    private TestResult child() {
+        return new TestResult(histogram.getPrecisionBits());
+    }
 
     public void recordRequest(boolean success, long responseTimeMillis) {
-        totalRequests.incrementAndGet();
-        if (success) {
-            successfulRequests.incrementAndGet();
+        record(success, responseTimeMillis, responseTimeMillis * 1000);
+    }
+
+    /** Records a request timed with System.nanoTime, keeping sub-millisecond detail in the histogram. */
+    public void recordRequestNanos(boolean success, long responseTimeNanos) {
+        record(success, TimeUnit.NANOSECONDS.toMillis(responseTimeNanos), TimeUnit.NANOSECONDS.toMicros(responseTimeNanos));
+    }
+
+    private void record(boolean success, long responseTimeMillis, long responseTimeMicros) {
+        if (sealed) {
+            return;
+        }
+        recorder(stripe.get()).record(success, responseTimeMillis, responseTimeMicros);
+    }
+
+    /** Recorders some thread has written to so far. */
+    private List<Recorder> activeRecorders() {
+        List<Recorder> active = new ArrayList<>(STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            Recorder r = recorders.get(i);
+            if (r != null) {
+                active.add(r);
+            }
+        }
+        return active;
+    }
+
+    private Recorder recorder(int index) {
+        Recorder own = recorders.get(index);
+        if (own == null) {
+            recorders.compareAndSet(index, null, new Recorder(histogram.getPrecisionBits()));
+            own = recorders.get(index);
+        }
+        return own;
+    }
+
+    /** @param phaseNanos time per {@link PhaseBreakdown.Phase}, indexed by ordinal */
+    public void recordPhases(long[] phaseNanos) {
+        if (!sealed) {
+            phases().record(phaseNanos);
+        }
+    }
+
+    private PhaseBreakdown phases() {
+        PhaseBreakdown breakdown = phaseBreakdown;
+        if (breakdown == null) {
+            synchronized (this) {
+                breakdown = phaseBreakdown;
+                if (breakdown == null) {
+                    breakdown = new PhaseBreakdown(histogram.getPrecisionBits());
+                    phaseBreakdown = breakdown;
+                }
+            }
+        }
+        return breakdown;
+    }
+
+    /** Classifies a request already counted with {@link #recordRequestNanos} by the status it got. */
+    public void recordStatus(int status, long responseTimeNanos) {
+        if (!sealed) {
+            outcomes().recordStatus(status, responseTimeNanos);
+        }
+    }
+
+    /** Classifies a request already counted with {@link #recordRequestNanos} that got no response. */
+    public void recordError(OutcomeBreakdown.Category category, long responseTimeNanos) {
+        if (!sealed) {
+            outcomes().recordError(category, responseTimeNanos);
+        }
+    }
+
+    private OutcomeBreakdown outcomes() {
+        OutcomeBreakdown breakdown = outcomeBreakdown;
+        if (breakdown == null) {
+            synchronized (this) {
+                breakdown = outcomeBreakdown;
+                if (breakdown == null) {
+                    breakdown = new OutcomeBreakdown(histogram.getPrecisionBits());
+                    outcomeBreakdown = breakdown;
+                }
+            }
+        }
+        return breakdown;
+    }
+
+    public void recordCancelled(int count) {
+        if (!sealed) {
+            cancelledRequests.addAndGet(count);
+        }
+    }
+
+    /** Freezes the result: anything a late worker records afterwards is ignored. */
+    public void seal() {
+        sealed = true;
+        for (TestResult stage : stageResults.values()) {
+            stage.seal();
+        }
+        for (TestResult step : stepResults.values()) {
+            step.seal();
+        }
+        if (transactionResult != null) {
+            transactionResult.seal();
+        }
+        for (TestResult endpoint : endpointResults.values()) {
+            endpoint.seal();
+        }
+    }
+
+    /**
+     * Adds another result's counters and histogram into this one, including stage,
+     * step and transaction results (matched by name). Times widen to cover both.
+     * Generator health and the time series are left to the coordinator, which merges
+     * them once per agent.
+     */
+    public void merge(TestResult other) {
+        totalRequests.addAndGet(other.getTotalRequests());
+        successfulRequests.addAndGet(other.getSuccessfulRequests());
+        totalResponseTime.addAndGet(other.getTotalResponseTime());
+        cancelledRequests.addAndGet(other.getCancelledRequests());
+        updateMin(other.getMinResponseTimeMillis());
+        updateMax((long) other.getMaxResponseTime());
+        histogram.merge(other.getHistogram());
+        if (other.phaseBreakdown != null) {
+            phases().merge(other.phaseBreakdown);
+        }
+        if (other.outcomeBreakdown != null) {
+            outcomes().merge(other.outcomeBreakdown);
+        }
+        if (other.startTime != null && (startTime == null || other.startTime.isBefore(startTime))) {
+            startTime = other.startTime;
+        }
+        if (other.endTime != null && (endTime == null || other.endTime.isAfter(endTime))) {
+            endTime = other.endTime;
+        }
+        for (Map.Entry<String, TestResult> stage : other.stageResults.entrySet()) {
+            stageResults.computeIfAbsent(stage.getKey(), name -> child()).merge(stage.getValue());
+        }
+        for (Map.Entry<String, TestResult> step : other.stepResults.entrySet()) {
+            stepResults.computeIfAbsent(step.getKey(), name -> child()).merge(step.getValue());
+        }
+        if (other.transactionResult != null) {
+            if (transactionResult == null) {
+                transactionResult = child();
+            }
+            transactionResult.merge(other.transactionResult);
+        }
+        for (Map.Entry<String, TestResult> endpoint : other.endpointResults.entrySet()) {
+            endpointResults.computeIfAbsent(endpoint.getKey(), name -> child()).merge(endpoint.getValue());
+        }
+        if (abortReason == null) {
+            abortReason = other.abortReason;
+        }
+    }
+
+    /** Binary form used between distributed agents and the coordinator; see {@link #readFrom}. */
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(getTotalRequests());
+        out.writeInt(getSuccessfulRequests());
+        out.writeLong(getTotalResponseTime());
+        out.writeLong(getMinResponseTimeMillis());
+        out.writeLong((long) getMaxResponseTime());
+        out.writeInt(getCancelledRequests());
+        out.writeUTF(startTime != null ? startTime.toString() : "");
+        out.writeUTF(endTime != null ? endTime.toString() : "");
+        getHistogram().writeTo(out);
+        out.writeBoolean(phaseBreakdown != null);
+        if (phaseBreakdown != null) {
+            phaseBreakdown.writeTo(out);
+        }
+        writeNamed(out, stageResults);
+        writeNamed(out, stepResults);
+        out.writeBoolean(transactionResult != null);
+        if (transactionResult != null) {
+            transactionResult.writeTo(out);
+        }
+        writeNamed(out, endpointResults);
+        out.writeUTF(abortReason != null ? abortReason : "");
+        out.writeBoolean(outcomeBreakdown != null);
+        if (outcomeBreakdown != null) {
+            outcomeBreakdown.writeTo(out);
+        }
+        out.writeBoolean(generatorHealth != null);
+        if (generatorHealth != null) {
+            generatorHealth.writeTo(out);
+        }
+        out.writeBoolean(timeSeries != null);
+        if (timeSeries != null) {
+            timeSeries.writeTo(out);
+        }
+    }
+
+    public static TestResult readFrom(DataInputStream in) throws IOException {
+        int totalRequests = in.readInt();
+        int successfulRequests = in.readInt();
+        long totalResponseTime = in.readLong();
+        long minResponseTime = in.readLong();
+        long maxResponseTime = in.readLong();
+        int cancelledRequests = in.readInt();
+        String start = in.readUTF();
+        String end = in.readUTF();
+        // The histogram carries its precision, so the result takes it from there
+        TestResult result = new TestResult(LatencyHistogram.readFrom(in));
+        result.totalRequests.set(totalRequests);
+        result.successfulRequests.set(successfulRequests);
+        result.totalResponseTime.set(totalResponseTime);
+        result.minResponseTime.set(minResponseTime);
+        result.maxResponseTime.set(maxResponseTime);
+        result.cancelledRequests.set(cancelledRequests);
+        result.startTime = start.isEmpty() ? null : LocalDateTime.parse(start);
+        result.endTime = end.isEmpty() ? null : LocalDateTime.parse(end);
+        if (in.readBoolean()) {
+            result.phaseBreakdown = PhaseBreakdown.readFrom(in);
+        }
+        readNamed(in, result.stageResults);
+        readNamed(in, result.stepResults);
+        if (in.readBoolean()) {
+            result.transactionResult = readFrom(in);
+        }
+        readNamed(in, result.endpointResults);
+        String abortReason = in.readUTF();
+        result.abortReason = abortReason.isEmpty() ? null : abortReason;
+        if (in.readBoolean()) {
+            result.outcomeBreakdown = OutcomeBreakdown.readFrom(in);
+        }
+        if (in.readBoolean()) {
+            result.generatorHealth = GeneratorHealth.readFrom(in);
+        }
+        if (in.readBoolean()) {
+            result.timeSeries = TimeSeries.readFrom(in);
+        }
+        return result;
+    }
+
+    private static void writeNamed(DataOutputStream out, Map<String, TestResult> results) throws IOException {
+        out.writeInt(results.size());
+        for (Map.Entry<String, TestResult> entry : results.entrySet()) {
+            out.writeUTF(entry.getKey());
+            entry.getValue().writeTo(out);
+        }
+    }
+
+    private static void readNamed(DataInputStream in, Map<String, TestResult> results) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            results.put(in.readUTF(), readFrom(in));
         }
-        totalResponseTime.addAndGet(responseTimeMillis);
-        updateMin(responseTimeMillis);
-        updateMax(responseTimeMillis);
     }
 
     private void updateMin(long responseTime) {
@@ -41,23 +347,70 @@ public class TestResult {
         } while (!maxResponseTime.compareAndSet(prev, next));
     }
 
-    public int getTotalRequests() { return totalRequests.get(); }
-    public int getSuccessfulRequests() { return successfulRequests.get(); }
+    public int getTotalRequests() {
+        long total = totalRequests.get();
+        for (Recorder r : activeRecorders()) {
+            total += r.getRequests();
+        }
+        return (int) total;
+    }
+    public int getSuccessfulRequests() {
+        long successful = successfulRequests.get();
+        for (Recorder r : activeRecorders()) {
+            successful += r.getSuccessful();
+        }
+        return (int) successful;
+    }
     public int getFailedRequests() { return getTotalRequests() - getSuccessfulRequests(); }
+    public int getCancelledRequests() { return cancelledRequests.get(); }
+    /** Latency distribution in microseconds: a snapshot of every recorder merged, detached from the result. */
+    public LatencyHistogram getHistogram() {
+        LatencyHistogram snapshot = histogram.copy();
+        for (Recorder r : activeRecorders()) {
+            snapshot.merge(r.getHistogram());
+        }
+        return snapshot;
+    }
+    /** Per-phase latency, or null when the engine does not time phases (async, nio). */
+    public PhaseBreakdown getPhaseBreakdown() { return phaseBreakdown; }
+    /** Requests by status code and error type, or null when nothing was classified (stages, steps, endpoints). */
+    public OutcomeBreakdown getOutcomeBreakdown() { return outcomeBreakdown; }
+    /** Latency at {@code percentile} (0-100) in milliseconds, within the histogram's precision. */
+    public double getPercentile(double percentile) {
+        return getHistogram().getValueAtPercentile(percentile) / 1000.0;
+    }
     public double getSuccessRate() {
         int total = getTotalRequests();
         return total > 0 ? (getSuccessfulRequests() * 100.0) / total : 0.0;
     }
     public double getAverageResponseTime() {
         int total = getTotalRequests();
-        return total > 0 ? (double) totalResponseTime.get() / total : 0.0;
+        return total > 0 ? (double) getTotalResponseTime() / total : 0.0;
     }
-    public double getMinResponseTime() {
+    private long getTotalResponseTime() {
+        long sum = totalResponseTime.get();
+        for (Recorder r : activeRecorders()) {
+            sum += r.getTotalMillis();
+        }
+        return sum;
+    }
+    private long getMinResponseTimeMillis() {
         long min = minResponseTime.get();
+        for (Recorder r : activeRecorders()) {
+            min = Math.min(min, r.getMinMillis());
+        }
+        return min;
+    }
+    public double getMinResponseTime() {
+        long min = getMinResponseTimeMillis();
         return min == Long.MAX_VALUE ? 0 : min;
     }
     public double getMaxResponseTime() {
-        return maxResponseTime.get();
+        long max = maxResponseTime.get();
+        for (Recorder r : activeRecorders()) {
+            max = Math.max(max, r.getMaxMillis());
+        }
+        return max;
     }
     public double getDuration() {
         if (startTime == null || endTime == null) return 0.0;
@@ -69,8 +422,48 @@ public class TestResult {
         return durationSeconds > 0 ? getTotalRequests() / durationSeconds : 0.0;
     }
 
+    /** Why the SLO watchdog stopped the run early, or null when it ran to the end. */
+    public String getAbortReason() { return abortReason; }
+    public void setAbortReason(String abortReason) { this.abortReason = abortReason; }
     public LocalDateTime getStartTime() { return startTime; }
     public void setStartTime(LocalDateTime startTime) { this.startTime = startTime; }
     public LocalDateTime getEndTime() { return endTime; }
     public void setEndTime(LocalDateTime endTime) { this.endTime = endTime; }
+    public GeneratorFootprint getGeneratorFootprint() { return generatorFootprint; }
+    public void setGeneratorFootprint(GeneratorFootprint generatorFootprint) { this.generatorFootprint = generatorFootprint; }
+    public GeneratorHealth getGeneratorHealth() { return generatorHealth; }
+    public void setGeneratorHealth(GeneratorHealth generatorHealth) { this.generatorHealth = generatorHealth; }
+    public TestResult addStage(String name) {
+        TestResult stage = child();
+        stageResults.put(name, stage);
+        return stage;
+    }
+    public Map<String, TestResult> getStageResults() { return Collections.unmodifiableMap(stageResults); }
+    public TestResult addStep(String name) {
+        TestResult step = child();
+        stepResults.put(name, step);
+        return step;
+    }
+    public Map<String, TestResult> getStepResults() { return Collections.unmodifiableMap(stepResults); }
+    public TestResult addTransaction() {
+        transactionResult = child();
+        return transactionResult;
+    }
+    public TestResult getTransactionResult() { return transactionResult; }
+    public TestResult addEndpoint(String name) {
+        TestResult endpoint = child();
+        endpointResults.put(name, endpoint);
+        return endpoint;
+    }
+    public Map<String, TestResult> getEndpointResults() { return Collections.unmodifiableMap(endpointResults); }
+    public ConnectionPoolStats getConnectionPoolStats() { return connectionPoolStats; }
+    public void setConnectionPoolStats(ConnectionPoolStats connectionPoolStats) { this.connectionPoolStats = connectionPoolStats; }
+    /** Per-interval counts and latency, or null when the run was not sampled (e.g. distributed). */
+    public TimeSeries getTimeSeries() { return timeSeries; }
+    public void setTimeSeries(TimeSeries timeSeries) { this.timeSeries = timeSeries; }
+    /** Global rate limiter usage, or null when the run was not rate limited. */
+    public RateLimiterStats getRateLimiterStats() { return rateLimiterStats; }
+    public void setRateLimiterStats(RateLimiterStats rateLimiterStats) { this.rateLimiterStats = rateLimiterStats; }
+    public CapacitySearchResult getCapacitySearch() { return capacitySearch; }
+    public void setCapacitySearch(CapacitySearchResult capacitySearch) { this.capacitySearch = capacitySearch; }
 }
\ No newline at end of file
@@ -0,0 +1,194 @@
+package com.hoale.automation.performance.model;
+
+import com.hoale.automation.performance.metrics.LatencyHistogram;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Per-interval view of a run: request count, errors and latency percentiles for
+ * every interval (1 s by default), so a stall in the middle of a run shows up
+ * instead of disappearing into the whole-run numbers. Points live in preallocated
+ * parallel arrays used as a ring: once {@code capacity} points are stored, each new
+ * one replaces the oldest, so memory stays fixed however long the run is.
+ */
+public class TimeSeries {
+
+    private final long intervalMillis;
+    private final long[] startMillis;
+    private final long[] lengthMillis;
+    private final long[] requests;
+    private final long[] errors;
+    private final long[] p50Micros;
+    private final long[] p90Micros;
+    private final long[] p99Micros;
+    private final long[] maxMicros;
+    // Points ever added; the ring holds the last min(added, capacity) of them
+    private long added;
+
+    public TimeSeries(long intervalMillis, int capacity) {
+        if (intervalMillis <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("intervalMillis and capacity must be > 0");
+        }
+        this.intervalMillis = intervalMillis;
+        this.startMillis = new long[capacity];
+        this.lengthMillis = new long[capacity];
+        this.requests = new long[capacity];
+        this.errors = new long[capacity];
+        this.p50Micros = new long[capacity];
+        this.p90Micros = new long[capacity];
+        this.p99Micros = new long[capacity];
+        this.maxMicros = new long[capacity];
+    }
+
+    /**
+     * @param startMillis  interval start, in milliseconds since the run started
+     * @param lengthMillis interval length; the last one of a run is usually shorter
+     * @param latency      what was recorded during the interval
+     */
+    public synchronized void add(long startMillis, long lengthMillis, long requests, long errors, LatencyHistogram latency) {
+        put(new Point(startMillis, lengthMillis, requests, errors, latency.getValueAtPercentile(50),
+                latency.getValueAtPercentile(90), latency.getValueAtPercentile(99), latency.getValueAtPercentile(100)));
+    }
+
+    private void put(Point point) {
+        int slot = (int) (added % startMillis.length);
+        startMillis[slot] = point.startMillis;
+        lengthMillis[slot] = point.lengthMillis;
+        requests[slot] = point.requests;
+        errors[slot] = point.errors;
+        p50Micros[slot] = point.p50Micros;
+        p90Micros[slot] = point.p90Micros;
+        p99Micros[slot] = point.p99Micros;
+        maxMicros[slot] = point.maxMicros;
+        added++;
+    }
+
+    /**
+     * Adds another series over the same run, as recorded by a distributed agent. Points
+     * are matched by interval (start / intervalMillis): requests, errors and the max add
+     * up exactly, while p50, p90 and p99 take the higher of the two, an upper bound,
+     * since a point keeps no histogram to merge. Intervals this series has not reached
+     * yet are appended.
+     */
+    public synchronized void merge(TimeSeries other) {
+        for (int i = 0; i < other.size(); i++) {
+            Point point = other.get(i);
+            int held = size();
+            long index = held == 0 ? 0 : interval(point.startMillis) - interval(startMillis[slot(0)]);
+            if (index < 0) {
+                // Older than anything this ring still holds
+                continue;
+            }
+            if (index >= held) {
+                put(point);
+                continue;
+            }
+            int slot = slot((int) index);
+            startMillis[slot] = Math.min(startMillis[slot], point.startMillis);
+            lengthMillis[slot] = Math.max(lengthMillis[slot], point.lengthMillis);
+            requests[slot] += point.requests;
+            errors[slot] += point.errors;
+            p50Micros[slot] = Math.max(p50Micros[slot], point.p50Micros);
+            p90Micros[slot] = Math.max(p90Micros[slot], point.p90Micros);
+            p99Micros[slot] = Math.max(p99Micros[slot], point.p99Micros);
+            maxMicros[slot] = Math.max(maxMicros[slot], point.maxMicros);
+        }
+    }
+
+    private long interval(long startMillis) {
+        return Math.round((double) startMillis / intervalMillis);
+    }
+
+    /** Binary form used between distributed agents and the coordinator; see {@link #readFrom}. */
+    public synchronized void writeTo(DataOutputStream out) throws IOException {
+        out.writeLong(intervalMillis);
+        out.writeInt(startMillis.length);
+        out.writeLong(getDropped());
+        out.writeInt(size());
+        for (int i = 0; i < size(); i++) {
+            int slot = slot(i);
+            out.writeLong(startMillis[slot]);
+            out.writeLong(lengthMillis[slot]);
+            out.writeLong(requests[slot]);
+            out.writeLong(errors[slot]);
+            out.writeLong(p50Micros[slot]);
+            out.writeLong(p90Micros[slot]);
+            out.writeLong(p99Micros[slot]);
+            out.writeLong(maxMicros[slot]);
+        }
+    }
+
+    public static TimeSeries readFrom(DataInputStream in) throws IOException {
+        TimeSeries series = new TimeSeries(in.readLong(), in.readInt());
+        // Dropped points are counted but not sent; the ring resumes where the sender's left off
+        series.added = in.readLong();
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            series.put(new Point(in.readLong(), in.readLong(), in.readLong(), in.readLong(),
+                    in.readLong(), in.readLong(), in.readLong(), in.readLong()));
+        }
+        return series;
+    }
+
+    public long getIntervalMillis() { return intervalMillis; }
+    public int getCapacity() { return startMillis.length; }
+
+    /** Points held, oldest first at index 0. */
+    public synchronized int size() {
+        return (int) Math.min(added, startMillis.length);
+    }
+
+    /** Points that were overwritten because the run outlasted the ring. */
+    public synchronized long getDropped() {
+        return Math.max(0, added - startMillis.length);
+    }
+
+    public synchronized Point get(int index) {
+        int slot = slot(index);
+        return new Point(startMillis[slot], lengthMillis[slot], requests[slot], errors[slot],
+                p50Micros[slot], p90Micros[slot], p99Micros[slot], maxMicros[slot]);
+    }
+
+    private int slot(int index) {
+        return (int) ((getDropped() + index) % startMillis.length);
+    }
+
+    /** One interval; latencies in milliseconds. */
+    public static class Point {
+        private final long startMillis;
+        private final long lengthMillis;
+        private final long requests;
+        private final long errors;
+        private final long p50Micros;
+        private final long p90Micros;
+        private final long p99Micros;
+        private final long maxMicros;
+
+        Point(long startMillis, long lengthMillis, long requests, long errors,
+              long p50Micros, long p90Micros, long p99Micros, long maxMicros) {
+            this.startMillis = startMillis;
+            this.lengthMillis = lengthMillis;
+            this.requests = requests;
+            this.errors = errors;
+            this.p50Micros = p50Micros;
+            this.p90Micros = p90Micros;
+            this.p99Micros = p99Micros;
+            this.maxMicros = maxMicros;
+        }
+
+        /** Interval start in seconds since the run started. */
+        public double getTimeSeconds() { return startMillis / 1000.0; }
+        public long getLengthMillis() { return lengthMillis; }
+        public long getRequests() { return requests; }
+        public long getErrors() { return errors; }
+        public double getThroughput() {
+            return lengthMillis > 0 ? requests * 1000.0 / lengthMillis : 0.0;
+        }
+        public double getP50Ms() { return p50Micros / 1000.0; }
+        public double getP90Ms() { return p90Micros / 1000.0; }
+        public double getP99Ms() { return p99Micros / 1000.0; }
+        public double getMaxMs() { return maxMicros / 1000.0; }
+    }
+}
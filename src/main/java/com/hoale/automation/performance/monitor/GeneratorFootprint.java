@@ -0,0 +1,69 @@
+package com.hoale.automation.performance.monitor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Resource cost of the load generator itself over one run: process CPU time,
+ * peak heap and peak live threads, so execution modes can be compared per
+ * simulated user.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 09:30:00 UTC
+ */
+public class GeneratorFootprint {
+
+    private final String executionMode;
+    private final int users;
+    private long cpuTimeStartNanos;
+    private long cpuTimeNanos;
+    private long peakHeapBytes;
+    private int peakThreads;
+
+    public GeneratorFootprint(String executionMode, int users) {
+        this.executionMode = executionMode;
+        this.users = users;
+    }
+
+    public void start() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+        cpuTimeStartNanos = processCpuTimeNanos();
+    }
+
+    public void stop() {
+        cpuTimeNanos = Math.max(0, processCpuTimeNanos() - cpuTimeStartNanos);
+        long heap = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                heap += pool.getPeakUsage().getUsed();
+            }
+        }
+        peakHeapBytes = heap;
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        peakThreads = threads.getPeakThreadCount();
+    }
+
+    private static long processCpuTimeNanos() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+        }
+        return 0;
+    }
+
+    public String getExecutionMode() { return executionMode; }
+    public int getUsers() { return users; }
+    public double getCpuTimeMs() { return cpuTimeNanos / 1_000_000.0; }
+    public double getCpuTimePerUserMs() { return users > 0 ? getCpuTimeMs() / users : 0.0; }
+    public long getPeakHeapBytes() { return peakHeapBytes; }
+    public double getPeakHeapPerUserKb() { return users > 0 ? peakHeapBytes / 1024.0 / users : 0.0; }
+    public int getPeakThreads() { return peakThreads; }
+}
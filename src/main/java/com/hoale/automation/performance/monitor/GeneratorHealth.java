@@ -0,0 +1,422 @@
+package com.hoale.automation.performance.monitor;
+
+import com.hoale.automation.performance.config.PerformanceConfig;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Watches the load generator's own process through JMX while a run is going, because a
+ * generator that is out of CPU or stuck in GC reports latencies that belong to itself,
+ * not to the server. Once a second it samples process CPU (share of all cores), GC
+ * pauses, allocation rate, live threads and scheduling lag, and keeps the samples in a
+ * bounded series for the JSON report.
+ *
+ * <p>Scheduling lag is how late work started against its plan: in the open model and in
+ * replay, how late each request reached a worker; in every mode, how late this sampler's
+ * own tick fired. GC pauses come from the collectors' notifications, so a single long
+ * pause is seen even when the interval's total looks harmless; concurrent cycles
+ * (ZGC, Shenandoah, G1 concurrent marking) are not pauses and are only used for the
+ * allocation rate, which is heap growth plus what the collectors freed.
+ *
+ * <p>The run is flagged as saturated when CPU stays above {@code saturation.cpuPercent}
+ * for {@value #SUSTAINED_SAMPLES} samples in a row, or when a single GC pause or a
+ * scheduling lag exceeds {@code saturation.gcPauseMs} or {@code saturation.lagMs}.
+ *
+ * <p>In a distributed run each agent watches itself and sends its health with its final
+ * result; the coordinator merges them (see {@link #merge}) so that one saturated agent
+ * flags the whole run.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 21:30:00 UTC
+ */
+public class GeneratorHealth {
+
+    static final int SUSTAINED_SAMPLES = 3;
+    private static final long INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MIN_SAMPLE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final double cpuThresholdPercent;
+    private final double gcPauseThresholdMs;
+    private final double lagThresholdMs;
+    private final int capacity;
+    private final long startNanos;
+    private final int processors = Runtime.getRuntime().availableProcessors();
+
+    private final LongAdder lagSumNanos = new LongAdder();
+    private final LongAdder lagCount = new LongAdder();
+    private final LongAccumulator lagMaxNanos = new LongAccumulator(Long::max, 0);
+    private final LongAdder gcPauseMillis = new LongAdder();
+    private final LongAdder gcPauses = new LongAdder();
+    private final LongAccumulator gcMaxPauseMillis = new LongAccumulator(Long::max, 0);
+    private final LongAdder gcFreedBytes = new LongAdder();
+    private final NotificationListener gcListener = this::onGc;
+
+    private final Deque<Sample> samples = new ArrayDeque<>();
+    private final Map<String, String> reasons = new LinkedHashMap<>();
+    private long dropped;
+    private int cpuOverThreshold;
+    private ScheduledExecutorService executor;
+    private long anchorNanos;
+    private long ticks;
+    private long lastNanos;
+    private long lastCpuNanos;
+    private long lastHeapUsed;
+
+    public GeneratorHealth(PerformanceConfig config, long startNanos) {
+        this(config.getSaturationCpuPercent(), config.getSaturationGcPauseMs(), config.getSaturationLagMs(),
+                config.getTimeSeriesCapacity(), startNanos);
+    }
+
+    private GeneratorHealth(double cpuThresholdPercent, double gcPauseThresholdMs, double lagThresholdMs, int capacity, long startNanos) {
+        this.cpuThresholdPercent = cpuThresholdPercent;
+        this.gcPauseThresholdMs = gcPauseThresholdMs;
+        this.lagThresholdMs = lagThresholdMs;
+        this.capacity = capacity;
+        this.startNanos = startNanos;
+    }
+
+    public void start() {
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter) {
+                ((NotificationEmitter) collector).addNotificationListener(gcListener, null, null);
+            }
+        }
+        lastNanos = System.nanoTime();
+        lastCpuNanos = processCpuTimeNanos();
+        lastHeapUsed = heapUsed();
+        executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "generator-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        anchorNanos = System.nanoTime();
+        executor.scheduleAtFixedRate(this::tick, INTERVAL_NANOS, INTERVAL_NANOS, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops sampling, takes a last sample of the tail of the run unless it is too short
+     * for a meaningful CPU reading, and unhooks from the collectors.
+     */
+    public void stop() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        sample();
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter) {
+                try {
+                    ((NotificationEmitter) collector).removeNotificationListener(gcListener);
+                } catch (ListenerNotFoundException ignored) {
+                    // Never added
+                }
+            }
+        }
+    }
+
+    /**
+     * How late a piece of work started against its planned time. Called from worker and
+     * dispatcher threads; striped counters keep it free of contention.
+     */
+    public void recordLag(long lagNanos) {
+        if (lagNanos > 0) {
+            lagSumNanos.add(lagNanos);
+            lagCount.increment();
+            lagMaxNanos.accumulate(lagNanos);
+        }
+    }
+
+    private void tick() {
+        ticks++;
+        recordLag(System.nanoTime() - (anchorNanos + ticks * INTERVAL_NANOS));
+        sample();
+    }
+
+    private void onGc(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        GcInfo gc = info.getGcInfo();
+        long freed = 0;
+        for (Map.Entry<String, MemoryUsage> before : gc.getMemoryUsageBeforeGc().entrySet()) {
+            MemoryUsage after = gc.getMemoryUsageAfterGc().get(before.getKey());
+            if (after != null) {
+                freed += Math.max(0, before.getValue().getUsed() - after.getUsed());
+            }
+        }
+        gcFreedBytes.add(freed);
+        String name = info.getGcName();
+        if (!name.contains("Cycles") && !name.contains("Concurrent")) {
+            gcPauseMillis.add(gc.getDuration());
+            gcPauses.increment();
+            gcMaxPauseMillis.accumulate(gc.getDuration());
+        }
+    }
+
+    private synchronized void sample() {
+        long now = System.nanoTime();
+        long lengthNanos = now - lastNanos;
+        if (lengthNanos < MIN_SAMPLE_NANOS) {
+            return;
+        }
+        long cpuNanos = processCpuTimeNanos();
+        long heap = heapUsed();
+        double seconds = lengthNanos / 1e9;
+        double cpuPercent = Math.min(100.0, (cpuNanos - lastCpuNanos) * 100.0 / (lengthNanos * (double) processors));
+        long allocated = Math.max(0, heap - lastHeapUsed + gcFreedBytes.sumThenReset());
+        long lags = lagCount.sumThenReset();
+        long lagSum = lagSumNanos.sumThenReset();
+
+        Sample sample = new Sample(TimeUnit.NANOSECONDS.toMillis(lastNanos - startNanos), TimeUnit.NANOSECONDS.toMillis(lengthNanos),
+                cpuPercent, gcPauseMillis.sumThenReset(), gcPauses.sumThenReset(), gcMaxPauseMillis.getThenReset(),
+                allocated / 1024.0 / 1024.0 / seconds, ManagementFactory.getThreadMXBean().getThreadCount(),
+                lags > 0 ? lagSum / 1e6 / lags : 0.0, lagMaxNanos.getThenReset() / 1e6);
+        if (samples.size() == capacity) {
+            samples.removeFirst();
+            dropped++;
+        }
+        samples.addLast(sample);
+        judge(sample);
+
+        lastNanos = now;
+        lastCpuNanos = cpuNanos;
+        lastHeapUsed = heap;
+    }
+
+    private void judge(Sample sample) {
+        double at = sample.getOffsetMillis() / 1000.0;
+        cpuOverThreshold = cpuThresholdPercent > 0 && sample.getCpuPercent() > cpuThresholdPercent ? cpuOverThreshold + 1 : 0;
+        if (cpuOverThreshold == SUSTAINED_SAMPLES) {
+            reasons.putIfAbsent("cpu", String.format("CPU above %.0f%% for %d s from %.0f s",
+                    cpuThresholdPercent, SUSTAINED_SAMPLES, at - SUSTAINED_SAMPLES + 1));
+        }
+        if (gcPauseThresholdMs > 0 && sample.getGcMaxPauseMs() > gcPauseThresholdMs) {
+            reasons.putIfAbsent("gc", String.format("GC pause %d ms > %.0f ms at %.0f s",
+                    sample.getGcMaxPauseMs(), gcPauseThresholdMs, at));
+        }
+        if (lagThresholdMs > 0 && sample.getLagMaxMs() > lagThresholdMs) {
+            reasons.putIfAbsent("lag", String.format("scheduling lag %.1f ms > %.0f ms at %.0f s",
+                    sample.getLagMaxMs(), lagThresholdMs, at));
+        }
+    }
+
+    /**
+     * Adds another generator's health, as sampled by a distributed agent. Its saturation
+     * reasons are kept, prefixed with {@code source}. Samples are combined interval by
+     * interval, since agents start together: CPU, GC pauses and lag take the worst
+     * generator's value, while allocation and threads add up.
+     */
+    public synchronized void merge(GeneratorHealth other, String source) {
+        List<Sample> theirs = other.getSamples();
+        for (Map.Entry<String, String> reason : other.reasonEntries()) {
+            reasons.putIfAbsent(source + " " + reason.getKey(), source + ": " + reason.getValue());
+        }
+        List<Sample> ours = new ArrayList<>(samples);
+        samples.clear();
+        for (int i = 0; i < Math.max(ours.size(), theirs.size()); i++) {
+            if (i >= ours.size()) {
+                samples.addLast(theirs.get(i));
+            } else if (i >= theirs.size()) {
+                samples.addLast(ours.get(i));
+            } else {
+                samples.addLast(ours.get(i).combine(theirs.get(i)));
+            }
+        }
+        dropped = Math.max(dropped, other.getDroppedSamples());
+    }
+
+    private synchronized List<Map.Entry<String, String>> reasonEntries() {
+        return new ArrayList<>(reasons.entrySet());
+    }
+
+    /** Binary form sent from an agent to the coordinator; see {@link #readFrom}. */
+    public synchronized void writeTo(DataOutputStream out) throws IOException {
+        out.writeDouble(cpuThresholdPercent);
+        out.writeDouble(gcPauseThresholdMs);
+        out.writeDouble(lagThresholdMs);
+        out.writeInt(capacity);
+        out.writeLong(dropped);
+        out.writeInt(reasons.size());
+        for (Map.Entry<String, String> reason : reasons.entrySet()) {
+            out.writeUTF(reason.getKey());
+            out.writeUTF(reason.getValue());
+        }
+        out.writeInt(samples.size());
+        for (Sample sample : samples) {
+            sample.writeTo(out);
+        }
+    }
+
+    public static GeneratorHealth readFrom(DataInputStream in) throws IOException {
+        GeneratorHealth health = new GeneratorHealth(in.readDouble(), in.readDouble(), in.readDouble(), in.readInt(), 0);
+        health.dropped = in.readLong();
+        int reasons = in.readInt();
+        for (int i = 0; i < reasons; i++) {
+            health.reasons.put(in.readUTF(), in.readUTF());
+        }
+        int samples = in.readInt();
+        for (int i = 0; i < samples; i++) {
+            health.samples.addLast(Sample.readFrom(in));
+        }
+        return health;
+    }
+
+    private static long processCpuTimeNanos() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+        }
+        return 0;
+    }
+
+    private static long heapUsed() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                used += pool.getUsage().getUsed();
+            }
+        }
+        return used;
+    }
+
+    public synchronized boolean isSaturated() { return !reasons.isEmpty(); }
+    /** First breach of each threshold (CPU, GC pause, lag), in the order they happened. */
+    public synchronized List<String> getSaturationReasons() { return new ArrayList<>(reasons.values()); }
+    public synchronized List<Sample> getSamples() { return Collections.unmodifiableList(new ArrayList<>(samples)); }
+    /** Samples pushed out of the series by newer ones. */
+    public synchronized long getDroppedSamples() { return dropped; }
+    public double getCpuThresholdPercent() { return cpuThresholdPercent; }
+    public double getGcPauseThresholdMs() { return gcPauseThresholdMs; }
+    public double getLagThresholdMs() { return lagThresholdMs; }
+
+    public synchronized double getPeakCpuPercent() {
+        return samples.stream().mapToDouble(Sample::getCpuPercent).max().orElse(0.0);
+    }
+
+    public synchronized long getMaxGcPauseMs() {
+        return samples.stream().mapToLong(Sample::getGcMaxPauseMs).max().orElse(0);
+    }
+
+    public synchronized long getTotalGcPauseMs() {
+        return samples.stream().mapToLong(Sample::getGcPauseMs).sum();
+    }
+
+    public synchronized double getAverageAllocationMbPerSec() {
+        double megabytes = 0;
+        long millis = 0;
+        for (Sample sample : samples) {
+            megabytes += sample.getAllocationMbPerSec() * sample.getLengthMillis() / 1000.0;
+            millis += sample.getLengthMillis();
+        }
+        return millis > 0 ? megabytes * 1000.0 / millis : 0.0;
+    }
+
+    public synchronized int getPeakThreads() {
+        return samples.stream().mapToInt(Sample::getThreads).max().orElse(0);
+    }
+
+    public synchronized double getMaxLagMs() {
+        return samples.stream().mapToDouble(Sample::getLagMaxMs).max().orElse(0.0);
+    }
+
+    /** One interval of the generator's own resource use. */
+    public static final class Sample {
+        private final long offsetMillis;
+        private final long lengthMillis;
+        private final double cpuPercent;
+        private final long gcPauseMs;
+        private final long gcPauses;
+        private final long gcMaxPauseMs;
+        private final double allocationMbPerSec;
+        private final int threads;
+        private final double lagMeanMs;
+        private final double lagMaxMs;
+
+        Sample(long offsetMillis, long lengthMillis, double cpuPercent, long gcPauseMs, long gcPauses, long gcMaxPauseMs,
+               double allocationMbPerSec, int threads, double lagMeanMs, double lagMaxMs) {
+            this.offsetMillis = offsetMillis;
+            this.lengthMillis = lengthMillis;
+            this.cpuPercent = cpuPercent;
+            this.gcPauseMs = gcPauseMs;
+            this.gcPauses = gcPauses;
+            this.gcMaxPauseMs = gcMaxPauseMs;
+            this.allocationMbPerSec = allocationMbPerSec;
+            this.threads = threads;
+            this.lagMeanMs = lagMeanMs;
+            this.lagMaxMs = lagMaxMs;
+        }
+
+        /** The same interval on two generators: the worst of CPU, GC and lag, the sum of allocation and threads. */
+        Sample combine(Sample other) {
+            return new Sample(offsetMillis, Math.max(lengthMillis, other.lengthMillis), Math.max(cpuPercent, other.cpuPercent),
+                    Math.max(gcPauseMs, other.gcPauseMs), Math.max(gcPauses, other.gcPauses), Math.max(gcMaxPauseMs, other.gcMaxPauseMs),
+                    allocationMbPerSec + other.allocationMbPerSec, threads + other.threads,
+                    Math.max(lagMeanMs, other.lagMeanMs), Math.max(lagMaxMs, other.lagMaxMs));
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeLong(offsetMillis);
+            out.writeLong(lengthMillis);
+            out.writeDouble(cpuPercent);
+            out.writeLong(gcPauseMs);
+            out.writeLong(gcPauses);
+            out.writeLong(gcMaxPauseMs);
+            out.writeDouble(allocationMbPerSec);
+            out.writeInt(threads);
+            out.writeDouble(lagMeanMs);
+            out.writeDouble(lagMaxMs);
+        }
+
+        static Sample readFrom(DataInputStream in) throws IOException {
+            return new Sample(in.readLong(), in.readLong(), in.readDouble(), in.readLong(), in.readLong(), in.readLong(),
+                    in.readDouble(), in.readInt(), in.readDouble(), in.readDouble());
+        }
+
+        /** Start of the interval, from the start of the run. */
+        public long getOffsetMillis() { return offsetMillis; }
+        public long getLengthMillis() { return lengthMillis; }
+        /** Process CPU as a share of all cores. */
+        public double getCpuPercent() { return cpuPercent; }
+        /** Total stop-the-world GC time in the interval. */
+        public long getGcPauseMs() { return gcPauseMs; }
+        public long getGcPauses() { return gcPauses; }
+        public long getGcMaxPauseMs() { return gcMaxPauseMs; }
+        public double getAllocationMbPerSec() { return allocationMbPerSec; }
+        /** Live platform threads at the end of the interval. */
+        public int getThreads() { return threads; }
+        public double getLagMeanMs() { return lagMeanMs; }
+        public double getLagMaxMs() { return lagMaxMs; }
+    }
+}
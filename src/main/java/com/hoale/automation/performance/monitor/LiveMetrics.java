@@ -0,0 +1,130 @@
+package com.hoale.automation.performance.monitor;
+
+import com.hoale.automation.performance.metrics.LatencyHistogram;
+import com.hoale.automation.performance.model.OutcomeBreakdown;
+import com.hoale.automation.performance.model.TestResult;
+import com.hoale.automation.performance.model.TimeSeries;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Current state of a running test for the console progress line and the
+ * {@link MetricsServer}. Totals and whole-run percentiles come from the result,
+ * which merges its striped recorders into a copy; the current rate, error rate
+ * and p99 come from the time series' latest interval. Neither blocks the workers.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 21:00:00 UTC
+ */
+public class LiveMetrics {
+
+    private final TestResult testResult;
+    private final TimeSeries series;
+    private final long startNanos;
+    private ScheduledExecutorService executor;
+
+    public LiveMetrics(TestResult testResult, TimeSeries series, long startNanos) {
+        this.testResult = testResult;
+        this.series = series;
+        this.startNanos = startNanos;
+    }
+
+    /** Prints {@link Snapshot#toConsoleLine()} once a second until stopped. */
+    public void startProgress() {
+        executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "live-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(() -> System.out.println(snapshot().toConsoleLine()), 1, 1, TimeUnit.SECONDS);
+    }
+
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    /** One consistent-enough reading; counts may lag the recorders by a request or two. */
+    public static final class Snapshot {
+        private final double elapsedSeconds;
+        private final long requests;
+        private final long failed;
+        private final long cancelled;
+        private final double averageMs;
+        private final double currentRate;
+        private final double currentErrorRate;
+        private final double currentP99Ms;
+        private final Map<Double, Double> percentilesMs = new LinkedHashMap<>();
+        private final double maxMs;
+        private final Map<String, Long> outcomes = new LinkedHashMap<>();
+
+        private Snapshot(LiveMetrics live) {
+            TestResult result = live.testResult;
+            elapsedSeconds = Math.max(1e-3, (System.nanoTime() - live.startNanos) / 1e9);
+            requests = result.getTotalRequests();
+            failed = requests - result.getSuccessfulRequests();
+            cancelled = result.getCancelledRequests();
+            averageMs = result.getAverageResponseTime();
+            LatencyHistogram histogram = result.getHistogram();
+            for (double percentile : new double[]{50, 90, 95, 99, 99.9}) {
+                percentilesMs.put(percentile, histogram.getValueAtPercentile(percentile) / 1000.0);
+            }
+            maxMs = result.getMaxResponseTime();
+
+            int points = live.series.size();
+            if (points > 0) {
+                TimeSeries.Point latest = live.series.get(points - 1);
+                currentRate = latest.getThroughput();
+                currentErrorRate = latest.getRequests() > 0 ? latest.getErrors() * 100.0 / latest.getRequests() : 0.0;
+                currentP99Ms = latest.getP99Ms();
+            } else {
+                currentRate = requests / elapsedSeconds;
+                currentErrorRate = requests > 0 ? failed * 100.0 / requests : 0.0;
+                currentP99Ms = percentilesMs.get(99.0);
+            }
+
+            OutcomeBreakdown breakdown = result.getOutcomeBreakdown();
+            if (breakdown != null) {
+                for (OutcomeBreakdown.Category category : OutcomeBreakdown.Category.values()) {
+                    if (breakdown.getCount(category) > 0) {
+                        outcomes.put(category.name().toLowerCase(), breakdown.getCount(category));
+                    }
+                }
+            }
+        }
+
+        public double getElapsedSeconds() { return elapsedSeconds; }
+        public long getRequests() { return requests; }
+        public long getFailed() { return failed; }
+        public long getCancelled() { return cancelled; }
+        public double getAverageMs() { return averageMs; }
+        /** Whole-run average throughput. */
+        public double getThroughput() { return requests / elapsedSeconds; }
+        /** Throughput over the latest time-series interval. */
+        public double getCurrentRate() { return currentRate; }
+        /** Error rate over the latest time-series interval, in percent. */
+        public double getCurrentErrorRate() { return currentErrorRate; }
+        public double getCurrentP99Ms() { return currentP99Ms; }
+        /** Whole-run latency by percentile (50, 90, 95, 99, 99.9), in milliseconds. */
+        public Map<Double, Double> getPercentilesMs() { return Collections.unmodifiableMap(percentilesMs); }
+        public double getMaxMs() { return maxMs; }
+        /** Requests per outcome category (lower-case enum name), categories never seen left out. */
+        public Map<String, Long> getOutcomes() { return Collections.unmodifiableMap(outcomes); }
+
+        public String toConsoleLine() {
+            return String.format("[%5.1fs] %d requests (%.1f req/s now), %d failed (%.2f%% now), p50 %.1f ms, p95 %.1f ms, p99 %.1f ms (%.1f ms now)",
+                    elapsedSeconds, requests, currentRate, failed, currentErrorRate, percentilesMs.get(50.0),
+                    percentilesMs.get(95.0), percentilesMs.get(99.0), currentP99Ms);
+        }
+    }
+}
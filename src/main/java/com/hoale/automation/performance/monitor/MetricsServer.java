@@ -0,0 +1,144 @@
+package com.hoale.automation.performance.monitor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded endpoint that serves the running test's {@link LiveMetrics} while it runs:
+ * Prometheus text format on {@code /metrics} and JSON on {@code /metrics.json}.
+ * Built on the JDK HttpServer like {@code SimpleServer}; requests are served on one
+ * daemon thread, so scraping adds at most one busy thread to the generator.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 21:00:00 UTC
+ */
+public class MetricsServer {
+
+    private static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final LiveMetrics live;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public MetricsServer(LiveMetrics live) {
+        this.live = live;
+    }
+
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        // Contexts match by prefix, so anything but the two exact paths is a 404
+        server.createContext("/metrics", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if ("/metrics".equals(path)) {
+                respond(exchange, PROMETHEUS_CONTENT_TYPE, toPrometheus(live.snapshot()));
+            } else if ("/metrics.json".equals(path)) {
+                respond(exchange, "application/json", objectMapper.writeValueAsString(toMap(live.snapshot())));
+            } else {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+            }
+        });
+        executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.start();
+        System.out.println("📈 Live metrics on http://localhost:" + server.getAddress().getPort() + "/metrics (and /metrics.json)");
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    private void respond(HttpExchange exchange, String contentType, String body) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(405, -1);
+            exchange.close();
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    static Map<String, Object> toMap(LiveMetrics.Snapshot snapshot) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("elapsedSeconds", snapshot.getElapsedSeconds());
+        map.put("requests", snapshot.getRequests());
+        map.put("failed", snapshot.getFailed());
+        map.put("cancelled", snapshot.getCancelled());
+        map.put("throughput", snapshot.getThroughput());
+        map.put("currentRate", snapshot.getCurrentRate());
+        map.put("currentErrorRatePercent", snapshot.getCurrentErrorRate());
+        map.put("currentP99Ms", snapshot.getCurrentP99Ms());
+        map.put("averageMs", snapshot.getAverageMs());
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        for (Map.Entry<Double, Double> percentile : snapshot.getPercentilesMs().entrySet()) {
+            percentiles.put("p" + label(percentile.getKey()), percentile.getValue());
+        }
+        map.put("percentilesMs", percentiles);
+        map.put("maxMs", snapshot.getMaxMs());
+        map.put("outcomes", snapshot.getOutcomes());
+        return map;
+    }
+
+    static String toPrometheus(LiveMetrics.Snapshot snapshot) {
+        StringBuilder out = new StringBuilder();
+        metric(out, "perf_requests_total", "counter", "Requests completed", snapshot.getRequests());
+        metric(out, "perf_requests_failed_total", "counter", "Requests that failed", snapshot.getFailed());
+        metric(out, "perf_requests_cancelled_total", "counter", "Requests cancelled after the grace period", snapshot.getCancelled());
+        metric(out, "perf_request_rate", "gauge", "Requests per second over the latest interval", snapshot.getCurrentRate());
+        metric(out, "perf_error_rate_percent", "gauge", "Failed requests over the latest interval, in percent", snapshot.getCurrentErrorRate());
+        metric(out, "perf_elapsed_seconds", "gauge", "Seconds since the run started", snapshot.getElapsedSeconds());
+
+        out.append("# HELP perf_request_duration_seconds Request latency over the whole run\n");
+        out.append("# TYPE perf_request_duration_seconds summary\n");
+        for (Map.Entry<Double, Double> percentile : snapshot.getPercentilesMs().entrySet()) {
+            String quantile = BigDecimal.valueOf(percentile.getKey()).movePointLeft(2).stripTrailingZeros().toPlainString();
+            out.append("perf_request_duration_seconds{quantile=\"").append(quantile)
+                    .append("\"} ").append(percentile.getValue() / 1000).append('\n');
+        }
+        out.append("perf_request_duration_seconds_sum ").append(snapshot.getAverageMs() * snapshot.getRequests() / 1000).append('\n');
+        out.append("perf_request_duration_seconds_count ").append(snapshot.getRequests()).append('\n');
+
+        if (!snapshot.getOutcomes().isEmpty()) {
+            out.append("# HELP perf_outcomes_total Requests by status class or error type\n");
+            out.append("# TYPE perf_outcomes_total counter\n");
+            for (Map.Entry<String, Long> outcome : snapshot.getOutcomes().entrySet()) {
+                out.append("perf_outcomes_total{outcome=\"").append(outcome.getKey()).append("\"} ")
+                        .append(outcome.getValue()).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    private static void metric(StringBuilder out, String name, String type, String help, double value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        out.append(name).append(' ').append(value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value)).append('\n');
+    }
+
+    private static String label(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile);
+    }
+}
@@ -0,0 +1,107 @@
+package com.hoale.automation.performance.monitor;
+
+import com.hoale.automation.performance.config.PerformanceConfig;
+import com.hoale.automation.performance.metrics.LatencyHistogram;
+import com.hoale.automation.performance.model.TestResult;
+import com.hoale.automation.performance.scheduler.RunControl;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks the run against its abort thresholds once a second while it is going, over
+ * a sliding window of the last {@code abort.window} seconds: error rate, p95 and p99.
+ * The window is cut out of the cumulative result by keeping one snapshot per second
+ * and subtracting the oldest. On the first breach it records the reason in the result
+ * and stops the run; requests already in flight drain as at the normal deadline.
+ * Windows with fewer than {@code abort.minRequests} requests are not judged.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 18:30:00 UTC
+ */
+public class SloWatchdog {
+
+    private final PerformanceConfig config;
+    private final TestResult testResult;
+    private final RunControl control;
+    private final long startNanos;
+    // One snapshot per second, oldest overwritten; slot 0 starts as the empty run
+    private final Snapshot[] snapshots;
+    private int ticks;
+    private ScheduledExecutorService executor;
+
+    public SloWatchdog(PerformanceConfig config, TestResult testResult, RunControl control, long startNanos) {
+        this.config = config;
+        this.testResult = testResult;
+        this.control = control;
+        this.startNanos = startNanos;
+        this.snapshots = new Snapshot[config.getAbortWindow() + 1];
+        this.snapshots[0] = new Snapshot(0, 0, new LatencyHistogram(testResult.getHistogram().getPrecisionBits()));
+    }
+
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "slo-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::check, 1, 1, TimeUnit.SECONDS);
+    }
+
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void check() {
+        if (!control.isRunning()) {
+            return;
+        }
+        ticks++;
+        Snapshot now = new Snapshot(testResult.getTotalRequests(), testResult.getSuccessfulRequests(),
+                testResult.getHistogram());
+        // Before the first full window the baseline is the start of the run
+        Snapshot oldest = snapshots[ticks < snapshots.length ? 0 : (ticks + 1) % snapshots.length];
+        snapshots[ticks % snapshots.length] = now;
+
+        long requests = now.requests - oldest.requests;
+        if (requests < config.getAbortMinRequests()) {
+            return;
+        }
+        double errorRate = (requests - (now.successful - oldest.successful)) * 100.0 / requests;
+        LatencyHistogram window = now.histogram.since(oldest.histogram);
+        double p95Ms = window.getValueAtPercentile(95) / 1000.0;
+        double p99Ms = window.getValueAtPercentile(99) / 1000.0;
+
+        String breach = null;
+        if (config.getAbortErrorRate() > 0 && errorRate > config.getAbortErrorRate()) {
+            breach = String.format("error rate %.2f%% > %.2f%%", errorRate, config.getAbortErrorRate());
+        } else if (config.getAbortP99Ms() > 0 && p99Ms > config.getAbortP99Ms()) {
+            breach = String.format("p99 %.1f ms > %.0f ms", p99Ms, config.getAbortP99Ms());
+        } else if (config.getAbortP95Ms() > 0 && p95Ms > config.getAbortP95Ms()) {
+            breach = String.format("p95 %.1f ms > %.0f ms", p95Ms, config.getAbortP95Ms());
+        }
+        if (breach != null) {
+            long elapsed = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos);
+            String reason = String.format("%s over the last %d s (%d requests) at %d s into the run",
+                    breach, Math.min(ticks, config.getAbortWindow()), requests, elapsed);
+            testResult.setAbortReason(reason);
+            control.stop();
+            System.out.println("🛑 SLO watchdog: aborting run, " + reason);
+        }
+    }
+
+    private static final class Snapshot {
+        final long requests;
+        final long successful;
+        final LatencyHistogram histogram;
+
+        Snapshot(long requests, long successful, LatencyHistogram histogram) {
+            this.requests = requests;
+            this.successful = successful;
+            this.histogram = histogram;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.hoale.automation.performance.monitor;
+
+import com.hoale.automation.performance.metrics.LatencyHistogram;
+import com.hoale.automation.performance.model.TestResult;
+import com.hoale.automation.performance.model.TimeSeries;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills a run's {@link TimeSeries}: every interval it snapshots the cumulative
+ * counters and histogram and stores the difference from the previous snapshot.
+ * Stopping takes one last, usually shorter, sample so requests that finished while
+ * the run drained are not lost.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 19:30:00 UTC
+ */
+public class TimeSeriesSampler {
+
+    private final TestResult testResult;
+    private final TimeSeries series;
+    private final long startNanos;
+    private ScheduledExecutorService executor;
+    private long lastNanos;
+    private long lastRequests;
+    private long lastSuccessful;
+    private LatencyHistogram lastHistogram;
+
+    public TimeSeriesSampler(TestResult testResult, TimeSeries series, long startNanos) {
+        this.testResult = testResult;
+        this.series = series;
+        this.startNanos = startNanos;
+        this.lastNanos = startNanos;
+        this.lastHistogram = new LatencyHistogram(testResult.getHistogram().getPrecisionBits());
+    }
+
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "time-series-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = series.getIntervalMillis();
+        executor.scheduleAtFixedRate(this::sample, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /** Stops sampling and records whatever happened since the last sample. */
+    public void stop() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        sample();
+    }
+
+    private synchronized void sample() {
+        long now = System.nanoTime();
+        long requests = testResult.getTotalRequests();
+        long successful = testResult.getSuccessfulRequests();
+        LatencyHistogram histogram = testResult.getHistogram();
+        long lengthMillis = TimeUnit.NANOSECONDS.toMillis(now - lastNanos);
+        if (lengthMillis == 0) {
+            return;
+        }
+        series.add(TimeUnit.NANOSECONDS.toMillis(lastNanos - startNanos), lengthMillis, requests - lastRequests,
+                (requests - lastRequests) - (successful - lastSuccessful), histogram.since(lastHistogram));
+        lastNanos = now;
+        lastRequests = requests;
+        lastSuccessful = successful;
+        lastHistogram = histogram;
+    }
+}
@@ -0,0 +1,229 @@
+package com.hoale.automation.performance.replay;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hoale.automation.performance.scenario.Scenario;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Recorded requests read one at a time from a JSON-lines file or a web server
+ * access log. The file is memory-mapped in fixed windows that slide forward as it
+ * is read, so logs of any size replay in constant memory.
+ *
+ * <pre>
+ * jsonl:     {"timestamp":"2026-10-18T09:00:00.125Z","method":"POST","path":"/api/users",
+ *             "headers":{"Content-Type":"application/json"},"body":"{\"name\":\"a\"}"}
+ *            (timestamp may also be epoch milliseconds; path may be a full URL)
+ * accesslog: 127.0.0.1 - - [18/Oct/2026:09:00:00 +0000] "GET /api/users/1 HTTP/1.1" 200 154
+ * </pre>
+ *
+ * Lines that cannot be parsed are skipped and counted.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 17:30:00 UTC
+ */
+public class ReplayLog implements Closeable {
+
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+    private static final ObjectMapper JSON = new ObjectMapper();
+    // Common and combined log format: host ident user [time] "METHOD target PROTOCOL" ...
+    private static final Pattern ACCESS_LOG = Pattern.compile("^\\S+ \\S+ \\S+ \\[([^\\]]+)\\] \"(\\S+) (\\S+)[^\"]*\"");
+    private static final DateTimeFormatter ACCESS_LOG_TIME = DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH);
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final boolean jsonLines;
+    private final String baseUrl;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int position;
+    private byte[] line = new byte[8192];
+    private long skipped;
+
+    /**
+     * @param format  "jsonl" or "accesslog"
+     * @param baseUrl scheme and host that relative paths are sent to
+     */
+    public ReplayLog(String file, String format, String baseUrl) throws IOException {
+        Path path = Paths.get(file);
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.jsonLines = "jsonl".equals(format);
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    /** @return the next request in the log, or null at the end of the file */
+    public Entry next() throws IOException {
+        int length;
+        while ((length = nextLine()) >= 0) {
+            if (length == 0 || line[0] == '#') {
+                continue;
+            }
+            Entry entry = jsonLines ? parseJson(length) : parseAccessLog(length);
+            if (entry != null) {
+                return entry;
+            }
+            skipped++;
+        }
+        return null;
+    }
+
+    /** Lines that were not valid requests. */
+    public long getSkipped() { return skipped; }
+
+    /**
+     * Copies the next line (without its line break) into {@code line}.
+     *
+     * @return its length, or -1 at the end of the file
+     */
+    private int nextLine() throws IOException {
+        while (true) {
+            if (window == null || position >= window.limit()) {
+                long offset = window == null ? 0 : windowStart + position;
+                if (offset >= fileSize) {
+                    return -1;
+                }
+                map(offset);
+            }
+            int start = position;
+            int limit = window.limit();
+            int end = start;
+            while (end < limit && window.get(end) != '\n') {
+                end++;
+            }
+            boolean lastLine = windowStart + limit >= fileSize;
+            if (end == limit && !lastLine) {
+                if (start == 0) {
+                    throw new IOException("Line at offset " + windowStart + " is longer than " + WINDOW_SIZE + " bytes");
+                }
+                // The line runs past the window: slide the window to start at it
+                map(windowStart + start);
+                continue;
+            }
+            position = end + 1;
+            int length = end - start;
+            if (length > 0 && window.get(end - 1) == '\r') {
+                length--;
+            }
+            if (length > line.length) {
+                line = new byte[Math.max(length, line.length * 2)];
+            }
+            window.get(start, line, 0, length);
+            return length;
+        }
+    }
+
+    private void map(long offset) throws IOException {
+        windowStart = offset;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(WINDOW_SIZE, fileSize - offset));
+        position = 0;
+    }
+
+    private Entry parseJson(int length) {
+        try {
+            JsonNode node = JSON.readTree(line, 0, length);
+            String method = node.path("method").asText("GET");
+            String target = node.hasNonNull("path") ? node.get("path").asText() : node.path("url").asText(null);
+            JsonNode time = node.hasNonNull("timestamp") ? node.get("timestamp") : node.path("time");
+            if (target == null || time.isMissingNode() || time.isNull()) {
+                return null;
+            }
+            long timestamp = time.isNumber() ? time.asLong() : parseIsoTime(time.asText());
+            Map<String, String> headers = Collections.emptyMap();
+            JsonNode headerNode = node.path("headers");
+            if (headerNode.isObject()) {
+                headers = new LinkedHashMap<>();
+                for (Iterator<Map.Entry<String, JsonNode>> it = headerNode.fields(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> header = it.next();
+                    headers.put(header.getKey(), header.getValue().asText());
+                }
+            }
+            byte[] body = node.hasNonNull("body") ? node.get("body").asText().getBytes(StandardCharsets.UTF_8) : null;
+            return entry(timestamp, method, target, headers, body);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private Entry parseAccessLog(int length) {
+        Matcher matcher = ACCESS_LOG.matcher(new String(line, 0, length, StandardCharsets.ISO_8859_1));
+        if (!matcher.find()) {
+            return null;
+        }
+        try {
+            long timestamp = ZonedDateTime.parse(matcher.group(1), ACCESS_LOG_TIME).toInstant().toEpochMilli();
+            return entry(timestamp, matcher.group(2), matcher.group(3), Collections.emptyMap(), null);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static long parseIsoTime(String text) {
+        try {
+            return Instant.parse(text).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return OffsetDateTime.parse(text).toInstant().toEpochMilli();
+        }
+    }
+
+    private Entry entry(long timestamp, String method, String target, Map<String, String> headers, byte[] body) {
+        method = method.trim().toUpperCase();
+        if (!Scenario.METHODS.contains(method)) {
+            return null;
+        }
+        URI uri = URI.create(target.startsWith("http://") || target.startsWith("https://")
+                ? target : baseUrl + (target.startsWith("/") ? target : "/" + target));
+        return new Entry(timestamp, method, uri, headers, body);
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    /** One recorded request. */
+    public static class Entry {
+        private final long timestampMillis;
+        private final String method;
+        private final URI uri;
+        private final Map<String, String> headers;
+        private final byte[] body;
+
+        Entry(long timestampMillis, String method, URI uri, Map<String, String> headers, byte[] body) {
+            this.timestampMillis = timestampMillis;
+            this.method = method;
+            this.uri = uri;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        public long getTimestampMillis() { return timestampMillis; }
+        public String getMethod() { return method; }
+        public URI getUri() { return uri; }
+        public Map<String, String> getHeaders() { return headers; }
+        /** Request body, or null. */
+        public byte[] getBody() { return body; }
+    }
+}
@@ -1,6 +1,14 @@
 package com.hoale.automation.performance.report;
 
+import com.hoale.automation.performance.model.CapacitySearchResult;
+import com.hoale.automation.performance.model.ConnectionPoolStats;
+import com.hoale.automation.performance.model.OutcomeBreakdown;
+import com.hoale.automation.performance.model.PhaseBreakdown;
+import com.hoale.automation.performance.model.RateLimiterStats;
 import com.hoale.automation.performance.model.TestResult;
+import com.hoale.automation.performance.model.TimeSeries;
+import com.hoale.automation.performance.monitor.GeneratorFootprint;
+import com.hoale.automation.performance.monitor.GeneratorHealth;
 import com.hoale.automation.performance.model.TestConfig;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -9,12 +17,17 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 public class PerformanceReportGenerator {
     private final ObjectMapper objectMapper = new ObjectMapper();
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+    // Percentiles listed in every report format
+    private static final double[] PERCENTILES = {50, 75, 90, 95, 99, 99.9};
 
     public ReportFiles generateReports(TestResult testResult, TestConfig testConfig, String testName, String author) {
         try {
@@ -93,6 +106,65 @@ public class PerformanceReportGenerator {
         }
     }
 
+    // Helper: an endpoint's share of all requests, in percent
+    private double share(TestResult part, TestResult total) {
+        return total.getTotalRequests() > 0 ? part.getTotalRequests() * 100.0 / total.getTotalRequests() : 0.0;
+    }
+
+    // Helper: "P50", "P99.9"
+    private static String percentileLabel(double percentile) {
+        return percentile == Math.rint(percentile) ? String.format("P%.0f", percentile) : "P" + percentile;
+    }
+
+    // Helper: histogram precision as bits and worst-case relative error
+    private static String precisionText(TestResult testResult) {
+        int bits = testResult.getHistogram().getPrecisionBits();
+        return String.format("%d bits (max error %.2f%%)", bits, 100.0 / (1 << bits));
+    }
+
+    // Helper: highest-throughput, lowest-throughput and worst-p99 intervals. Intervals shorter than
+    // half the configured one (the final drain) are left out of the throughput extremes.
+    private static TimeSeries.Point[] seriesExtremes(TimeSeries series) {
+        TimeSeries.Point peak = null;
+        TimeSeries.Point lowest = null;
+        TimeSeries.Point worstP99 = null;
+        for (int i = 0; i < series.size(); i++) {
+            TimeSeries.Point point = series.get(i);
+            if (point.getLengthMillis() * 2 >= series.getIntervalMillis() || series.size() == 1) {
+                if (peak == null || point.getThroughput() > peak.getThroughput()) {
+                    peak = point;
+                }
+                if (lowest == null || point.getThroughput() < lowest.getThroughput()) {
+                    lowest = point;
+                }
+            }
+            if (worstP99 == null || point.getP99Ms() > worstP99.getP99Ms()) {
+                worstP99 = point;
+            }
+        }
+        if (peak == null) {
+            peak = lowest = worstP99;
+        }
+        return new TimeSeries.Point[]{peak, lowest, worstP99};
+    }
+
+    // Helper: "200 x 950, 503 x 50", or "none" when no response came back
+    private static String statusCodesText(OutcomeBreakdown outcomes) {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<Integer, Long> code : outcomes.getStatusCounts().entrySet()) {
+            if (text.length() > 0) {
+                text.append(", ");
+            }
+            text.append(code.getKey()).append(" x ").append(code.getValue());
+        }
+        return text.length() > 0 ? text.toString() : "none";
+    }
+
+    // Helper: "value at 12.0 s"
+    private static String pointText(TimeSeries.Point point, String value) {
+        return String.format("%s at %.1f s", value, point.getTimeSeconds());
+    }
+
     // Helper: plain status label for CSV/TXT
     private String plainStatus(Object value, String metric) {
         switch (metric) {
@@ -203,6 +275,7 @@ public class PerformanceReportGenerator {
         html.append(dashboardCard("Total Requests", testResult.getTotalRequests() + "", "#6a82fb,#fc5c7d"));
         html.append(dashboardCard("Success Rate", String.format("%.2f%%", testResult.getSuccessRate()), "#43cea2,#185a9d"));
         html.append(dashboardCard("Avg Response Time", String.format("%.0f ms", testResult.getAverageResponseTime()), "#f7971e,#ffd200"));
+        html.append(dashboardCard("P99 Response Time", String.format("%.0f ms", testResult.getPercentile(99)), "#8e2de2,#4a00e0"));
         html.append(dashboardCard("Throughput", String.format("%.1f req/s", testResult.getThroughput()), "#fd746c,#ff9068"));
         html.append("</div>");
 
@@ -216,6 +289,10 @@ public class PerformanceReportGenerator {
         html.append("<tr><td>Test Duration</td><td>").append(testConfig.getTestDurationSec()).append(" seconds</td></tr>");
         html.append("<tr><td>Connection Timeout</td><td>").append(testConfig.getConnectionTimeoutMs()).append(" ms</td></tr>");
         html.append("<tr><td>Response Timeout</td><td>").append(testConfig.getResponseTimeoutMs()).append(" ms</td></tr>");
+        html.append("<tr><td>Load Model</td><td>").append(testConfig.getLoadModel()).append("</td></tr>");
+        if (testConfig.isOpenModel()) {
+            html.append("<tr><td>Target Rate</td><td>").append(String.format("%.2f req/s", testConfig.getTargetRate())).append("</td></tr>");
+        }
         html.append("</table>");
 
         // Test Results Table
@@ -224,10 +301,20 @@ public class PerformanceReportGenerator {
         html.append("<tr><td>Start Time</td><td>").append(testResult.getStartTime()).append("</td><td class='status-col'><span class='ok'>OK</span></td></tr>");
         html.append("<tr><td>End Time</td><td>").append(testResult.getEndTime()).append("</td><td class='status-col'><span class='ok'>OK</span></td></tr>");
         html.append("<tr><td>Duration</td><td>").append(String.format("%.2f seconds", testResult.getDuration())).append("</td><td class='status-col'><span class='ok'>OK</span></td></tr>");
+        if (testResult.getAbortReason() != null) {
+            html.append("<tr><td>Aborted Early</td><td>").append(testResult.getAbortReason().replace(">", "&gt;"))
+                    .append("</td><td class='status-col'><span class='critical'>ABORTED</span></td></tr>");
+        }
+        GeneratorHealth health = testResult.getGeneratorHealth();
+        if (health != null && health.isSaturated()) {
+            html.append("<tr><td>Generator Saturated</td><td>").append(String.join("; ", health.getSaturationReasons()).replace(">", "&gt;"))
+                    .append("</td><td class='status-col'><span class='warning'>SATURATED</span></td></tr>");
+        }
         html.append("<tr><td>Total Requests</td><td>").append(testResult.getTotalRequests()).append("</td><td class='status-col'><span class='ok'>OK</span></td></tr>");
         html.append("<tr><td>Successful Requests</td><td>").append(testResult.getSuccessfulRequests()).append("</td><td class='status-col'><span class='ok'>OK</span></td></tr>");
         html.append("<tr><td>Failed Requests</td><td>").append(testResult.getFailedRequests()).append("</td><td class='status-col'>")
                 .append(statusText(testResult.getFailedRequests(), "Failed Requests")).append("</td></tr>");
+        html.append("<tr><td>Cancelled Requests (stragglers)</td><td>").append(testResult.getCancelledRequests()).append("</td><td class='status-col'><span class='ok'>OK</span></td></tr>");
         html.append("<tr><td>Success Rate</td><td>").append(String.format("%.2f%%", testResult.getSuccessRate())).append("</td><td class='status-col'>")
                 .append(statusText(testResult.getSuccessRate(), "Success Rate")).append("</td></tr>");
         html.append("<tr><td>Average Response Time</td><td>").append(String.format("%.2f ms", testResult.getAverageResponseTime())).append("</td><td class='status-col'>")
@@ -239,6 +326,198 @@ public class PerformanceReportGenerator {
                 .append(statusText(testResult.getThroughput(), "Throughput")).append("</td></tr>");
         html.append("</table>");
 
+        // Latency percentiles from the histogram
+        html.append("<h3 class='section-title'>Latency Percentiles</h3><table>");
+        html.append("<tr><th>Percentile</th><th>Response Time</th></tr>");
+        for (double percentile : PERCENTILES) {
+            html.append("<tr><td>").append(percentileLabel(percentile)).append("</td><td>")
+                    .append(String.format("%.3f ms", testResult.getPercentile(percentile))).append("</td></tr>");
+        }
+        html.append("<tr><td>Histogram Precision</td><td>").append(precisionText(testResult)).append("</td></tr>");
+        html.append("</table>");
+
+        // Per-stage breakdown of the load profile
+        if (!testResult.getStageResults().isEmpty()) {
+            html.append("<h3 class='section-title'>Load Profile Stages</h3><table>");
+            html.append("<tr><th>Stage</th><th>Requests</th><th>Success Rate</th><th>Avg Response Time</th><th>Max Response Time</th><th>Throughput</th></tr>");
+            for (Map.Entry<String, TestResult> stage : testResult.getStageResults().entrySet()) {
+                TestResult r = stage.getValue();
+                html.append("<tr><td>").append(stage.getKey()).append("</td><td>").append(r.getTotalRequests())
+                        .append("</td><td>").append(String.format("%.2f%%", r.getSuccessRate()))
+                        .append("</td><td>").append(String.format("%.2f ms", r.getAverageResponseTime()))
+                        .append("</td><td>").append(String.format("%.0f ms", r.getMaxResponseTime()))
+                        .append("</td><td>").append(String.format("%.2f req/s", r.getThroughput())).append("</td></tr>");
+            }
+            html.append("</table>");
+        }
+
+        // Scenario: per-step and per-transaction latency
+        if (testResult.getTransactionResult() != null) {
+            html.append("<h3 class='section-title'>Scenario Steps</h3><table>");
+            html.append("<tr><th>Step</th><th>Requests</th><th>Success Rate</th><th>Avg Response Time</th><th>Max Response Time</th><th>Throughput</th></tr>");
+            Map<String, TestResult> rows = new LinkedHashMap<>(testResult.getStepResults());
+            rows.put("Transaction (all steps)", testResult.getTransactionResult());
+            for (Map.Entry<String, TestResult> step : rows.entrySet()) {
+                TestResult r = step.getValue();
+                html.append("<tr><td>").append(step.getKey()).append("</td><td>").append(r.getTotalRequests())
+                        .append("</td><td>").append(String.format("%.2f%%", r.getSuccessRate()))
+                        .append("</td><td>").append(String.format("%.2f ms", r.getAverageResponseTime()))
+                        .append("</td><td>").append(String.format("%.0f ms", r.getMaxResponseTime()))
+                        .append("</td><td>").append(String.format("%.2f req/s", r.getThroughput())).append("</td></tr>");
+            }
+            html.append("</table>");
+        }
+
+        // Endpoint mix: each endpoint next to the aggregate
+        if (!testResult.getEndpointResults().isEmpty()) {
+            html.append("<h3 class='section-title'>Endpoint Mix</h3><table>");
+            html.append("<tr><th>Endpoint</th><th>Requests</th><th>Share</th><th>Success Rate</th><th>Avg Response Time</th><th>P95</th><th>P99</th><th>Throughput</th></tr>");
+            Map<String, TestResult> rows = new LinkedHashMap<>(testResult.getEndpointResults());
+            rows.put("All endpoints", testResult);
+            for (Map.Entry<String, TestResult> endpoint : rows.entrySet()) {
+                TestResult r = endpoint.getValue();
+                html.append("<tr><td>").append(endpoint.getKey()).append("</td><td>").append(r.getTotalRequests())
+                        .append("</td><td>").append(String.format("%.2f%%", share(r, testResult)))
+                        .append("</td><td>").append(String.format("%.2f%%", r.getSuccessRate()))
+                        .append("</td><td>").append(String.format("%.2f ms", r.getAverageResponseTime()))
+                        .append("</td><td>").append(String.format("%.2f ms", r.getPercentile(95)))
+                        .append("</td><td>").append(String.format("%.2f ms", r.getPercentile(99)))
+                        .append("</td><td>").append(String.format("%.2f req/s", r.getThroughput())).append("</td></tr>");
+            }
+            html.append("</table>");
+        }
+
+        // Latency breakdown: connection setup and transfer apart from server processing (TTFB)
+        PhaseBreakdown phases = testResult.getPhaseBreakdown();
+        if (phases != null) {
+            html.append("<h3 class='section-title'>Latency Breakdown</h3><table>");
+            html.append("<tr><th>Phase</th><th>Mean</th><th>P50</th><th>P95</th><th>P99</th><th>Share</th></tr>");
+            for (PhaseBreakdown.Phase phase : PhaseBreakdown.Phase.values()) {
+                html.append("<tr><td>").append(phase.getLabel())
+                        .append("</td><td>").append(String.format("%.3f ms", phases.getMeanMs(phase)))
+                        .append("</td><td>").append(String.format("%.3f ms", phases.getPercentileMs(phase, 50)))
+                        .append("</td><td>").append(String.format("%.3f ms", phases.getPercentileMs(phase, 95)))
+                        .append("</td><td>").append(String.format("%.3f ms", phases.getPercentileMs(phase, 99)))
+                        .append("</td><td>").append(String.format("%.1f%%", phases.getShare(phase))).append("</td></tr>");
+            }
+            html.append("</table>");
+        }
+
+        // Outcomes: each status class and error type with its own latency, so fast failures do not hide slow successes
+        OutcomeBreakdown outcomes = testResult.getOutcomeBreakdown();
+        if (outcomes != null) {
+            html.append("<h3 class='section-title'>Outcomes</h3><table>");
+            html.append("<tr><th>Outcome</th><th>Requests</th><th>Share</th><th>P50</th><th>P95</th><th>P99</th><th>Max</th></tr>");
+            for (OutcomeBreakdown.Category category : OutcomeBreakdown.Category.values()) {
+                if (outcomes.getCount(category) == 0) {
+                    continue;
+                }
+                html.append("<tr><td>").append(category.getLabel())
+                        .append("</td><td>").append(outcomes.getCount(category))
+                        .append("</td><td>").append(String.format("%.2f%%", outcomes.getShare(category)))
+                        .append("</td><td>").append(String.format("%.2f ms", outcomes.getPercentileMs(category, 50)))
+                        .append("</td><td>").append(String.format("%.2f ms", outcomes.getPercentileMs(category, 95)))
+                        .append("</td><td>").append(String.format("%.2f ms", outcomes.getPercentileMs(category, 99)))
+                        .append("</td><td>").append(String.format("%.2f ms", outcomes.getPercentileMs(category, 100))).append("</td></tr>");
+            }
+            html.append("<tr><td>Status Codes</td><td colspan='6'>").append(statusCodesText(outcomes)).append("</td></tr>");
+            html.append("</table>");
+        }
+
+        // Connection pool: lease waits here are generator-side queueing, not server latency
+        ConnectionPoolStats pool = testResult.getConnectionPoolStats();
+        if (pool != null) {
+            html.append("<h3 class='section-title'>Connection Pool</h3><table>");
+            html.append("<tr><th>Metric</th><th>Value</th></tr>");
+            html.append("<tr><td>Max Connections (total / per route)</td><td>").append(pool.getMaxTotal()).append(" / ").append(pool.getMaxPerRoute()).append("</td></tr>");
+            html.append("<tr><td>Leases</td><td>").append(pool.getLeases()).append("</td></tr>");
+            html.append("<tr><td>Average Lease Wait</td><td>").append(String.format("%.3f ms", pool.getAverageLeaseWaitMs())).append("</td></tr>");
+            html.append("<tr><td>Max Lease Wait</td><td>").append(String.format("%.3f ms", pool.getMaxLeaseWaitMs())).append("</td></tr>");
+            html.append("<tr><td>Connections Opened</td><td>").append(pool.getConnectionsOpened()).append("</td></tr>");
+            html.append("<tr><td>Connections Closed</td><td>").append(pool.getConnectionsClosed()).append("</td></tr>");
+            html.append("<tr><td>Connection Reuse</td><td>").append(String.format("%.2f%%", pool.getReuseRate())).append("</td></tr>");
+            html.append("</table>");
+        }
+
+        // Rate limiter: achieved vs target rate, and how long workers were held back to get there
+        RateLimiterStats limiter = testResult.getRateLimiterStats();
+        if (limiter != null) {
+            html.append("<h3 class='section-title'>Rate Limiter</h3><table>");
+            html.append("<tr><th>Metric</th><th>Value</th></tr>");
+            html.append("<tr><td>Target Rate (burst)</td><td>").append(String.format("%.2f req/s (%d)", limiter.getTargetRate(), limiter.getBurst())).append("</td></tr>");
+            html.append("<tr><td>Achieved Rate</td><td>").append(String.format("%.2f req/s (%.1f%% of target)",
+                    testResult.getThroughput(), limiter.getAchievedShare(testResult.getThroughput()))).append("</td></tr>");
+            html.append("<tr><td>Permits Granted</td><td>").append(limiter.getPermits()).append("</td></tr>");
+            html.append("<tr><td>Acquisitions Delayed</td><td>").append(String.format("%.2f%%", limiter.getDelayedRate())).append("</td></tr>");
+            html.append("<tr><td>Total Limiter Wait</td><td>").append(String.format("%.3f s", limiter.getTotalWaitSeconds())).append("</td></tr>");
+            html.append("<tr><td>Average Limiter Wait</td><td>").append(String.format("%.3f ms", limiter.getAverageWaitMs())).append("</td></tr>");
+            html.append("<tr><td>Max Limiter Wait</td><td>").append(String.format("%.3f ms", limiter.getMaxWaitMs())).append("</td></tr>");
+            html.append("</table>");
+        }
+
+        // Capacity search: knee point and load-vs-latency curve
+        CapacitySearchResult capacity = testResult.getCapacitySearch();
+        if (capacity != null) {
+            CapacitySearchResult.Probe knee = capacity.getKnee();
+            html.append("<h3 class='section-title'>Capacity Search</h3><table>");
+            html.append("<tr><th>Metric</th><th>Value</th></tr>");
+            html.append("<tr><td>SLO</td><td>").append(String.format("p99 &le; %.0f ms, errors &le; %.2f%%", capacity.getSloP99Ms(), capacity.getSloMaxErrorRate())).append("</td></tr>");
+            html.append("<tr><td>Knee (max sustainable load)</td><td>").append(knee != null
+                    ? String.format("%.1f %s (%.2f req/s, p99 %.1f ms)", knee.getLevel(), capacity.getDimension(), knee.getThroughput(), knee.getP99Ms())
+                    : "SLO broken at every probed level").append("</td></tr>");
+            html.append("</table><table>");
+            html.append("<tr><th>Load (").append(capacity.getDimension()).append(")</th><th>Throughput</th><th>p50</th><th>p99</th><th>Error Rate</th><th>SLO</th></tr>");
+            for (CapacitySearchResult.Probe probe : capacity.getCurve()) {
+                html.append("<tr><td>").append(String.format("%.1f", probe.getLevel()))
+                        .append("</td><td>").append(String.format("%.2f req/s", probe.getThroughput()))
+                        .append("</td><td>").append(String.format("%.1f ms", probe.getP50Ms()))
+                        .append("</td><td>").append(String.format("%.1f ms", probe.getP99Ms()))
+                        .append("</td><td>").append(String.format("%.2f%%", probe.getErrorRate()))
+                        .append("</td><td>").append(probe.isPassed() ? "<span class='ok'>PASS</span>" : "<span class='danger'>FAIL</span>").append("</td></tr>");
+            }
+            html.append("</table>");
+        }
+
+        // Time series: the intervals that stand out; the full series is in the JSON and CSV reports
+        TimeSeries series = testResult.getTimeSeries();
+        if (series != null && series.size() > 0) {
+            TimeSeries.Point[] extremes = seriesExtremes(series);
+            html.append("<h3 class='section-title'>Time Series</h3><table>");
+            html.append("<tr><th>Metric</th><th>Value</th></tr>");
+            html.append("<tr><td>Intervals</td><td>").append(String.format("%d x %d ms", series.size(), series.getIntervalMillis()))
+                    .append(series.getDropped() > 0 ? " (first " + series.getDropped() + " dropped)" : "").append("</td></tr>");
+            html.append("<tr><td>Peak Throughput</td><td>").append(pointText(extremes[0], String.format("%.2f req/s", extremes[0].getThroughput()))).append("</td></tr>");
+            html.append("<tr><td>Lowest Throughput</td><td>").append(pointText(extremes[1], String.format("%.2f req/s", extremes[1].getThroughput()))).append("</td></tr>");
+            html.append("<tr><td>Worst P99</td><td>").append(pointText(extremes[2], String.format("%.1f ms", extremes[2].getP99Ms()))).append("</td></tr>");
+            html.append("</table>");
+        }
+
+        // Generator footprint (cost of the load generator itself)
+        GeneratorFootprint footprint = testResult.getGeneratorFootprint();
+        if (footprint != null) {
+            html.append("<h3 class='section-title'>Generator Footprint</h3><table>");
+            html.append("<tr><th>Metric</th><th>Value</th></tr>");
+            html.append("<tr><td>Execution Mode</td><td>").append(footprint.getExecutionMode()).append("</td></tr>");
+            html.append("<tr><td>Simulated Users</td><td>").append(footprint.getUsers()).append("</td></tr>");
+            html.append("<tr><td>CPU Time</td><td>").append(String.format("%.0f ms", footprint.getCpuTimeMs())).append("</td></tr>");
+            html.append("<tr><td>CPU Time per User</td><td>").append(String.format("%.3f ms", footprint.getCpuTimePerUserMs())).append("</td></tr>");
+            html.append("<tr><td>Peak Heap</td><td>").append(String.format("%.1f MB", footprint.getPeakHeapBytes() / 1048576.0)).append("</td></tr>");
+            html.append("<tr><td>Peak Heap per User</td><td>").append(String.format("%.2f KB", footprint.getPeakHeapPerUserKb())).append("</td></tr>");
+            html.append("<tr><td>Peak Live Threads</td><td>").append(footprint.getPeakThreads()).append("</td></tr>");
+            html.append("</table>");
+        }
+        if (health != null) {
+            html.append("<h3 class='section-title'>Generator Health</h3><table>");
+            html.append("<tr><th>Metric</th><th>Value</th></tr>");
+            html.append("<tr><td>Saturated</td><td>").append(health.isSaturated() ? "<span class='warning'>YES</span>" : "<span class='ok'>NO</span>").append("</td></tr>");
+            html.append("<tr><td>Peak CPU</td><td>").append(String.format("%.1f%%", health.getPeakCpuPercent())).append("</td></tr>");
+            html.append("<tr><td>Longest GC Pause</td><td>").append(health.getMaxGcPauseMs()).append(" ms</td></tr>");
+            html.append("<tr><td>Total GC Pauses</td><td>").append(health.getTotalGcPauseMs()).append(" ms</td></tr>");
+            html.append("<tr><td>Allocation Rate</td><td>").append(String.format("%.1f MB/s", health.getAverageAllocationMbPerSec())).append("</td></tr>");
+            html.append("<tr><td>Max Scheduling Lag</td><td>").append(String.format("%.1f ms", health.getMaxLagMs())).append("</td></tr>");
+            html.append("</table>");
+        }
+
         // Overall Assessment + Test Summary + Recommendations
         String level = overallLevel(testResult);
         html.append("<div class='overall'>");
@@ -276,18 +555,160 @@ public class PerformanceReportGenerator {
         csv.append("Test Configuration,Test Duration,").append(testConfig.getTestDurationSec()).append(" seconds,\n");
         csv.append("Test Configuration,Connection Timeout,").append(testConfig.getConnectionTimeoutMs()).append(" ms,\n");
         csv.append("Test Configuration,Response Timeout,").append(testConfig.getResponseTimeoutMs()).append(" ms,\n");
+        csv.append("Test Configuration,Load Model,").append(testConfig.getLoadModel()).append(",\n");
+        if (testConfig.isOpenModel()) {
+            csv.append("Test Configuration,Target Rate,").append(String.format("%.2f req/s", testConfig.getTargetRate())).append(",\n");
+        }
         // Test Results
         csv.append("Test Results,Start Time,").append(testResult.getStartTime()).append(",OK\n");
         csv.append("Test Results,End Time,").append(testResult.getEndTime()).append(",OK\n");
         csv.append("Test Results,Duration,").append(String.format("%.2f seconds", testResult.getDuration())).append(",OK\n");
+        if (testResult.getAbortReason() != null) {
+            csv.append("Test Results,Aborted Early,").append(testResult.getAbortReason()).append(",ABORTED\n");
+        }
+        GeneratorHealth health = testResult.getGeneratorHealth();
+        if (health != null && health.isSaturated()) {
+            csv.append("Test Results,Generator Saturated,").append(String.join("; ", health.getSaturationReasons())).append(",SATURATED\n");
+        }
         csv.append("Test Results,Total Requests,").append(testResult.getTotalRequests()).append(",OK\n");
         csv.append("Test Results,Successful Requests,").append(testResult.getSuccessfulRequests()).append(",OK\n");
         csv.append("Test Results,Failed Requests,").append(testResult.getFailedRequests()).append(",").append(plainStatus(testResult.getFailedRequests(), "Failed Requests")).append("\n");
+        csv.append("Test Results,Cancelled Requests (stragglers),").append(testResult.getCancelledRequests()).append(",OK\n");
         csv.append("Test Results,Success Rate,").append(String.format("%.2f%%", testResult.getSuccessRate())).append(",").append(plainStatus(testResult.getSuccessRate(), "Success Rate")).append("\n");
         csv.append("Test Results,Average Response Time,").append(String.format("%.2f ms", testResult.getAverageResponseTime())).append(",").append(plainStatus(testResult.getAverageResponseTime(), "Average Response Time")).append("\n");
         csv.append("Test Results,Min Response Time,").append(String.format("%.0f ms", testResult.getMinResponseTime())).append(",OK\n");
         csv.append("Test Results,Max Response Time,").append(String.format("%.0f ms", testResult.getMaxResponseTime())).append(",").append(plainStatus(testResult.getMaxResponseTime(), "Max Response Time")).append("\n");
         csv.append("Test Results,Throughput,").append(String.format("%.2f req/s", testResult.getThroughput())).append(",").append(plainStatus(testResult.getThroughput(), "Throughput")).append("\n");
+        // Latency percentiles
+        for (double percentile : PERCENTILES) {
+            csv.append("Latency Percentiles,").append(percentileLabel(percentile)).append(",").append(String.format("%.3f ms", testResult.getPercentile(percentile))).append(",\n");
+        }
+        csv.append("Latency Percentiles,Histogram Precision,").append(precisionText(testResult)).append(",\n");
+        // Load profile stages
+        for (Map.Entry<String, TestResult> stage : testResult.getStageResults().entrySet()) {
+            TestResult r = stage.getValue();
+            String prefix = "Stage " + stage.getKey() + ",";
+            csv.append(prefix).append("Total Requests,").append(r.getTotalRequests()).append(",\n");
+            csv.append(prefix).append("Success Rate,").append(String.format("%.2f%%", r.getSuccessRate())).append(",").append(plainStatus(r.getSuccessRate(), "Success Rate")).append("\n");
+            csv.append(prefix).append("Average Response Time,").append(String.format("%.2f ms", r.getAverageResponseTime())).append(",").append(plainStatus(r.getAverageResponseTime(), "Average Response Time")).append("\n");
+            csv.append(prefix).append("Max Response Time,").append(String.format("%.0f ms", r.getMaxResponseTime())).append(",").append(plainStatus(r.getMaxResponseTime(), "Max Response Time")).append("\n");
+            csv.append(prefix).append("Throughput,").append(String.format("%.2f req/s", r.getThroughput())).append(",\n");
+        }
+        // Scenario steps and transactions
+        if (testResult.getTransactionResult() != null) {
+            Map<String, TestResult> rows = new LinkedHashMap<>();
+            for (Map.Entry<String, TestResult> step : testResult.getStepResults().entrySet()) {
+                rows.put("Step " + step.getKey(), step.getValue());
+            }
+            rows.put("Transaction", testResult.getTransactionResult());
+            for (Map.Entry<String, TestResult> row : rows.entrySet()) {
+                TestResult r = row.getValue();
+                String prefix = row.getKey() + ",";
+                csv.append(prefix).append("Total Requests,").append(r.getTotalRequests()).append(",\n");
+                csv.append(prefix).append("Success Rate,").append(String.format("%.2f%%", r.getSuccessRate())).append(",").append(plainStatus(r.getSuccessRate(), "Success Rate")).append("\n");
+                csv.append(prefix).append("Average Response Time,").append(String.format("%.2f ms", r.getAverageResponseTime())).append(",\n");
+                csv.append(prefix).append("Max Response Time,").append(String.format("%.0f ms", r.getMaxResponseTime())).append(",\n");
+                csv.append(prefix).append("Throughput,").append(String.format("%.2f req/s", r.getThroughput())).append(",\n");
+            }
+        }
+        // Endpoint mix
+        for (Map.Entry<String, TestResult> endpoint : testResult.getEndpointResults().entrySet()) {
+            TestResult r = endpoint.getValue();
+            String prefix = "Endpoint " + endpoint.getKey() + ",";
+            csv.append(prefix).append("Total Requests,").append(r.getTotalRequests()).append(",\n");
+            csv.append(prefix).append("Share of Requests,").append(String.format("%.2f%%", share(r, testResult))).append(",\n");
+            csv.append(prefix).append("Success Rate,").append(String.format("%.2f%%", r.getSuccessRate())).append(",").append(plainStatus(r.getSuccessRate(), "Success Rate")).append("\n");
+            csv.append(prefix).append("Average Response Time,").append(String.format("%.2f ms", r.getAverageResponseTime())).append(",\n");
+            csv.append(prefix).append("P95 Response Time,").append(String.format("%.2f ms", r.getPercentile(95))).append(",\n");
+            csv.append(prefix).append("P99 Response Time,").append(String.format("%.2f ms", r.getPercentile(99))).append(",\n");
+            csv.append(prefix).append("Throughput,").append(String.format("%.2f req/s", r.getThroughput())).append(",\n");
+        }
+        // Latency breakdown
+        PhaseBreakdown phases = testResult.getPhaseBreakdown();
+        if (phases != null) {
+            for (PhaseBreakdown.Phase phase : PhaseBreakdown.Phase.values()) {
+                String prefix = "Latency Breakdown," + phase.getLabel() + " ";
+                csv.append(prefix).append("Mean,").append(String.format("%.3f ms", phases.getMeanMs(phase))).append(",\n");
+                csv.append(prefix).append("P95,").append(String.format("%.3f ms", phases.getPercentileMs(phase, 95))).append(",\n");
+                csv.append(prefix).append("P99,").append(String.format("%.3f ms", phases.getPercentileMs(phase, 99))).append(",\n");
+                csv.append(prefix).append("Share,").append(String.format("%.1f%%", phases.getShare(phase))).append(",\n");
+            }
+        }
+        // Outcomes
+        OutcomeBreakdown outcomes = testResult.getOutcomeBreakdown();
+        if (outcomes != null) {
+            for (OutcomeBreakdown.Category category : OutcomeBreakdown.Category.values()) {
+                if (outcomes.getCount(category) == 0) {
+                    continue;
+                }
+                String prefix = "Outcomes," + category.getLabel() + " ";
+                csv.append(prefix).append("Requests,").append(outcomes.getCount(category)).append(",\n");
+                csv.append(prefix).append("Share,").append(String.format("%.2f%%", outcomes.getShare(category))).append(",\n");
+                csv.append(prefix).append("P50,").append(String.format("%.2f ms", outcomes.getPercentileMs(category, 50))).append(",\n");
+                csv.append(prefix).append("P99,").append(String.format("%.2f ms", outcomes.getPercentileMs(category, 99))).append(",\n");
+            }
+            for (Map.Entry<Integer, Long> code : outcomes.getStatusCounts().entrySet()) {
+                csv.append("Status Codes,").append(code.getKey()).append(",").append(code.getValue()).append(",\n");
+            }
+        }
+        // Connection pool
+        ConnectionPoolStats pool = testResult.getConnectionPoolStats();
+        if (pool != null) {
+            csv.append("Connection Pool,Max Connections (total / per route),").append(pool.getMaxTotal()).append(" / ").append(pool.getMaxPerRoute()).append(",\n");
+            csv.append("Connection Pool,Leases,").append(pool.getLeases()).append(",\n");
+            csv.append("Connection Pool,Average Lease Wait,").append(String.format("%.3f ms", pool.getAverageLeaseWaitMs())).append(",\n");
+            csv.append("Connection Pool,Max Lease Wait,").append(String.format("%.3f ms", pool.getMaxLeaseWaitMs())).append(",\n");
+            csv.append("Connection Pool,Connections Opened,").append(pool.getConnectionsOpened()).append(",\n");
+            csv.append("Connection Pool,Connections Closed,").append(pool.getConnectionsClosed()).append(",\n");
+            csv.append("Connection Pool,Connection Reuse,").append(String.format("%.2f%%", pool.getReuseRate())).append(",\n");
+        }
+        // Rate limiter
+        RateLimiterStats limiter = testResult.getRateLimiterStats();
+        if (limiter != null) {
+            csv.append("Rate Limiter,Target Rate,").append(String.format("%.2f req/s", limiter.getTargetRate())).append(",\n");
+            csv.append("Rate Limiter,Burst,").append(limiter.getBurst()).append(",\n");
+            csv.append("Rate Limiter,Achieved Rate,").append(String.format("%.2f req/s", testResult.getThroughput())).append(",\n");
+            csv.append("Rate Limiter,Achieved Share,").append(String.format("%.1f%%", limiter.getAchievedShare(testResult.getThroughput()))).append(",\n");
+            csv.append("Rate Limiter,Permits Granted,").append(limiter.getPermits()).append(",\n");
+            csv.append("Rate Limiter,Acquisitions Delayed,").append(String.format("%.2f%%", limiter.getDelayedRate())).append(",\n");
+            csv.append("Rate Limiter,Total Limiter Wait,").append(String.format("%.3f s", limiter.getTotalWaitSeconds())).append(",\n");
+            csv.append("Rate Limiter,Average Limiter Wait,").append(String.format("%.3f ms", limiter.getAverageWaitMs())).append(",\n");
+            csv.append("Rate Limiter,Max Limiter Wait,").append(String.format("%.3f ms", limiter.getMaxWaitMs())).append(",\n");
+        }
+        // Capacity search
+        CapacitySearchResult capacity = testResult.getCapacitySearch();
+        if (capacity != null) {
+            CapacitySearchResult.Probe knee = capacity.getKnee();
+            csv.append("Capacity Search,SLO,").append(String.format("p99 <= %.0f ms; errors <= %.2f%%", capacity.getSloP99Ms(), capacity.getSloMaxErrorRate())).append(",\n");
+            csv.append("Capacity Search,Knee,").append(knee != null ? String.format("%.1f %s", knee.getLevel(), capacity.getDimension()) : "none").append(",")
+                    .append(knee != null ? "PASS" : "FAIL").append("\n");
+            for (CapacitySearchResult.Probe probe : capacity.getCurve()) {
+                String prefix = "Capacity Probe " + String.format("%.1f %s", probe.getLevel(), capacity.getDimension()) + ",";
+                csv.append(prefix).append("Throughput,").append(String.format("%.2f req/s", probe.getThroughput())).append(",\n");
+                csv.append(prefix).append("p50,").append(String.format("%.1f ms", probe.getP50Ms())).append(",\n");
+                csv.append(prefix).append("p99,").append(String.format("%.1f ms", probe.getP99Ms())).append(",").append(probe.isPassed() ? "PASS" : "FAIL").append("\n");
+                csv.append(prefix).append("Error Rate,").append(String.format("%.2f%%", probe.getErrorRate())).append(",\n");
+            }
+        }
+        // Generator footprint
+        GeneratorFootprint footprint = testResult.getGeneratorFootprint();
+        if (footprint != null) {
+            csv.append("Generator Footprint,Execution Mode,").append(footprint.getExecutionMode()).append(",\n");
+            csv.append("Generator Footprint,Simulated Users,").append(footprint.getUsers()).append(",\n");
+            csv.append("Generator Footprint,CPU Time,").append(String.format("%.0f ms", footprint.getCpuTimeMs())).append(",\n");
+            csv.append("Generator Footprint,CPU Time per User,").append(String.format("%.3f ms", footprint.getCpuTimePerUserMs())).append(",\n");
+            csv.append("Generator Footprint,Peak Heap,").append(String.format("%.1f MB", footprint.getPeakHeapBytes() / 1048576.0)).append(",\n");
+            csv.append("Generator Footprint,Peak Heap per User,").append(String.format("%.2f KB", footprint.getPeakHeapPerUserKb())).append(",\n");
+            csv.append("Generator Footprint,Peak Live Threads,").append(footprint.getPeakThreads()).append(",\n");
+        }
+        if (health != null) {
+            csv.append("Generator Health,Saturated,").append(health.isSaturated() ? "YES" : "NO").append(",").append(health.isSaturated() ? "SATURATED" : "OK").append("\n");
+            csv.append("Generator Health,Peak CPU,").append(String.format("%.1f%%", health.getPeakCpuPercent())).append(",\n");
+            csv.append("Generator Health,Longest GC Pause,").append(health.getMaxGcPauseMs()).append(" ms,\n");
+            csv.append("Generator Health,Total GC Pauses,").append(health.getTotalGcPauseMs()).append(" ms,\n");
+            csv.append("Generator Health,Allocation Rate,").append(String.format("%.1f MB/s", health.getAverageAllocationMbPerSec())).append(",\n");
+            csv.append("Generator Health,Max Scheduling Lag,").append(String.format("%.1f ms", health.getMaxLagMs())).append(",\n");
+        }
         // Overall
         csv.append("Overall Assessment,Overall Level,").append(overallLevel(testResult)).append(",\n");
         csv.append("Overall Assessment,Reliability,").append(reliabilityComment(testResult)).append(",\n");
@@ -295,6 +716,16 @@ public class PerformanceReportGenerator {
         csv.append("Overall Assessment,Scalability,").append(scalabilityComment(testResult)).append(",\n");
         csv.append("Overall Assessment,Recommendations,").append(recommendation(testResult)).append(",\n");
         csv.append("Meta,Generated,").append(LocalDateTime.now()).append(",UTC\n");
+        // Time series as its own table after a blank line, ready to plot
+        TimeSeries series = testResult.getTimeSeries();
+        if (series != null && series.size() > 0) {
+            csv.append("\nTime (s),Requests,Errors,Throughput (req/s),P50 (ms),P90 (ms),P99 (ms),Max (ms)\n");
+            for (int i = 0; i < series.size(); i++) {
+                TimeSeries.Point point = series.get(i);
+                csv.append(String.format("%.1f,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f%n", point.getTimeSeconds(), point.getRequests(),
+                        point.getErrors(), point.getThroughput(), point.getP50Ms(), point.getP90Ms(), point.getP99Ms(), point.getMaxMs()));
+            }
+        }
         Files.write(Paths.get(fileName), csv.toString().getBytes());
         return fileName;
     }
@@ -310,20 +741,249 @@ public class PerformanceReportGenerator {
         config.put("testDurationSec", testConfig.getTestDurationSec());
         config.put("connectionTimeoutMs", testConfig.getConnectionTimeoutMs());
         config.put("responseTimeoutMs", testConfig.getResponseTimeoutMs());
+        config.put("loadModel", testConfig.getLoadModel());
+        config.put("targetRate", testConfig.getTargetRate());
         report.put("testConfig", config);
         Map<String, Object> result = new HashMap<>();
         result.put("startTime", testResult.getStartTime().toString());
         result.put("endTime", testResult.getEndTime().toString());
         result.put("duration", testResult.getDuration());
+        if (testResult.getAbortReason() != null) {
+            result.put("abortReason", testResult.getAbortReason());
+        }
         result.put("totalRequests", testResult.getTotalRequests());
         result.put("successfulRequests", testResult.getSuccessfulRequests());
         result.put("failedRequests", testResult.getFailedRequests());
+        result.put("cancelledRequests", testResult.getCancelledRequests());
         result.put("successRate", testResult.getSuccessRate());
         result.put("averageResponseTime", testResult.getAverageResponseTime());
         result.put("minResponseTime", testResult.getMinResponseTime());
         result.put("maxResponseTime", testResult.getMaxResponseTime());
         result.put("throughput", testResult.getThroughput());
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            percentiles.put(percentileLabel(percentile).toLowerCase(), testResult.getPercentile(percentile));
+        }
+        result.put("percentilesMs", percentiles);
+        result.put("histogramPrecisionBits", testResult.getHistogram().getPrecisionBits());
         report.put("testResult", result);
+        if (!testResult.getStageResults().isEmpty()) {
+            List<Map<String, Object>> stages = new ArrayList<>();
+            for (Map.Entry<String, TestResult> stage : testResult.getStageResults().entrySet()) {
+                TestResult r = stage.getValue();
+                Map<String, Object> stageMap = new LinkedHashMap<>();
+                stageMap.put("name", stage.getKey());
+                stageMap.put("totalRequests", r.getTotalRequests());
+                stageMap.put("successRate", r.getSuccessRate());
+                stageMap.put("averageResponseTime", r.getAverageResponseTime());
+                stageMap.put("maxResponseTime", r.getMaxResponseTime());
+                stageMap.put("throughput", r.getThroughput());
+                stages.add(stageMap);
+            }
+            report.put("stages", stages);
+        }
+        if (testResult.getTransactionResult() != null) {
+            List<Map<String, Object>> steps = new ArrayList<>();
+            for (Map.Entry<String, TestResult> step : testResult.getStepResults().entrySet()) {
+                TestResult r = step.getValue();
+                Map<String, Object> stepMap = new LinkedHashMap<>();
+                stepMap.put("name", step.getKey());
+                stepMap.put("totalRequests", r.getTotalRequests());
+                stepMap.put("successRate", r.getSuccessRate());
+                stepMap.put("averageResponseTime", r.getAverageResponseTime());
+                stepMap.put("maxResponseTime", r.getMaxResponseTime());
+                stepMap.put("throughput", r.getThroughput());
+                steps.add(stepMap);
+            }
+            TestResult t = testResult.getTransactionResult();
+            Map<String, Object> transaction = new LinkedHashMap<>();
+            transaction.put("totalTransactions", t.getTotalRequests());
+            transaction.put("successRate", t.getSuccessRate());
+            transaction.put("averageResponseTime", t.getAverageResponseTime());
+            transaction.put("maxResponseTime", t.getMaxResponseTime());
+            transaction.put("throughput", t.getThroughput());
+            transaction.put("cancelled", t.getCancelledRequests());
+            Map<String, Object> scenario = new LinkedHashMap<>();
+            scenario.put("steps", steps);
+            scenario.put("transaction", transaction);
+            report.put("scenario", scenario);
+        }
+        if (!testResult.getEndpointResults().isEmpty()) {
+            List<Map<String, Object>> endpoints = new ArrayList<>();
+            for (Map.Entry<String, TestResult> endpoint : testResult.getEndpointResults().entrySet()) {
+                TestResult r = endpoint.getValue();
+                Map<String, Object> endpointMap = new LinkedHashMap<>();
+                endpointMap.put("name", endpoint.getKey());
+                endpointMap.put("totalRequests", r.getTotalRequests());
+                endpointMap.put("sharePercent", share(r, testResult));
+                endpointMap.put("successRate", r.getSuccessRate());
+                endpointMap.put("averageResponseTime", r.getAverageResponseTime());
+                endpointMap.put("p95ResponseTime", r.getPercentile(95));
+                endpointMap.put("p99ResponseTime", r.getPercentile(99));
+                endpointMap.put("throughput", r.getThroughput());
+                endpointMap.put("cancelled", r.getCancelledRequests());
+                endpoints.add(endpointMap);
+            }
+            report.put("endpoints", endpoints);
+        }
+        PhaseBreakdown phases = testResult.getPhaseBreakdown();
+        if (phases != null) {
+            Map<String, Object> breakdown = new LinkedHashMap<>();
+            for (PhaseBreakdown.Phase phase : PhaseBreakdown.Phase.values()) {
+                Map<String, Object> timing = new LinkedHashMap<>();
+                timing.put("meanMs", phases.getMeanMs(phase));
+                timing.put("p50Ms", phases.getPercentileMs(phase, 50));
+                timing.put("p95Ms", phases.getPercentileMs(phase, 95));
+                timing.put("p99Ms", phases.getPercentileMs(phase, 99));
+                timing.put("sharePercent", phases.getShare(phase));
+                breakdown.put(phase.name().toLowerCase(), timing);
+            }
+            report.put("latencyBreakdown", breakdown);
+        }
+        OutcomeBreakdown outcomes = testResult.getOutcomeBreakdown();
+        if (outcomes != null) {
+            Map<String, Object> outcomeMap = new LinkedHashMap<>();
+            Map<String, Object> statusCodes = new LinkedHashMap<>();
+            for (Map.Entry<Integer, Long> code : outcomes.getStatusCounts().entrySet()) {
+                statusCodes.put(String.valueOf(code.getKey()), code.getValue());
+            }
+            outcomeMap.put("statusCodes", statusCodes);
+            Map<String, Object> categories = new LinkedHashMap<>();
+            for (OutcomeBreakdown.Category category : OutcomeBreakdown.Category.values()) {
+                if (outcomes.getCount(category) == 0) {
+                    continue;
+                }
+                Map<String, Object> counts = new LinkedHashMap<>();
+                counts.put("requests", outcomes.getCount(category));
+                counts.put("sharePercent", outcomes.getShare(category));
+                counts.put("p50Ms", outcomes.getPercentileMs(category, 50));
+                counts.put("p95Ms", outcomes.getPercentileMs(category, 95));
+                counts.put("p99Ms", outcomes.getPercentileMs(category, 99));
+                counts.put("maxMs", outcomes.getPercentileMs(category, 100));
+                categories.put(category.name().toLowerCase(), counts);
+            }
+            outcomeMap.put("categories", categories);
+            report.put("outcomes", outcomeMap);
+        }
+        ConnectionPoolStats pool = testResult.getConnectionPoolStats();
+        if (pool != null) {
+            Map<String, Object> connectionPool = new HashMap<>();
+            connectionPool.put("maxTotal", pool.getMaxTotal());
+            connectionPool.put("maxPerRoute", pool.getMaxPerRoute());
+            connectionPool.put("leases", pool.getLeases());
+            connectionPool.put("averageLeaseWaitMs", pool.getAverageLeaseWaitMs());
+            connectionPool.put("maxLeaseWaitMs", pool.getMaxLeaseWaitMs());
+            connectionPool.put("connectionsOpened", pool.getConnectionsOpened());
+            connectionPool.put("connectionsClosed", pool.getConnectionsClosed());
+            connectionPool.put("reuseRate", pool.getReuseRate());
+            report.put("connectionPool", connectionPool);
+        }
+        RateLimiterStats limiter = testResult.getRateLimiterStats();
+        if (limiter != null) {
+            Map<String, Object> rateLimiter = new LinkedHashMap<>();
+            rateLimiter.put("targetRate", limiter.getTargetRate());
+            rateLimiter.put("burst", limiter.getBurst());
+            rateLimiter.put("achievedRate", testResult.getThroughput());
+            rateLimiter.put("achievedShare", limiter.getAchievedShare(testResult.getThroughput()));
+            rateLimiter.put("permits", limiter.getPermits());
+            rateLimiter.put("acquisitions", limiter.getAcquisitions());
+            rateLimiter.put("delayedRate", limiter.getDelayedRate());
+            rateLimiter.put("totalWaitSeconds", limiter.getTotalWaitSeconds());
+            rateLimiter.put("averageWaitMs", limiter.getAverageWaitMs());
+            rateLimiter.put("maxWaitMs", limiter.getMaxWaitMs());
+            report.put("rateLimiter", rateLimiter);
+        }
+        TimeSeries series = testResult.getTimeSeries();
+        if (series != null) {
+            Map<String, Object> timeSeries = new LinkedHashMap<>();
+            timeSeries.put("intervalMs", series.getIntervalMillis());
+            timeSeries.put("dropped", series.getDropped());
+            List<Map<String, Object>> points = new ArrayList<>();
+            for (int i = 0; i < series.size(); i++) {
+                TimeSeries.Point point = series.get(i);
+                Map<String, Object> p = new LinkedHashMap<>();
+                p.put("timeSeconds", point.getTimeSeconds());
+                p.put("requests", point.getRequests());
+                p.put("errors", point.getErrors());
+                p.put("throughput", point.getThroughput());
+                p.put("p50Ms", point.getP50Ms());
+                p.put("p90Ms", point.getP90Ms());
+                p.put("p99Ms", point.getP99Ms());
+                p.put("maxMs", point.getMaxMs());
+                points.add(p);
+            }
+            timeSeries.put("points", points);
+            report.put("timeSeries", timeSeries);
+        }
+        CapacitySearchResult capacity = testResult.getCapacitySearch();
+        if (capacity != null) {
+            Map<String, Object> search = new LinkedHashMap<>();
+            search.put("dimension", capacity.getDimension());
+            search.put("sloP99Ms", capacity.getSloP99Ms());
+            search.put("sloMaxErrorRate", capacity.getSloMaxErrorRate());
+            CapacitySearchResult.Probe knee = capacity.getKnee();
+            search.put("kneeLevel", knee != null ? knee.getLevel() : null);
+            search.put("kneeThroughput", knee != null ? knee.getThroughput() : null);
+            List<Map<String, Object>> curve = new ArrayList<>();
+            for (CapacitySearchResult.Probe probe : capacity.getCurve()) {
+                Map<String, Object> point = new LinkedHashMap<>();
+                point.put("level", probe.getLevel());
+                point.put("throughput", probe.getThroughput());
+                point.put("p50Ms", probe.getP50Ms());
+                point.put("p99Ms", probe.getP99Ms());
+                point.put("errorRate", probe.getErrorRate());
+                point.put("passed", probe.isPassed());
+                curve.add(point);
+            }
+            search.put("curve", curve);
+            report.put("capacitySearch", search);
+        }
+        GeneratorFootprint footprint = testResult.getGeneratorFootprint();
+        if (footprint != null) {
+            Map<String, Object> generator = new HashMap<>();
+            generator.put("executionMode", footprint.getExecutionMode());
+            generator.put("users", footprint.getUsers());
+            generator.put("cpuTimeMs", footprint.getCpuTimeMs());
+            generator.put("cpuTimePerUserMs", footprint.getCpuTimePerUserMs());
+            generator.put("peakHeapBytes", footprint.getPeakHeapBytes());
+            generator.put("peakHeapPerUserKb", footprint.getPeakHeapPerUserKb());
+            generator.put("peakThreads", footprint.getPeakThreads());
+            report.put("generatorFootprint", generator);
+        }
+        GeneratorHealth health = testResult.getGeneratorHealth();
+        if (health != null) {
+            Map<String, Object> generatorHealth = new LinkedHashMap<>();
+            generatorHealth.put("saturated", health.isSaturated());
+            generatorHealth.put("reasons", health.getSaturationReasons());
+            Map<String, Object> thresholds = new LinkedHashMap<>();
+            thresholds.put("cpuPercent", health.getCpuThresholdPercent());
+            thresholds.put("gcPauseMs", health.getGcPauseThresholdMs());
+            thresholds.put("lagMs", health.getLagThresholdMs());
+            generatorHealth.put("thresholds", thresholds);
+            generatorHealth.put("peakCpuPercent", health.getPeakCpuPercent());
+            generatorHealth.put("maxGcPauseMs", health.getMaxGcPauseMs());
+            generatorHealth.put("totalGcPauseMs", health.getTotalGcPauseMs());
+            generatorHealth.put("allocationMbPerSec", health.getAverageAllocationMbPerSec());
+            generatorHealth.put("maxLagMs", health.getMaxLagMs());
+            generatorHealth.put("dropped", health.getDroppedSamples());
+            List<Map<String, Object>> samples = new ArrayList<>();
+            for (GeneratorHealth.Sample sample : health.getSamples()) {
+                Map<String, Object> s = new LinkedHashMap<>();
+                s.put("offsetMs", sample.getOffsetMillis());
+                s.put("lengthMs", sample.getLengthMillis());
+                s.put("cpuPercent", sample.getCpuPercent());
+                s.put("gcPauseMs", sample.getGcPauseMs());
+                s.put("gcPauses", sample.getGcPauses());
+                s.put("gcMaxPauseMs", sample.getGcMaxPauseMs());
+                s.put("allocationMbPerSec", sample.getAllocationMbPerSec());
+                s.put("threads", sample.getThreads());
+                s.put("lagMeanMs", sample.getLagMeanMs());
+                s.put("lagMaxMs", sample.getLagMaxMs());
+                samples.add(s);
+            }
+            generatorHealth.put("samples", samples);
+            report.put("generatorHealth", generatorHealth);
+        }
         report.put("overallAssessment", overallLevel(testResult));
         report.put("reliability", reliabilityComment(testResult));
         report.put("performance", performanceComment(testResult));
@@ -350,19 +1010,163 @@ public class PerformanceReportGenerator {
         txt.append("  HTTP Method: ").append(testConfig.getHttpMethod()).append("\n");
         txt.append("  Test Duration: ").append(testConfig.getTestDurationSec()).append(" seconds\n");
         txt.append("  Connection Timeout: ").append(testConfig.getConnectionTimeoutMs()).append(" ms\n");
-        txt.append("  Response Timeout: ").append(testConfig.getResponseTimeoutMs()).append(" ms\n\n");
+        txt.append("  Response Timeout: ").append(testConfig.getResponseTimeoutMs()).append(" ms\n");
+        txt.append("  Load Model: ").append(testConfig.getLoadModel()).append("\n");
+        if (testConfig.isOpenModel()) {
+            txt.append("  Target Rate: ").append(String.format("%.2f req/s", testConfig.getTargetRate())).append("\n");
+        }
+        txt.append("\n");
         txt.append("Test Results:\n");
         txt.append("  Start Time: ").append(testResult.getStartTime()).append("\n");
         txt.append("  End Time: ").append(testResult.getEndTime()).append("\n");
         txt.append("  Duration: ").append(String.format("%.2f seconds", testResult.getDuration())).append("\n");
+        if (testResult.getAbortReason() != null) {
+            txt.append("  Aborted Early: ").append(testResult.getAbortReason()).append("\n");
+        }
+        GeneratorHealth health = testResult.getGeneratorHealth();
+        if (health != null && health.isSaturated()) {
+            txt.append("  Generator Saturated: ").append(String.join("; ", health.getSaturationReasons())).append("\n");
+        }
         txt.append("  Total Requests: ").append(testResult.getTotalRequests()).append("\n");
         txt.append("  Successful Requests: ").append(testResult.getSuccessfulRequests()).append("\n");
         txt.append("  Failed Requests: ").append(testResult.getFailedRequests()).append(" (").append(plainStatus(testResult.getFailedRequests(), "Failed Requests")).append(")\n");
+        txt.append("  Cancelled Requests (stragglers): ").append(testResult.getCancelledRequests()).append("\n");
         txt.append("  Success Rate: ").append(String.format("%.2f%%", testResult.getSuccessRate())).append(" (").append(plainStatus(testResult.getSuccessRate(), "Success Rate")).append(")\n");
         txt.append("  Average Response Time: ").append(String.format("%.2f ms", testResult.getAverageResponseTime())).append(" (").append(plainStatus(testResult.getAverageResponseTime(), "Average Response Time")).append(")\n");
         txt.append("  Min Response Time: ").append(String.format("%.0f ms", testResult.getMinResponseTime())).append("\n");
         txt.append("  Max Response Time: ").append(String.format("%.0f ms", testResult.getMaxResponseTime())).append(" (").append(plainStatus(testResult.getMaxResponseTime(), "Max Response Time")).append(")\n");
         txt.append("  Throughput: ").append(String.format("%.2f req/s", testResult.getThroughput())).append(" (").append(plainStatus(testResult.getThroughput(), "Throughput")).append(")\n\n");
+        txt.append("Latency Percentiles (").append(precisionText(testResult)).append("):\n");
+        for (double percentile : PERCENTILES) {
+            txt.append(String.format("  %-6s %.3f ms%n", percentileLabel(percentile) + ":", testResult.getPercentile(percentile)));
+        }
+        txt.append("\n");
+        if (!testResult.getStageResults().isEmpty()) {
+            txt.append("Load Profile Stages:\n");
+            for (Map.Entry<String, TestResult> stage : testResult.getStageResults().entrySet()) {
+                TestResult r = stage.getValue();
+                txt.append("  ").append(stage.getKey()).append(": ")
+                        .append(r.getTotalRequests()).append(" requests, ")
+                        .append(String.format("%.2f%% success, avg %.2f ms, max %.0f ms, %.2f req/s",
+                                r.getSuccessRate(), r.getAverageResponseTime(), r.getMaxResponseTime(), r.getThroughput()))
+                        .append("\n");
+            }
+            txt.append("\n");
+        }
+        if (testResult.getTransactionResult() != null) {
+            txt.append("Scenario Steps:\n");
+            Map<String, TestResult> rows = new LinkedHashMap<>(testResult.getStepResults());
+            rows.put("Transaction (all steps)", testResult.getTransactionResult());
+            for (Map.Entry<String, TestResult> step : rows.entrySet()) {
+                TestResult r = step.getValue();
+                txt.append("  ").append(step.getKey()).append(": ")
+                        .append(r.getTotalRequests()).append(" requests, ")
+                        .append(String.format("%.2f%% success, avg %.2f ms, max %.0f ms, %.2f req/s",
+                                r.getSuccessRate(), r.getAverageResponseTime(), r.getMaxResponseTime(), r.getThroughput()))
+                        .append("\n");
+            }
+            txt.append("\n");
+        }
+        if (!testResult.getEndpointResults().isEmpty()) {
+            txt.append("Endpoint Mix:\n");
+            for (Map.Entry<String, TestResult> endpoint : testResult.getEndpointResults().entrySet()) {
+                TestResult r = endpoint.getValue();
+                txt.append("  ").append(endpoint.getKey()).append(": ")
+                        .append(r.getTotalRequests()).append(" requests ")
+                        .append(String.format("(%.1f%%), %.2f%% success, avg %.2f ms, p95 %.2f ms, p99 %.2f ms, %.2f req/s",
+                                share(r, testResult), r.getSuccessRate(), r.getAverageResponseTime(),
+                                r.getPercentile(95), r.getPercentile(99), r.getThroughput()))
+                        .append("\n");
+            }
+            txt.append("\n");
+        }
+        PhaseBreakdown phases = testResult.getPhaseBreakdown();
+        if (phases != null) {
+            txt.append("Latency Breakdown:\n");
+            for (PhaseBreakdown.Phase phase : PhaseBreakdown.Phase.values()) {
+                txt.append(String.format("  %-19s mean %.3f ms, p50 %.3f ms, p95 %.3f ms, p99 %.3f ms (%.1f%%)%n",
+                        phase.getLabel() + ":", phases.getMeanMs(phase), phases.getPercentileMs(phase, 50),
+                        phases.getPercentileMs(phase, 95), phases.getPercentileMs(phase, 99), phases.getShare(phase)));
+            }
+            txt.append("\n");
+        }
+        OutcomeBreakdown outcomes = testResult.getOutcomeBreakdown();
+        if (outcomes != null) {
+            txt.append("Outcomes:\n");
+            for (OutcomeBreakdown.Category category : OutcomeBreakdown.Category.values()) {
+                if (outcomes.getCount(category) == 0) {
+                    continue;
+                }
+                txt.append(String.format("  %-19s %d (%.2f%%), p50 %.2f ms, p95 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                        category.getLabel() + ":", outcomes.getCount(category), outcomes.getShare(category),
+                        outcomes.getPercentileMs(category, 50), outcomes.getPercentileMs(category, 95),
+                        outcomes.getPercentileMs(category, 99), outcomes.getPercentileMs(category, 100)));
+            }
+            txt.append("  Status Codes: ").append(statusCodesText(outcomes)).append("\n\n");
+        }
+        ConnectionPoolStats pool = testResult.getConnectionPoolStats();
+        if (pool != null) {
+            txt.append("Connection Pool:\n");
+            txt.append("  Max Connections (total / per route): ").append(pool.getMaxTotal()).append(" / ").append(pool.getMaxPerRoute()).append("\n");
+            txt.append("  Leases: ").append(pool.getLeases()).append("\n");
+            txt.append("  Lease Wait: ").append(String.format("avg %.3f ms, max %.3f ms", pool.getAverageLeaseWaitMs(), pool.getMaxLeaseWaitMs())).append("\n");
+            txt.append("  Connections Opened / Closed: ").append(pool.getConnectionsOpened()).append(" / ").append(pool.getConnectionsClosed()).append("\n");
+            txt.append("  Connection Reuse: ").append(String.format("%.2f%%", pool.getReuseRate())).append("\n\n");
+        }
+        RateLimiterStats limiter = testResult.getRateLimiterStats();
+        if (limiter != null) {
+            txt.append("Rate Limiter:\n");
+            txt.append("  Target: ").append(String.format("%.2f req/s (burst %d)", limiter.getTargetRate(), limiter.getBurst())).append("\n");
+            txt.append("  Achieved: ").append(String.format("%.2f req/s (%.1f%% of target)",
+                    testResult.getThroughput(), limiter.getAchievedShare(testResult.getThroughput()))).append("\n");
+            txt.append("  Permits Granted: ").append(limiter.getPermits()).append(String.format(" (%.2f%% of acquisitions delayed)", limiter.getDelayedRate())).append("\n");
+            txt.append("  Limiter Wait: ").append(String.format("total %.3f s, avg %.3f ms, max %.3f ms",
+                    limiter.getTotalWaitSeconds(), limiter.getAverageWaitMs(), limiter.getMaxWaitMs())).append("\n\n");
+        }
+        CapacitySearchResult capacity = testResult.getCapacitySearch();
+        if (capacity != null) {
+            CapacitySearchResult.Probe knee = capacity.getKnee();
+            txt.append("Capacity Search:\n");
+            txt.append("  SLO: ").append(String.format("p99 <= %.0f ms, errors <= %.2f%%", capacity.getSloP99Ms(), capacity.getSloMaxErrorRate())).append("\n");
+            txt.append("  Knee: ").append(knee != null
+                    ? String.format("%.1f %s (%.2f req/s, p99 %.1f ms)", knee.getLevel(), capacity.getDimension(), knee.getThroughput(), knee.getP99Ms())
+                    : "SLO broken at every probed level").append("\n");
+            for (CapacitySearchResult.Probe probe : capacity.getCurve()) {
+                txt.append(String.format("  %8.1f %s: %.2f req/s, p50 %.1f ms, p99 %.1f ms, errors %.2f%% %s%n",
+                        probe.getLevel(), capacity.getDimension(), probe.getThroughput(), probe.getP50Ms(), probe.getP99Ms(),
+                        probe.getErrorRate(), probe.isPassed() ? "PASS" : "FAIL"));
+            }
+            txt.append("\n");
+        }
+        TimeSeries series = testResult.getTimeSeries();
+        if (series != null && series.size() > 0) {
+            TimeSeries.Point[] extremes = seriesExtremes(series);
+            txt.append("Time Series (").append(series.size()).append(" x ").append(series.getIntervalMillis()).append(" ms")
+                    .append(series.getDropped() > 0 ? ", first " + series.getDropped() + " dropped" : "").append("):\n");
+            txt.append("  Peak Throughput: ").append(pointText(extremes[0], String.format("%.2f req/s", extremes[0].getThroughput()))).append("\n");
+            txt.append("  Lowest Throughput: ").append(pointText(extremes[1], String.format("%.2f req/s", extremes[1].getThroughput()))).append("\n");
+            txt.append("  Worst P99: ").append(pointText(extremes[2], String.format("%.1f ms", extremes[2].getP99Ms()))).append("\n\n");
+        }
+        GeneratorFootprint footprint = testResult.getGeneratorFootprint();
+        if (footprint != null) {
+            txt.append("Generator Footprint:\n");
+            txt.append("  Execution Mode: ").append(footprint.getExecutionMode()).append("\n");
+            txt.append("  Simulated Users: ").append(footprint.getUsers()).append("\n");
+            txt.append("  CPU Time: ").append(String.format("%.0f ms", footprint.getCpuTimeMs()))
+                    .append(" (").append(String.format("%.3f ms/user", footprint.getCpuTimePerUserMs())).append(")\n");
+            txt.append("  Peak Heap: ").append(String.format("%.1f MB", footprint.getPeakHeapBytes() / 1048576.0))
+                    .append(" (").append(String.format("%.2f KB/user", footprint.getPeakHeapPerUserKb())).append(")\n");
+            txt.append("  Peak Live Threads: ").append(footprint.getPeakThreads()).append("\n\n");
+        }
+        if (health != null) {
+            txt.append("Generator Health:\n");
+            txt.append("  Saturated: ").append(health.isSaturated() ? "YES" : "NO").append("\n");
+            txt.append("  Peak CPU: ").append(String.format("%.1f%%", health.getPeakCpuPercent())).append("\n");
+            txt.append("  GC Pauses: ").append(health.getTotalGcPauseMs()).append(" ms total, longest ")
+                    .append(health.getMaxGcPauseMs()).append(" ms\n");
+            txt.append("  Allocation Rate: ").append(String.format("%.1f MB/s", health.getAverageAllocationMbPerSec())).append("\n");
+            txt.append("  Max Scheduling Lag: ").append(String.format("%.1f ms", health.getMaxLagMs())).append("\n\n");
+        }
         txt.append("Overall Assessment: ").append(overallLevel(testResult)).append("\n");
         txt.append("Reliability: ").append(reliabilityComment(testResult)).append("\n");
         txt.append("Performance: ").append(performanceComment(testResult)).append("\n");
@@ -0,0 +1,195 @@
+package com.hoale.automation.performance.samplelog;
+
+import com.hoale.automation.performance.model.OutcomeBreakdown;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Every request of a run as a fixed-width binary record, written into memory-mapped
+ * segment files ({@code samples-00000.bin}, ...) for offline analysis with
+ * {@link SampleLogAnalyzer}. Each thread claims a chunk of {@value #CHUNK_RECORDS}
+ * records in the current segment and fills it with plain writes, so recording takes
+ * no lock, no atomic operation and no allocation; only claiming a chunk does.
+ *
+ * <p>Segment layout: a {@value #RECORD_BYTES}-byte header (magic, record size, run
+ * start in epoch milliseconds, records claimed) followed by records of
+ * {@value #RECORD_BYTES} bytes: offset from the run start and latency (nanoseconds),
+ * response bytes (-1 when unknown), endpoint id, status and flags. A status below zero
+ * is an error with no response, {@code -(category ordinal + 1)} of
+ * {@link OutcomeBreakdown.Category}. Chunks a thread did not fill stay zero and are
+ * skipped by readers, because their valid flag is not set.
+ *
+ * <p>Files are never truncated, so a worker still writing after {@link #close} cannot
+ * touch unmapped memory. On most file systems the unused tail of the last segment is
+ * sparse and takes no disk space.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 20:30:00 UTC
+ */
+public final class SampleLog implements Closeable {
+
+    public static final int MAGIC = 0x50534c31; // "PSL1"
+    public static final int RECORD_BYTES = 32;
+    public static final int HEADER_BYTES = RECORD_BYTES;
+    public static final int CHUNK_RECORDS = 256;
+
+    // Header fields
+    static final int HEADER_MAGIC = 0;
+    static final int HEADER_RECORD_BYTES = 4;
+    static final int HEADER_START_EPOCH_MILLIS = 8;
+    static final int HEADER_RECORDS = 16;
+
+    // Record fields
+    static final int OFFSET_NANOS = 0;
+    static final int LATENCY_NANOS = 8;
+    static final int BYTES = 16;
+    static final int ENDPOINT = 20;
+    static final int STATUS = 22;
+    static final int FLAGS = 24;
+
+    static final byte FLAG_VALID = 1;
+    static final byte FLAG_SUCCESS = 2;
+
+    private static final int CHUNK_BYTES = CHUNK_RECORDS * RECORD_BYTES;
+
+    private final Path directory;
+    private final int chunksPerSegment;
+    private final long startNanos;
+    private final long startEpochMillis;
+    private final ThreadLocal<Chunk> chunks = ThreadLocal.withInitial(Chunk::new);
+    private final List<Segment> segments = new ArrayList<>();
+    private volatile Segment current;
+    private volatile boolean closed;
+
+    /**
+     * @param segmentBytes     approximate size of each segment file
+     * @param startNanos       System.nanoTime at the run start; record offsets count from here
+     * @param startEpochMillis the same instant on the wall clock, for the analyzer's output
+     */
+    public SampleLog(Path directory, long segmentBytes, long startNanos, long startEpochMillis) throws IOException {
+        this.directory = directory;
+        this.chunksPerSegment = (int) Math.max(1, (segmentBytes - HEADER_BYTES) / CHUNK_BYTES);
+        this.startNanos = startNanos;
+        this.startEpochMillis = startEpochMillis;
+        Files.createDirectories(directory);
+        this.current = openSegment(0);
+    }
+
+    public Path getDirectory() { return directory; }
+
+    /**
+     * Appends one request; only the calling thread touches its chunk.
+     *
+     * @param plannedStartNanos System.nanoTime the request was meant to start
+     * @param status            response status, or 0 when {@code error} is set
+     * @param error             why no response came back, or null
+     * @param bytes             response body bytes, -1 when unknown
+     */
+    public void record(long plannedStartNanos, long latencyNanos, int endpoint, int status,
+                       OutcomeBreakdown.Category error, long bytes, boolean success) {
+        if (closed) {
+            return;
+        }
+        Chunk chunk = chunks.get();
+        if (chunk.used == CHUNK_RECORDS && !claim(chunk)) {
+            return;
+        }
+        ByteBuffer buffer = chunk.buffer;
+        int at = chunk.used * RECORD_BYTES;
+        buffer.putLong(at + OFFSET_NANOS, plannedStartNanos - startNanos);
+        buffer.putLong(at + LATENCY_NANOS, latencyNanos);
+        buffer.putInt(at + BYTES, (int) Math.min(bytes, Integer.MAX_VALUE));
+        buffer.putShort(at + ENDPOINT, (short) endpoint);
+        buffer.putShort(at + STATUS, (short) (error != null ? -(error.ordinal() + 1) : status));
+        buffer.put(at + FLAGS, (byte) (FLAG_VALID | (success ? FLAG_SUCCESS : 0)));
+        chunk.used++;
+    }
+
+    /** Points {@code chunk} at a fresh chunk, rolling over to a new segment when this one is full. */
+    private boolean claim(Chunk chunk) {
+        while (!closed) {
+            Segment segment = current;
+            int index = segment.claimed.getAndIncrement();
+            if (index < chunksPerSegment) {
+                chunk.buffer = segment.buffer.slice(HEADER_BYTES + index * CHUNK_BYTES, CHUNK_BYTES);
+                chunk.used = 0;
+                return true;
+            }
+            synchronized (this) {
+                if (current == segment && !closed) {
+                    try {
+                        current = openSegment(segment.index + 1);
+                    } catch (IOException e) {
+                        System.err.println("Sample log stopped: " + e.getMessage());
+                        closed = true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private synchronized Segment openSegment(int index) throws IOException {
+        Path file = directory.resolve(String.format("samples-%05d.bin", index));
+        long size = HEADER_BYTES + (long) chunksPerSegment * CHUNK_BYTES;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(HEADER_MAGIC, MAGIC);
+            buffer.putInt(HEADER_RECORD_BYTES, RECORD_BYTES);
+            buffer.putLong(HEADER_START_EPOCH_MILLIS, startEpochMillis);
+            Segment segment = new Segment(index, buffer);
+            segments.add(segment);
+            return segment;
+        }
+    }
+
+    /** Records written so far, counting whole claimed chunks. */
+    public synchronized long getClaimedRecords() {
+        long records = 0;
+        for (Segment segment : segments) {
+            records += (long) Math.min(segment.claimed.get(), chunksPerSegment) * CHUNK_RECORDS;
+        }
+        return records;
+    }
+
+    public synchronized int getSegmentCount() { return segments.size(); }
+
+    /** Stops recording, stores each segment's claimed record count and flushes to disk. */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (Segment segment : segments) {
+            segment.buffer.putLong(HEADER_RECORDS, (long) Math.min(segment.claimed.get(), chunksPerSegment) * CHUNK_RECORDS);
+            segment.buffer.force();
+        }
+    }
+
+    private static final class Segment {
+        final int index;
+        final MappedByteBuffer buffer;
+        final AtomicInteger claimed = new AtomicInteger();
+
+        Segment(int index, MappedByteBuffer buffer) {
+            this.index = index;
+            this.buffer = buffer;
+        }
+    }
+
+    /** A thread's current run of records; starts full so the first record claims one. */
+    private static final class Chunk {
+        ByteBuffer buffer;
+        int used = CHUNK_RECORDS;
+    }
+}
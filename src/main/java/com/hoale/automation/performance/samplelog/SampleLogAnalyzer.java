@@ -0,0 +1,411 @@
+package com.hoale.automation.performance.samplelog;
+
+import com.hoale.automation.performance.metrics.LatencyHistogram;
+import com.hoale.automation.performance.model.OutcomeBreakdown;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline analysis of a {@link SampleLog}: recomputes counts, percentiles, status and
+ * error breakdowns and a time series from the raw records, optionally filtered by
+ * endpoint, status, time window and latency. Segments are memory-mapped read-only
+ * and scanned by fork/join tasks over ranges of about a million records, each with
+ * its own partial result, so memory does not grow with the number of samples.
+ *
+ * <pre>
+ * java -cp ... com.hoale.automation.performance.Main analyze sample-logs/2026-10-18_20-30-00 \
+ *     --status 5xx --from 60 --to 120 --interval 5000
+ * </pre>
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 20:30:00 UTC
+ */
+public class SampleLogAnalyzer {
+
+    private static final int LEAF_RECORDS = 1 << 20;
+    private static final double[] PERCENTILES = {50, 75, 90, 95, 99, 99.9};
+    private static final OutcomeBreakdown.Category[] CATEGORIES = OutcomeBreakdown.Category.values();
+
+    private final Path directory;
+    // Filters; a negative endpoint, null status and unbounded window match everything
+    private int endpoint = -1;
+    private String status;
+    private long fromNanos = 0;
+    private long toNanos = Long.MAX_VALUE;
+    private long slowerThanNanos = -1;
+    private long intervalNanos = TimeUnit.SECONDS.toNanos(1);
+    private int precisionBits = 7;
+
+    public SampleLogAnalyzer(Path directory) {
+        this.directory = directory;
+    }
+
+    /** {@code <directory> [--endpoint id] [--status code|Nxx|ok|failed|error] [--from s] [--to s] [--slower-than ms] [--interval ms] [--precision bits]} */
+    public static SampleLogAnalyzer fromArgs(String[] args) {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Sample log directory is required");
+        }
+        SampleLogAnalyzer analyzer = new SampleLogAnalyzer(Path.of(args[0]));
+        for (int i = 1; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--endpoint":
+                    analyzer.endpoint = Integer.parseInt(value);
+                    break;
+                case "--status":
+                    if (!value.matches("\\d{3}|[1-5]xx|ok|failed|error")) {
+                        throw new IllegalArgumentException("--status must be a code, 1xx-5xx, ok, failed or error");
+                    }
+                    analyzer.status = value;
+                    break;
+                case "--from":
+                    analyzer.fromNanos = (long) (Double.parseDouble(value) * 1e9);
+                    break;
+                case "--to":
+                    analyzer.toNanos = (long) (Double.parseDouble(value) * 1e9);
+                    break;
+                case "--slower-than":
+                    analyzer.slowerThanNanos = (long) (Double.parseDouble(value) * 1e6);
+                    break;
+                case "--interval":
+                    analyzer.intervalNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(value));
+                    if (analyzer.intervalNanos <= 0) {
+                        throw new IllegalArgumentException("--interval must be > 0");
+                    }
+                    break;
+                case "--precision":
+                    analyzer.precisionBits = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        return analyzer;
+    }
+
+    /** Scans every segment in parallel and prints the result to {@code out}. */
+    public void analyze(PrintStream out) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "samples-*.bin")) {
+            stream.forEach(files::add);
+        }
+        if (files.isEmpty()) {
+            throw new IOException("No samples-*.bin segments in " + directory);
+        }
+        files.sort(null);
+
+        Filter filter = new Filter(endpoint, status, fromNanos, toNanos, slowerThanNanos, intervalNanos, precisionBits);
+        long startEpochMillis = 0;
+        List<Scan> scans = new ArrayList<>();
+        for (Path file : files) {
+            MappedByteBuffer segment;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            if (segment.getInt(SampleLog.HEADER_MAGIC) != SampleLog.MAGIC
+                    || segment.getInt(SampleLog.HEADER_RECORD_BYTES) != SampleLog.RECORD_BYTES) {
+                throw new IOException(file + " is not a sample log segment");
+            }
+            startEpochMillis = segment.getLong(SampleLog.HEADER_START_EPOCH_MILLIS);
+            long capacity = (segment.capacity() - SampleLog.HEADER_BYTES) / SampleLog.RECORD_BYTES;
+            // 0 when the run never closed the log (killed); scan the whole segment then
+            long claimed = segment.getLong(SampleLog.HEADER_RECORDS);
+            long records = claimed > 0 ? Math.min(claimed, capacity) : capacity;
+            scans.add(new Scan(filter, segment, 0, (int) records));
+        }
+
+        Summary total = ForkJoinPool.commonPool().invoke(new AllSegments(filter, scans));
+        print(out, files.size(), startEpochMillis, total);
+    }
+
+    private void print(PrintStream out, int segments, long startEpochMillis, Summary total) {
+        out.println("Sample log: " + directory + " (" + segments + " segments, run started "
+                + Instant.ofEpochMilli(startEpochMillis).atOffset(ZoneOffset.UTC).toLocalDateTime() + " UTC)");
+        out.println("Records: " + total.scanned + " scanned, " + total.matched + " matched");
+        if (total.matched == 0) {
+            return;
+        }
+        out.println(String.format("Failed: %d (%.2f%%)", total.failed, total.failed * 100.0 / total.matched));
+        StringBuilder line = new StringBuilder(String.format("Latency: mean %.2f ms,", total.latencySumNanos / 1e6 / total.matched));
+        for (double percentile : PERCENTILES) {
+            // A bucket's upper edge can lie past the slowest request; the exact max caps it
+            double ms = Math.min(total.latency.getValueAtPercentile(percentile) / 1000.0, total.maxLatencyNanos / 1e6);
+            line.append(String.format(" %s %.2f ms,", percentileLabel(percentile), ms));
+        }
+        out.println(line.append(String.format(" max %.2f ms", total.maxLatencyNanos / 1e6)));
+        if (total.bytesKnown > 0) {
+            out.println(String.format("Response bytes: avg %.0f over %d responses with a known size",
+                    (double) total.bytesSum / total.bytesKnown, total.bytesKnown));
+        }
+
+        line = new StringBuilder("Outcomes:");
+        for (int code = 0; code < total.statusCounts.length; code++) {
+            if (total.statusCounts[code] > 0) {
+                line.append(" ").append(code).append(" x ").append(total.statusCounts[code]).append(",");
+            }
+        }
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            if (total.errorCounts[i] > 0) {
+                line.append(" ").append(CATEGORIES[i].getLabel().toLowerCase()).append(" x ").append(total.errorCounts[i]).append(",");
+            }
+        }
+        out.println(line.substring(0, line.length() - 1));
+        if (total.endpointCounts.length > 1) {
+            line = new StringBuilder("Endpoints:");
+            for (int i = 0; i < total.endpointCounts.length; i++) {
+                if (total.endpointCounts[i] > 0) {
+                    line.append(" #").append(i).append(" x ").append(total.endpointCounts[i]).append(",");
+                }
+            }
+            out.println(line.substring(0, line.length() - 1));
+        }
+
+        out.println();
+        out.println(String.format("Time series (%d ms):", TimeUnit.NANOSECONDS.toMillis(intervalNanos)));
+        out.println(String.format("  %10s %10s %8s %12s %10s %10s", "Time (s)", "Requests", "Failed", "Req/s", "Mean (ms)", "Max (ms)"));
+        double intervalSeconds = intervalNanos / 1e9;
+        for (int i = 0; i < total.intervalCounts.length; i++) {
+            long count = total.intervalCounts[i];
+            if (count == 0) {
+                continue;
+            }
+            out.println(String.format("  %10.1f %10d %8d %12.2f %10.2f %10.2f", i * intervalSeconds, count, total.intervalFailed[i],
+                    count / intervalSeconds, total.intervalLatencySumNanos[i] / 1e6 / count, total.intervalMaxNanos[i] / 1e6));
+        }
+    }
+
+    private static String percentileLabel(double percentile) {
+        return percentile == Math.rint(percentile) ? "p" + (int) percentile : "p" + percentile;
+    }
+
+    /** The options of one analysis, fixed before the scan tasks start. */
+    private static final class Filter {
+        final int endpoint;
+        final String status;
+        final long fromNanos;
+        final long toNanos;
+        final long slowerThanNanos;
+        final long intervalNanos;
+        final int precisionBits;
+
+        Filter(int endpoint, String status, long fromNanos, long toNanos, long slowerThanNanos, long intervalNanos, int precisionBits) {
+            this.endpoint = endpoint;
+            this.status = status;
+            this.fromNanos = fromNanos;
+            this.toNanos = toNanos;
+            this.slowerThanNanos = slowerThanNanos;
+            this.intervalNanos = intervalNanos;
+            this.precisionBits = precisionBits;
+        }
+
+        boolean matches(MappedByteBuffer segment, int at) {
+            long offset = segment.getLong(at + SampleLog.OFFSET_NANOS);
+            if (offset < fromNanos || offset >= toNanos) {
+                return false;
+            }
+            if (endpoint >= 0 && segment.getShort(at + SampleLog.ENDPOINT) != endpoint) {
+                return false;
+            }
+            if (slowerThanNanos >= 0 && segment.getLong(at + SampleLog.LATENCY_NANOS) <= slowerThanNanos) {
+                return false;
+            }
+            if (status == null) {
+                return true;
+            }
+            int code = segment.getShort(at + SampleLog.STATUS);
+            boolean success = (segment.get(at + SampleLog.FLAGS) & SampleLog.FLAG_SUCCESS) != 0;
+            switch (status) {
+                case "ok":
+                    return success;
+                case "failed":
+                    return !success;
+                case "error":
+                    return code < 0;
+                default:
+                    return status.endsWith("xx") ? code / 100 == status.charAt(0) - '0' : code == Integer.parseInt(status);
+            }
+        }
+    }
+
+    /** Runs one scan per segment, each of which splits further, and merges them. */
+    private static final class AllSegments extends RecursiveTask<Summary> {
+        private static final long serialVersionUID = 1L;
+
+        private final Filter filter;
+        private final List<Scan> scans;
+
+        AllSegments(Filter filter, List<Scan> scans) {
+            this.filter = filter;
+            this.scans = scans;
+        }
+
+        @Override
+        protected Summary compute() {
+            Summary total = new Summary(filter.precisionBits);
+            for (Scan scan : invokeAll(scans)) {
+                total.merge(scan.join());
+            }
+            return total;
+        }
+    }
+
+    /** Records [from, to) of one segment. */
+    private static final class Scan extends RecursiveTask<Summary> {
+        private static final long serialVersionUID = 1L;
+
+        private final Filter filter;
+        private final MappedByteBuffer segment;
+        private final int from;
+        private final int to;
+
+        Scan(Filter filter, MappedByteBuffer segment, int from, int to) {
+            this.filter = filter;
+            this.segment = segment;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Summary compute() {
+            if (to - from > LEAF_RECORDS) {
+                int middle = (from + to) >>> 1;
+                Scan right = new Scan(filter, segment, middle, to);
+                right.fork();
+                Summary left = new Scan(filter, segment, from, middle).compute();
+                left.merge(right.join());
+                return left;
+            }
+            Summary summary = new Summary(filter.precisionBits);
+            for (int i = from; i < to; i++) {
+                int at = SampleLog.HEADER_BYTES + i * SampleLog.RECORD_BYTES;
+                if ((segment.get(at + SampleLog.FLAGS) & SampleLog.FLAG_VALID) == 0) {
+                    continue;
+                }
+                summary.scanned++;
+                if (filter.matches(segment, at)) {
+                    summary.add(segment, at, filter.intervalNanos);
+                }
+            }
+            return summary;
+        }
+    }
+
+    /** Partial result of one range; ranges merge by adding. */
+    private static final class Summary {
+        final LatencyHistogram latency;
+        long scanned;
+        long matched;
+        long failed;
+        long latencySumNanos;
+        long maxLatencyNanos;
+        long bytesSum;
+        long bytesKnown;
+        final long[] statusCounts = new long[600];
+        final long[] errorCounts = new long[CATEGORIES.length];
+        long[] endpointCounts = new long[1];
+        long[] intervalCounts = new long[0];
+        long[] intervalFailed = new long[0];
+        long[] intervalLatencySumNanos = new long[0];
+        long[] intervalMaxNanos = new long[0];
+
+        Summary(int precisionBits) {
+            this.latency = new LatencyHistogram(precisionBits);
+        }
+
+        void add(MappedByteBuffer segment, int at, long intervalNanos) {
+            long latencyNanos = segment.getLong(at + SampleLog.LATENCY_NANOS);
+            boolean success = (segment.get(at + SampleLog.FLAGS) & SampleLog.FLAG_SUCCESS) != 0;
+            int code = segment.getShort(at + SampleLog.STATUS);
+            int endpoint = segment.getShort(at + SampleLog.ENDPOINT);
+            int bytes = segment.getInt(at + SampleLog.BYTES);
+
+            matched++;
+            latency.recordSingleWriter(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+            latencySumNanos += latencyNanos;
+            maxLatencyNanos = Math.max(maxLatencyNanos, latencyNanos);
+            if (!success) {
+                failed++;
+            }
+            if (bytes >= 0) {
+                bytesSum += bytes;
+                bytesKnown++;
+            }
+            if (code < 0) {
+                errorCounts[Math.min(-code - 1, CATEGORIES.length - 1)]++;
+            } else if (code < statusCounts.length) {
+                statusCounts[code]++;
+            }
+            if (endpoint >= endpointCounts.length) {
+                endpointCounts = Arrays.copyOf(endpointCounts, endpoint + 1);
+            }
+            endpointCounts[Math.max(0, endpoint)]++;
+
+            int interval = (int) (Math.max(0, segment.getLong(at + SampleLog.OFFSET_NANOS)) / intervalNanos);
+            growIntervals(interval + 1);
+            intervalCounts[interval]++;
+            if (!success) {
+                intervalFailed[interval]++;
+            }
+            intervalLatencySumNanos[interval] += latencyNanos;
+            intervalMaxNanos[interval] = Math.max(intervalMaxNanos[interval], latencyNanos);
+        }
+
+        private void growIntervals(int size) {
+            if (size > intervalCounts.length) {
+                int grown = Math.max(size, intervalCounts.length * 2);
+                intervalCounts = Arrays.copyOf(intervalCounts, grown);
+                intervalFailed = Arrays.copyOf(intervalFailed, grown);
+                intervalLatencySumNanos = Arrays.copyOf(intervalLatencySumNanos, grown);
+                intervalMaxNanos = Arrays.copyOf(intervalMaxNanos, grown);
+            }
+        }
+
+        void merge(Summary other) {
+            latency.merge(other.latency);
+            scanned += other.scanned;
+            matched += other.matched;
+            failed += other.failed;
+            latencySumNanos += other.latencySumNanos;
+            maxLatencyNanos = Math.max(maxLatencyNanos, other.maxLatencyNanos);
+            bytesSum += other.bytesSum;
+            bytesKnown += other.bytesKnown;
+            for (int i = 0; i < statusCounts.length; i++) {
+                statusCounts[i] += other.statusCounts[i];
+            }
+            for (int i = 0; i < errorCounts.length; i++) {
+                errorCounts[i] += other.errorCounts[i];
+            }
+            if (other.endpointCounts.length > endpointCounts.length) {
+                endpointCounts = Arrays.copyOf(endpointCounts, other.endpointCounts.length);
+            }
+            for (int i = 0; i < other.endpointCounts.length; i++) {
+                endpointCounts[i] += other.endpointCounts[i];
+            }
+            growIntervals(other.intervalCounts.length);
+            for (int i = 0; i < other.intervalCounts.length; i++) {
+                intervalCounts[i] += other.intervalCounts[i];
+                intervalFailed[i] += other.intervalFailed[i];
+                intervalLatencySumNanos[i] += other.intervalLatencySumNanos[i];
+                intervalMaxNanos[i] = Math.max(intervalMaxNanos[i], other.intervalMaxNanos[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.hoale.automation.performance.scenario;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Weighted mix of independent endpoints driven by one run. Every request picks an
+ * endpoint at random in proportion to its weight, so the endpoints compete for the
+ * server at the same time as they would in production. Endpoints take the same
+ * keys as scenario steps ({@code url}, {@code method}, {@code header.*},
+ * {@code body}, {@code expectStatus}); the url defaults to targetUrl.
+ *
+ * <pre>
+ * mix=usersGet:70,usersPost:20,info:10
+ * endpoint.usersGet.url=http://localhost:8080/api/users/${iteration}
+ * endpoint.usersPost.method=POST
+ * endpoint.usersPost.url=http://localhost:8080/api/users
+ * endpoint.usersPost.body={"name":"user-${userId}"}
+ * endpoint.info.url=http://localhost:8080/api/info
+ * </pre>
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 17:00:00 UTC
+ */
+public class EndpointMix {
+
+    private final List<Scenario.Step> endpoints;
+    private final int[] weights;
+    // Running sum of the weights; a uniform draw below totalWeight falls into exactly one slot
+    private final int[] cumulative;
+    private final int totalWeight;
+
+    private EndpointMix(List<Scenario.Step> endpoints, int[] weights) {
+        this.endpoints = Collections.unmodifiableList(endpoints);
+        this.weights = weights;
+        this.cumulative = new int[weights.length];
+        int sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+        this.totalWeight = sum;
+    }
+
+    /** @return the mix declared by {@code mix}, or null when there is none */
+    public static EndpointMix fromProperties(Properties props, String defaultUrl) {
+        String entries = props.getProperty("mix", "").trim();
+        if (entries.isEmpty()) {
+            return null;
+        }
+        List<Scenario.Step> endpoints = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (String entry : entries.split(",")) {
+            String[] nameWeight = entry.trim().split(":");
+            if (nameWeight.length != 2) {
+                throw new IllegalArgumentException("mix entries must be name:weight, got: " + entry.trim());
+            }
+            String name = nameWeight[0].trim();
+            int weight = Integer.parseInt(nameWeight[1].trim());
+            if (weight <= 0) {
+                throw new IllegalArgumentException("mix weight for " + name + " must be > 0");
+            }
+            String prefix = "endpoint." + name + ".";
+            String url = props.getProperty(prefix + "url", defaultUrl);
+            if (url == null) {
+                throw new IllegalArgumentException("Missing " + prefix + "url for mix endpoint " + name);
+            }
+            endpoints.add(Scenario.step(props, name, prefix, props.getProperty(prefix + "method", "GET"), url,
+                    props.getProperty(prefix + "body")));
+            weights.add(weight);
+        }
+        return new EndpointMix(endpoints, weights.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /** Picks the index of the next endpoint; no allocation, safe from any thread. */
+    public int select() {
+        int draw = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (int i = 0; i < cumulative.length - 1; i++) {
+            if (draw < cumulative[i]) {
+                return i;
+            }
+        }
+        return cumulative.length - 1;
+    }
+
+    public List<Scenario.Step> getEndpoints() { return endpoints; }
+    public Scenario.Step getEndpoint(int index) { return endpoints.get(index); }
+    public int size() { return endpoints.size(); }
+
+    /** Configured share of requests for endpoint {@code index}, in percent. */
+    public double getShare(int index) {
+        return weights[index] * 100.0 / totalWeight;
+    }
+}
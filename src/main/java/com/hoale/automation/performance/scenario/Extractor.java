@@ -0,0 +1,199 @@
+package com.hoale.automation.performance.scenario;
+
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.Header;
+
+/**
+ * Copies one value out of a step's response into a scenario variable.
+ *
+ * <pre>
+ * step.create.extract.id=json:id            # top-level field
+ * step.create.extract.city=json:address.city # nested field
+ * step.create.extract.location=header:Location
+ * </pre>
+ *
+ * JSON fields are found by scanning the body in place rather than parsing it into
+ * a tree, so extraction allocates nothing but the extracted string.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 13:00:00 UTC
+ */
+public class Extractor {
+
+    private final String variable;
+    private final String header;
+    private final String[] jsonPath;
+
+    private Extractor(String variable, String header, String[] jsonPath) {
+        this.variable = variable;
+        this.header = header;
+        this.jsonPath = jsonPath;
+    }
+
+    public static Extractor parse(String variable, String spec) {
+        spec = spec.trim();
+        if (spec.startsWith("json:")) {
+            String path = spec.substring("json:".length()).trim();
+            if (path.isEmpty()) {
+                throw new IllegalArgumentException("Empty JSON path for variable " + variable);
+            }
+            return new Extractor(variable, null, path.split("\\."));
+        }
+        if (spec.startsWith("header:")) {
+            return new Extractor(variable, spec.substring("header:".length()).trim(), null);
+        }
+        throw new IllegalArgumentException("Unknown extractor for " + variable + ": " + spec + " (expected json:<path> or header:<name>)");
+    }
+
+    public String getVariable() { return variable; }
+
+    public boolean needsBody() { return jsonPath != null; }
+
+    /** @return the value, or null when the response does not contain it */
+    public String extract(ClassicHttpResponse response, String body) {
+        if (header != null) {
+            Header h = response.getFirstHeader(header);
+            return h != null ? h.getValue() : null;
+        }
+        return body != null ? jsonField(body, jsonPath) : null;
+    }
+
+    /**
+     * Finds the value at {@code path} (object keys only). Strings are unescaped,
+     * other scalars returned as written, objects and arrays as raw JSON text.
+     */
+    static String jsonField(String json, String[] path) {
+        int pos = skipWhitespace(json, 0);
+        for (String key : path) {
+            if (pos >= json.length() || json.charAt(pos) != '{') {
+                return null;
+            }
+            pos = findKey(json, pos, key);
+            if (pos < 0) {
+                return null;
+            }
+        }
+        return valueAt(json, pos);
+    }
+
+    /** @return position of the value of {@code key} in the object starting at {@code pos}, or -1 */
+    private static int findKey(String json, int pos, String key) {
+        pos = skipWhitespace(json, pos + 1);
+        while (pos < json.length() && json.charAt(pos) == '"') {
+            int end = skipString(json, pos);
+            boolean match = end - pos - 2 == key.length() && json.regionMatches(pos + 1, key, 0, key.length());
+            pos = skipWhitespace(json, end);
+            if (pos >= json.length() || json.charAt(pos) != ':') {
+                return -1;
+            }
+            pos = skipWhitespace(json, pos + 1);
+            if (match) {
+                return pos;
+            }
+            pos = skipWhitespace(json, skipValue(json, pos));
+            if (pos >= json.length() || json.charAt(pos) != ',') {
+                return -1;
+            }
+            pos = skipWhitespace(json, pos + 1);
+        }
+        return -1;
+    }
+
+    private static String valueAt(String json, int pos) {
+        if (pos >= json.length()) {
+            return null;
+        }
+        char c = json.charAt(pos);
+        int end = skipValue(json, pos);
+        if (c == '"') {
+            return unescape(json, pos + 1, end - 1);
+        }
+        if (c == '{' || c == '[') {
+            return json.substring(pos, end);
+        }
+        String literal = json.substring(pos, end).trim();
+        return "null".equals(literal) ? null : literal;
+    }
+
+    private static int skipValue(String json, int pos) {
+        char c = json.charAt(pos);
+        if (c == '"') {
+            return skipString(json, pos);
+        }
+        if (c == '{' || c == '[') {
+            int depth = 0;
+            while (pos < json.length()) {
+                c = json.charAt(pos);
+                if (c == '"') {
+                    pos = skipString(json, pos);
+                    continue;
+                }
+                if (c == '{' || c == '[') {
+                    depth++;
+                } else if ((c == '}' || c == ']') && --depth == 0) {
+                    return pos + 1;
+                }
+                pos++;
+            }
+            return pos;
+        }
+        while (pos < json.length() && ",}] \t\r\n".indexOf(json.charAt(pos)) < 0) {
+            pos++;
+        }
+        return pos;
+    }
+
+    /** @return position just after the closing quote of the string starting at {@code pos} */
+    private static int skipString(String json, int pos) {
+        pos++;
+        while (pos < json.length()) {
+            char c = json.charAt(pos);
+            if (c == '\\') {
+                pos += 2;
+            } else if (c == '"') {
+                return pos + 1;
+            } else {
+                pos++;
+            }
+        }
+        return pos;
+    }
+
+    private static int skipWhitespace(String json, int pos) {
+        while (pos < json.length() && Character.isWhitespace(json.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static String unescape(String json, int start, int end) {
+        int backslash = json.indexOf('\\', start);
+        if (backslash < 0 || backslash >= end) {
+            return json.substring(start, end);
+        }
+        StringBuilder out = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = json.charAt(i);
+            if (c != '\\' || i + 1 >= end) {
+                out.append(c);
+                continue;
+            }
+            char next = json.charAt(++i);
+            switch (next) {
+                case 'n': out.append('\n'); break;
+                case 't': out.append('\t'); break;
+                case 'r': out.append('\r'); break;
+                case 'b': out.append('\b'); break;
+                case 'f': out.append('\f'); break;
+                case 'u':
+                    if (i + 4 < end) {
+                        out.append((char) Integer.parseInt(json.substring(i + 1, i + 5), 16));
+                        i += 4;
+                    }
+                    break;
+                default: out.append(next);
+            }
+        }
+        return out.toString();
+    }
+}
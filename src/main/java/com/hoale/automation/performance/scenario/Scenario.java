@@ -0,0 +1,174 @@
+package com.hoale.automation.performance.scenario;
+
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.message.BasicHeader;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Ordered list of HTTP steps a virtual user runs as one transaction. Values
+ * extracted from a response are available to later steps as {@code ${name}};
+ * {@code ${userId}} and {@code ${iteration}} are always defined.
+ *
+ * <pre>
+ * scenario=create,fetch
+ * step.create.method=POST
+ * step.create.url=http://localhost:8080/api/users
+ * step.create.header.Content-Type=application/json
+ * step.create.body={"name":"user-${userId}-${iteration}"}
+ * step.create.expectStatus=201
+ * step.create.extract.id=json:id
+ * step.fetch.url=http://localhost:8080/api/users/${id}
+ * </pre>
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 13:00:00 UTC
+ */
+public class Scenario {
+
+    public static final List<String> METHODS = List.of("GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS");
+
+    private final List<Step> steps;
+
+    private Scenario(List<Step> steps) {
+        this.steps = Collections.unmodifiableList(steps);
+    }
+
+    /** @return the scenario declared by {@code scenario}, or null to run the single targetUrl */
+    public static Scenario fromProperties(Properties props, String defaultUrl) {
+        String names = props.getProperty("scenario", "").trim();
+        if (names.isEmpty()) {
+            return null;
+        }
+        List<Step> steps = new ArrayList<>();
+        for (String name : names.split(",")) {
+            name = name.trim();
+            String prefix = "step." + name + ".";
+            String url = props.getProperty(prefix + "url", defaultUrl);
+            if (url == null) {
+                throw new IllegalArgumentException("Missing " + prefix + "url for scenario step " + name);
+            }
+            steps.add(step(props, name, prefix, props.getProperty(prefix + "method", "GET"), url,
+                    props.getProperty(prefix + "body")));
+        }
+        return new Scenario(steps);
+    }
+
+    /**
+     * The request sent when no scenario is configured: {@code httpMethod} to {@code targetUrl},
+     * with {@code header.<name>}, {@code requestBody} (or {@code requestBodyFile}) and {@code expectStatus}.
+     */
+    public static Step singleRequest(Properties props, String targetUrl, String httpMethod) {
+        String body = props.getProperty("requestBody");
+        String bodyFile = props.getProperty("requestBodyFile");
+        if (body == null && bodyFile != null) {
+            try {
+                body = new String(Files.readAllBytes(Paths.get(bodyFile.trim())), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot read requestBodyFile " + bodyFile + ": " + e.getMessage());
+            }
+        }
+        return step(props, "request", "", httpMethod, targetUrl, body);
+    }
+
+    static Step step(Properties props, String name, String prefix, String method, String url, String body) {
+        Map<String, Template> headers = new LinkedHashMap<>();
+        List<Extractor> extractors = new ArrayList<>();
+        for (String key : props.stringPropertyNames()) {
+            if (key.startsWith(prefix + "header.")) {
+                headers.put(key.substring((prefix + "header.").length()), Template.compile(props.getProperty(key)));
+            } else if (key.startsWith(prefix + "extract.")) {
+                extractors.add(Extractor.parse(key.substring((prefix + "extract.").length()), props.getProperty(key)));
+            }
+        }
+        method = method.trim().toUpperCase();
+        if (!METHODS.contains(method)) {
+            throw new IllegalArgumentException("Unsupported HTTP method for " + name + ": " + method + " (expected one of " + METHODS + ")");
+        }
+        return new Step(name, method, Template.compile(url.trim()),
+                body != null ? Template.compile(body) : null,
+                headers,
+                extractors,
+                Integer.parseInt(props.getProperty(prefix + "expectStatus", "0").trim()));
+    }
+
+    public List<Step> getSteps() { return steps; }
+
+    public static class Step {
+        private final String name;
+        private final String method;
+        private final Template url;
+        private final Template body;
+        private final Map<String, Template> headers;
+        private final List<Extractor> extractors;
+        private final int expectStatus;
+        private final boolean needsBody;
+        // Precomputed when the parts are constant, so building a request only wraps shared objects
+        private final URI uri;
+        private final ContentType contentType;
+        private final List<Header> constantHeaders = new ArrayList<>();
+        private final Map<String, Template> variableHeaders = new LinkedHashMap<>();
+
+        Step(String name, String method, Template url, Template body, Map<String, Template> headers,
+             List<Extractor> extractors, int expectStatus) {
+            this.name = name;
+            this.method = method;
+            this.url = url;
+            this.body = body;
+            this.headers = Collections.unmodifiableMap(headers);
+            this.extractors = Collections.unmodifiableList(extractors);
+            this.expectStatus = expectStatus;
+            this.needsBody = extractors.stream().anyMatch(Extractor::needsBody);
+            this.uri = url.isConstant() ? URI.create(url.render(Collections.emptyMap())) : null;
+
+            ContentType type = body != null ? ContentType.TEXT_PLAIN : null;
+            for (Map.Entry<String, Template> header : headers.entrySet()) {
+                Template value = header.getValue();
+                if (!value.isConstant()) {
+                    variableHeaders.put(header.getKey(), value);
+                } else if ("Content-Type".equalsIgnoreCase(header.getKey())) {
+                    // Sent by the entity; a header as well would be a duplicate
+                    type = ContentType.parse(value.render(Collections.emptyMap()));
+                } else {
+                    constantHeaders.add(new BasicHeader(header.getKey(), value.render(Collections.emptyMap())));
+                }
+            }
+            this.contentType = type;
+        }
+
+        public String getName() { return name; }
+        public String getMethod() { return method; }
+        public Template getUrl() { return url; }
+        public Template getBody() { return body; }
+        public Map<String, Template> getHeaders() { return headers; }
+        public List<Extractor> getExtractors() { return extractors; }
+        /** Parsed URL when it has no variables, else null. */
+        public URI getUri() { return uri; }
+        /** Content type for the body, from a constant Content-Type header or text/plain. */
+        public ContentType getContentType() { return contentType; }
+        public List<Header> getConstantHeaders() { return constantHeaders; }
+        public Map<String, Template> getVariableHeaders() { return variableHeaders; }
+        /** True when URL, headers and body have no variables. */
+        public boolean isConstant() {
+            return uri != null && variableHeaders.isEmpty() && (body == null || body.isConstant());
+        }
+        /** True when the response body has to be read for a JSON extraction. */
+        public boolean needsBody() { return needsBody; }
+
+        /** The expected status, or any 2xx when none is configured. */
+        public boolean isSuccess(int statusCode) {
+            return expectStatus > 0 ? statusCode == expectStatus : statusCode >= 200 && statusCode < 300;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.hoale.automation.performance.scenario;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Text with {@code ${name}} variable slots, compiled once when the config is loaded.
+ * Literals are kept as UTF-8 byte arrays so a request body is rendered by copying
+ * them, and the slot values, into a reused {@link Buffer}; a template without slots
+ * hands out its bytes directly and renders nothing at all.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 13:00:00 UTC
+ */
+public class Template {
+
+    private final String source;
+    private final byte[] sourceBytes;
+    // literals.length == variables.length + 1; rendering interleaves them
+    private final String[] literals;
+    private final byte[][] literalBytes;
+    private final String[] variables;
+
+    private Template(String source, String[] literals, String[] variables) {
+        this.source = source;
+        this.sourceBytes = source.getBytes(StandardCharsets.UTF_8);
+        this.literals = literals;
+        this.variables = variables;
+        this.literalBytes = new byte[literals.length][];
+        for (int i = 0; i < literals.length; i++) {
+            literalBytes[i] = literals[i].getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    public static Template compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        int pos = 0;
+        int open;
+        while ((open = source.indexOf("${", pos)) >= 0) {
+            int close = source.indexOf('}', open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed ${ in template: " + source);
+            }
+            literals.add(source.substring(pos, open));
+            variables.add(source.substring(open + 2, close).trim());
+            pos = close + 1;
+        }
+        literals.add(source.substring(pos));
+        return new Template(source, literals.toArray(new String[0]), variables.toArray(new String[0]));
+    }
+
+    public boolean isConstant() {
+        return variables.length == 0;
+    }
+
+    /**
+     * @throws IllegalStateException when a slot has no value, e.g. an earlier extraction found nothing
+     */
+    public String render(Map<String, String> values) {
+        if (isConstant()) {
+            return source;
+        }
+        StringBuilder out = new StringBuilder(source.length() + 16 * variables.length);
+        for (int i = 0; i < variables.length; i++) {
+            out.append(literals[i]).append(valueOf(values, i));
+        }
+        return out.append(literals[variables.length]).toString();
+    }
+
+    /** UTF-8 bytes of a constant template; shared, never modify. */
+    public byte[] constantBytes() {
+        if (!isConstant()) {
+            throw new IllegalStateException("Template has variables: " + source);
+        }
+        return sourceBytes;
+    }
+
+    /**
+     * Renders into {@code buffer} (after resetting it) as UTF-8.
+     *
+     * @throws IllegalStateException when a slot has no value
+     */
+    public void renderTo(Map<String, String> values, Buffer buffer) {
+        buffer.reset();
+        for (int i = 0; i < variables.length; i++) {
+            buffer.write(literalBytes[i]);
+            buffer.writeUtf8(valueOf(values, i));
+        }
+        buffer.write(literalBytes[variables.length]);
+    }
+
+    private String valueOf(Map<String, String> values, int slot) {
+        String value = values.get(variables[slot]);
+        if (value == null) {
+            throw new IllegalStateException("No value for ${" + variables[slot] + "}");
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    /** Growable byte array reused across renders by one thread. */
+    public static class Buffer {
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        public void reset() {
+            size = 0;
+        }
+
+        public byte[] array() { return bytes; }
+
+        public int size() { return size; }
+
+        void write(byte[] src) {
+            ensure(src.length);
+            System.arraycopy(src, 0, bytes, size, src.length);
+            size += src.length;
+        }
+
+        void writeUtf8(String value) {
+            ensure(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c >= 0x80) {
+                    // Rare non-ASCII value: fall back to the encoder for the remainder
+                    write(value.substring(i).getBytes(StandardCharsets.UTF_8));
+                    return;
+                }
+                bytes[size++] = (byte) c;
+            }
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+}
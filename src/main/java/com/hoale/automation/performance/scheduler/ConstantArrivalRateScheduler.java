@@ -0,0 +1,48 @@
+package com.hoale.automation.performance.scheduler;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Open-model scheduler: releases requests at a fixed arrival rate, independent of
+ * how fast the server answers. Each dispatch receives its planned send time
+ * (System.nanoTime based) so latency can be measured from when the request
+ * should have been sent, not from when a free thread finally sent it.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 09:00:00 UTC
+ */
+public class ConstantArrivalRateScheduler {
+
+    private final double ratePerSecond;
+
+    public ConstantArrivalRateScheduler(double ratePerSecond) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("ratePerSecond must be > 0");
+        }
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    /**
+     * Dispatches up to {@code maxRequests} requests, stopping early once the next
+     * planned send time is past the run's deadline or the run is stopped.
+     *
+     * @return number of requests dispatched
+     */
+    public long run(long maxRequests, RunControl control, LongConsumer dispatcher) throws InterruptedException {
+        long start = System.nanoTime();
+        long dispatched = 0;
+
+        while (dispatched < maxRequests) {
+            // Computed from the start time rather than accumulated, so the schedule never drifts
+            long plannedNanos = start + (long) (dispatched * 1_000_000_000.0 / ratePerSecond);
+            if (!control.awaitUntil(plannedNanos)) {
+                break;
+            }
+            dispatcher.accept(plannedNanos);
+            dispatched++;
+        }
+        return dispatched;
+    }
+
+    public double getRatePerSecond() { return ratePerSecond; }
+}
@@ -0,0 +1,225 @@
+package com.hoale.automation.performance.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Staged load profile: an ordered list of stages, each holding or linearly ramping
+ * the number of active users and the arrival rate from the previous stage's level.
+ * Step increases, spikes and soak plateaus are all sequences of such stages.
+ *
+ * <pre>
+ * loadProfile=warmup,step,spike,soak
+ * stage.warmup.duration=30     # seconds
+ * stage.warmup.users=10        # closed model: active users at the end of the stage
+ * stage.warmup.rate=50         # open model: arrival rate (req/s) at the end of the stage
+ * stage.warmup.ramp=true       # ramp linearly from the previous level (default: jump)
+ * </pre>
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 11:00:00 UTC
+ */
+public class LoadProfile {
+
+    private final List<Stage> stages;
+    private final boolean timeBounded;
+    private final long totalDurationNanos;
+
+    private LoadProfile(List<Stage> stages, boolean timeBounded) {
+        this.stages = Collections.unmodifiableList(stages);
+        this.timeBounded = timeBounded;
+        this.totalDurationNanos = stages.isEmpty() ? 0 : stages.get(stages.size() - 1).endNanos;
+    }
+
+    /**
+     * Builds the profile declared by {@code loadProfile}, or an implicit ramp-up
+     * followed by a steady stage when only {@code rampUpTime} is set.
+     *
+     * @return the profile, or null when the run has neither stages nor ramp-up
+     */
+    public static LoadProfile fromProperties(Properties props, int threadCount, double targetRate,
+                                             int rampUpTime, int testDuration) {
+        String names = props.getProperty("loadProfile", "").trim();
+        if (!names.isEmpty()) {
+            Builder builder = new Builder();
+            for (String name : names.split(",")) {
+                name = name.trim();
+                String prefix = "stage." + name + ".";
+                String duration = props.getProperty(prefix + "duration");
+                if (duration == null) {
+                    throw new IllegalArgumentException("Missing " + prefix + "duration for load profile stage " + name);
+                }
+                builder.stage(name,
+                        Integer.parseInt(duration.trim()),
+                        Integer.parseInt(props.getProperty(prefix + "users", String.valueOf(threadCount)).trim()),
+                        Double.parseDouble(props.getProperty(prefix + "rate", String.valueOf(targetRate)).trim()),
+                        Boolean.parseBoolean(props.getProperty(prefix + "ramp", "false").trim()));
+            }
+            return builder.build(true);
+        }
+        if (rampUpTime > 0) {
+            // Implicit profile: keeps the iteration-bounded behaviour, only staggers the start
+            return new Builder()
+                    .stage("ramp-up", rampUpTime, threadCount, targetRate, true)
+                    .stage("steady", Math.max(1, testDuration - rampUpTime), threadCount, targetRate, false)
+                    .build(false);
+        }
+        return null;
+    }
+
+    public List<Stage> getStages() { return stages; }
+
+    /** True when the profile's duration, not requestsPerThread, decides when users stop. */
+    public boolean isTimeBounded() { return timeBounded; }
+
+    public long getTotalDurationNanos() { return totalDurationNanos; }
+
+    public int getMaxUsers() {
+        int max = 0;
+        for (Stage stage : stages) {
+            max = Math.max(max, stage.users);
+        }
+        return max;
+    }
+
+    /** Index of the stage running at {@code elapsedNanos} since the profile started (last stage once over). */
+    public int stageIndexAt(long elapsedNanos) {
+        for (int i = 0; i < stages.size(); i++) {
+            if (elapsedNanos < stages.get(i).endNanos) {
+                return i;
+            }
+        }
+        return stages.size() - 1;
+    }
+
+    public int usersAt(long elapsedNanos) {
+        if (elapsedNanos >= totalDurationNanos) {
+            return 0;
+        }
+        Stage stage = stages.get(stageIndexAt(elapsedNanos));
+        return (int) Math.floor(stage.levelAt(stage.startUsers, stage.users, elapsedNanos) + 1e-9);
+    }
+
+    public double rateAt(long elapsedNanos) {
+        if (elapsedNanos >= totalDurationNanos) {
+            return 0;
+        }
+        Stage stage = stages.get(stageIndexAt(elapsedNanos));
+        return stage.levelAt(stage.startRate, stage.rate, elapsedNanos);
+    }
+
+    /**
+     * How long user {@code userIndex} (0-based) must wait, from {@code elapsedNanos},
+     * until the profile has at least {@code userIndex + 1} users active.
+     *
+     * @return 0 if already active, -1 if the user never becomes active again
+     */
+    public long nanosUntilActive(int userIndex, long elapsedNanos) {
+        for (int i = stageIndexAt(elapsedNanos); i < stages.size() && elapsedNanos < totalDurationNanos; i++) {
+            Stage stage = stages.get(i);
+            long from = Math.max(elapsedNanos, stage.startNanos);
+            if (usersAt(from) > userIndex) {
+                return from - elapsedNanos;
+            }
+            if (stage.ramp && stage.users > stage.startUsers && stage.users > userIndex) {
+                double fraction = (userIndex + 1 - stage.startUsers) / (double) (stage.users - stage.startUsers);
+                long at = stage.startNanos + (long) Math.ceil(fraction * stage.durationNanos);
+                if (at < stage.endNanos) {
+                    return Math.max(0, at - elapsedNanos);
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Planned send time of arrival number {@code index} (0-based), as nanos since the
+     * profile started: the moment the integral of the rate curve reaches index + 1.
+     *
+     * @return the planned offset, or -1 if the profile ends first
+     */
+    public long arrivalOffsetNanos(long index) {
+        double needed = index + 1;
+        for (Stage stage : stages) {
+            double seconds = stage.durationNanos / 1e9;
+            double arrivals = (stage.startRate + stage.rate) / 2 * seconds;
+            if (needed <= arrivals) {
+                double slope = (stage.rate - stage.startRate) / seconds;
+                double tau;
+                if (Math.abs(slope) < 1e-12) {
+                    tau = needed / stage.rate;
+                } else {
+                    // startRate * tau + slope / 2 * tau^2 = needed
+                    tau = (-stage.startRate + Math.sqrt(stage.startRate * stage.startRate + 2 * slope * needed)) / slope;
+                }
+                return stage.startNanos + (long) (tau * 1e9);
+            }
+            needed -= arrivals;
+        }
+        return -1;
+    }
+
+    public static class Stage {
+        private final String name;
+        private final long startNanos;
+        private final long durationNanos;
+        private final long endNanos;
+        private final int startUsers;
+        private final int users;
+        private final double startRate;
+        private final double rate;
+        private final boolean ramp;
+
+        Stage(String name, long startNanos, long durationNanos, int startUsers, int users,
+              double startRate, double rate, boolean ramp) {
+            this.name = name;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+            this.endNanos = startNanos + durationNanos;
+            this.startUsers = ramp ? startUsers : users;
+            this.users = users;
+            this.startRate = ramp ? startRate : rate;
+            this.rate = rate;
+            this.ramp = ramp;
+        }
+
+        private double levelAt(double from, double to, long elapsedNanos) {
+            double fraction = Math.min(1.0, Math.max(0.0, (elapsedNanos - startNanos) / (double) durationNanos));
+            return from + (to - from) * fraction;
+        }
+
+        public String getName() { return name; }
+        public long getStartNanos() { return startNanos; }
+        public long getDurationNanos() { return durationNanos; }
+        public int getUsers() { return users; }
+        public double getRate() { return rate; }
+        public boolean isRamp() { return ramp; }
+    }
+
+    private static class Builder {
+        private final List<Stage> stages = new ArrayList<>();
+        private long offsetNanos;
+        private int users;
+        private double rate;
+
+        Builder stage(String name, int durationSec, int targetUsers, double targetRate, boolean ramp) {
+            if (durationSec <= 0 || targetUsers < 0 || targetRate < 0) {
+                throw new IllegalArgumentException("Invalid load profile stage " + name
+                        + ": duration must be > 0, users and rate must be >= 0");
+            }
+            long durationNanos = TimeUnit.SECONDS.toNanos(durationSec);
+            stages.add(new Stage(name, offsetNanos, durationNanos, users, targetUsers, rate, targetRate, ramp));
+            offsetNanos += durationNanos;
+            users = targetUsers;
+            rate = targetRate;
+            return this;
+        }
+
+        LoadProfile build(boolean timeBounded) {
+            return new LoadProfile(stages, timeBounded);
+        }
+    }
+}
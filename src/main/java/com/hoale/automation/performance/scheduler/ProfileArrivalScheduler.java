@@ -0,0 +1,43 @@
+package com.hoale.automation.performance.scheduler;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Open-model scheduler whose arrival rate follows a {@link LoadProfile}.
+ * Like {@link ConstantArrivalRateScheduler} it hands each dispatch its planned send time.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 11:00:00 UTC
+ */
+public class ProfileArrivalScheduler {
+
+    private final LoadProfile profile;
+
+    public ProfileArrivalScheduler(LoadProfile profile) {
+        this.profile = profile;
+    }
+
+    /**
+     * Dispatches up to {@code maxRequests} requests following the profile's rate curve,
+     * starting the profile clock at {@code startNanos} and stopping with the run.
+     *
+     * @return number of requests dispatched
+     */
+    public long run(long startNanos, long maxRequests, RunControl control, LongConsumer dispatcher) throws InterruptedException {
+        long dispatched = 0;
+
+        while (dispatched < maxRequests) {
+            long offset = profile.arrivalOffsetNanos(dispatched);
+            if (offset < 0) {
+                break;
+            }
+            long plannedNanos = startNanos + offset;
+            if (!control.awaitUntil(plannedNanos)) {
+                break;
+            }
+            dispatcher.accept(plannedNanos);
+            dispatched++;
+        }
+        return dispatched;
+    }
+}
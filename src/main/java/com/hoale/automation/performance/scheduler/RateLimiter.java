@@ -0,0 +1,104 @@
+package com.hoale.automation.performance.scheduler;
+
+import com.hoale.automation.performance.model.RateLimiterStats;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket shared by every worker of a run, so the aggregate request rate holds
+ * at the configured value however many threads send. Up to {@code burst} requests
+ * go out back to back after an idle period; after that they are spaced 1/rate apart.
+ * <p>
+ * The whole bucket is one timestamp: the next free send slot. A caller claims its slot
+ * with a single compare-and-set and parks until it comes up, so there is no lock and
+ * the only shared write per request is that CAS. The rate can be changed while the
+ * run is going, through {@link #setRate} or JMX ({@link RateLimiterMXBean}); requests
+ * that already hold a slot keep it.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 18:00:00 UTC
+ */
+public class RateLimiter implements RateLimiterMXBean {
+
+    // Starts in the distant past, so the first callers find a full bucket
+    private final AtomicLong nextFreeNanos = new AtomicLong(Long.MIN_VALUE);
+    private final int burst;
+    private volatile long intervalNanos;
+    private volatile double ratePerSecond;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder permits = new LongAdder();
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+    public RateLimiter(double ratePerSecond, int burst) {
+        if (burst <= 0) {
+            throw new IllegalArgumentException("burst must be > 0");
+        }
+        this.burst = burst;
+        setRate(ratePerSecond);
+    }
+
+    /** Changes the rate for every request that has not claimed its slot yet. */
+    public void setRate(double ratePerSecond) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("ratePerSecond must be > 0");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000.0 / ratePerSecond));
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    /**
+     * Takes {@code count} permits, parking until they are due.
+     *
+     * @return false if the run stopped or its deadline passed before the permits came up
+     */
+    public boolean acquire(int count, RunControl control) throws InterruptedException {
+        long interval = intervalNanos;
+        long now = System.nanoTime();
+        long slot;
+        while (true) {
+            long next = nextFreeNanos.get();
+            // A bucket idle for a while holds at most burst tokens: never hand out slots older than that
+            slot = Math.max(next, now - (burst - 1) * interval);
+            if (nextFreeNanos.compareAndSet(next, slot + count * interval)) {
+                break;
+            }
+            now = System.nanoTime();
+        }
+        acquisitions.increment();
+        if (slot - now > 0) {
+            boolean due = control.awaitUntil(slot);
+            long waited = System.nanoTime() - now;
+            delayed.increment();
+            totalWaitNanos.add(waited);
+            maxWaitNanos.accumulate(waited);
+            if (!due) {
+                // Give the slot back if nobody queued behind it, so a timed-out caller does
+                // not push later ones back; otherwise it stays used, which only matters
+                // until the run ends, since that is the only way the wait times out
+                nextFreeNanos.compareAndSet(slot + count * interval, slot);
+                return false;
+            }
+        }
+        permits.add(count);
+        return true;
+    }
+
+    @Override
+    public double getRatePerSecond() { return ratePerSecond; }
+    @Override
+    public void setRatePerSecond(double ratePerSecond) { setRate(ratePerSecond); }
+    @Override
+    public int getBurst() { return burst; }
+    @Override
+    public long getPermits() { return permits.sum(); }
+
+    public RateLimiterStats snapshot() {
+        return new RateLimiterStats(ratePerSecond, burst, acquisitions.sum(), permits.sum(), delayed.sum(),
+                totalWaitNanos.sum(), maxWaitNanos.get());
+    }
+}
@@ -0,0 +1,23 @@
+package com.hoale.automation.performance.scheduler;
+
+/**
+ * JMX view of the run's {@link RateLimiter}, registered as {@value #OBJECT_NAME}
+ * while a rate-limited run is going. Writing {@code RatePerSecond} (from jconsole or
+ * any JMX client) changes the request rate live.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 22:30:00 UTC
+ */
+public interface RateLimiterMXBean {
+
+    String OBJECT_NAME = "com.hoale.automation.performance:type=RateLimiter";
+
+    double getRatePerSecond();
+
+    /** Applies to every request that has not claimed its send slot yet. */
+    void setRatePerSecond(double ratePerSecond);
+
+    int getBurst();
+
+    long getPermits();
+}
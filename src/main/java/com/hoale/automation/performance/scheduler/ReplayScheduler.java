@@ -0,0 +1,60 @@
+package com.hoale.automation.performance.scheduler;
+
+import com.hoale.automation.performance.replay.ReplayLog;
+
+import java.io.IOException;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Releases recorded requests at their original inter-arrival times, compressed by a
+ * speed-up factor. The first request goes out immediately; each later one is due at
+ * its recorded offset from the first divided by the speed-up. Like the open-model
+ * schedulers it hands each dispatch its planned send time, so latency is measured
+ * from when the request was due.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 17:30:00 UTC
+ */
+public class ReplayScheduler {
+
+    private final double speedup;
+
+    public ReplayScheduler(double speedup) {
+        if (speedup <= 0) {
+            throw new IllegalArgumentException("speedup must be > 0");
+        }
+        this.speedup = speedup;
+    }
+
+    /**
+     * Dispatches the log's requests until it ends, the deadline passes or the run is stopped.
+     *
+     * @return number of requests dispatched
+     */
+    public long run(ReplayLog log, RunControl control, ObjLongConsumer<ReplayLog.Entry> dispatcher)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        long firstTimestamp = 0;
+        long previousPlanned = start;
+        long dispatched = 0;
+
+        ReplayLog.Entry entry;
+        while ((entry = log.next()) != null) {
+            if (dispatched == 0) {
+                firstTimestamp = entry.getTimestampMillis();
+            }
+            long offsetNanos = (long) ((entry.getTimestampMillis() - firstTimestamp) * 1_000_000.0 / speedup);
+            // A line recorded out of order goes out right after its predecessor rather than in the past
+            long plannedNanos = Math.max(previousPlanned, start + offsetNanos);
+            if (!control.awaitUntil(plannedNanos)) {
+                break;
+            }
+            dispatcher.accept(entry, plannedNanos);
+            previousPlanned = plannedNanos;
+            dispatched++;
+        }
+        return dispatched;
+    }
+
+    public double getSpeedup() { return speedup; }
+}
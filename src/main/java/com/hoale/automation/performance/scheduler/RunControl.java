@@ -0,0 +1,104 @@
+package com.hoale.automation.performance.scheduler;
+
+import org.apache.hc.core5.concurrent.Cancellable;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Shared stop signal for one run. Workers and schedulers stop starting new
+ * requests once the deadline passes (or the run is stopped early); requests
+ * already in flight register here so the engine can cancel whatever is still
+ * running after the grace period.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 11:30:00 UTC
+ */
+public class RunControl {
+
+    private static final long MAX_PARK_NANOS = 100_000_000L;
+
+    private final long deadlineNanos;
+    private final Set<Cancellable> inFlight = ConcurrentHashMap.newKeySet();
+    private volatile long stoppedAtNanos;
+    private volatile boolean stopped;
+    private volatile boolean cancelling;
+
+    public RunControl(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /** True while new requests may be started. */
+    public boolean isRunning() {
+        return !stopped && System.nanoTime() - deadlineNanos < 0;
+    }
+
+    public long getDeadlineNanos() { return deadlineNanos; }
+
+    /** When new requests stopped: the deadline, or the moment {@link #stop()} came first. */
+    public long getEndNanos() {
+        return stopped && stoppedAtNanos - deadlineNanos < 0 ? stoppedAtNanos : deadlineNanos;
+    }
+
+    public long nanosUntilDeadline() {
+        return Math.max(0, getEndNanos() - System.nanoTime());
+    }
+
+    /** Stops new requests before the deadline; in-flight requests may still drain. */
+    public void stop() {
+        if (!stopped) {
+            stoppedAtNanos = System.nanoTime();
+            stopped = true;
+        }
+    }
+
+    /** True once stragglers are being cancelled; their outcome is "cancelled", not "failed". */
+    public boolean isCancelling() {
+        return cancelling;
+    }
+
+    public void register(Cancellable request) {
+        inFlight.add(request);
+    }
+
+    public void unregister(Cancellable request) {
+        inFlight.remove(request);
+    }
+
+    /**
+     * Stops the run and cancels every request still in flight.
+     *
+     * @return number of requests cancelled
+     */
+    public int cancelInFlight() {
+        stop();
+        cancelling = true;
+        int cancelled = 0;
+        for (Cancellable request : inFlight) {
+            if (request.cancel()) {
+                cancelled++;
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * Parks until {@code timeNanos}, waking early if the run stops or the deadline passes first.
+     *
+     * @return true if the time was reached while the run was still going
+     */
+    public boolean awaitUntil(long timeNanos) throws InterruptedException {
+        long remaining;
+        while ((remaining = timeNanos - System.nanoTime()) > 0) {
+            if (!isRunning()) {
+                return false;
+            }
+            LockSupport.parkNanos(Math.min(remaining, MAX_PARK_NANOS));
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        return isRunning();
+    }
+}
@@ -0,0 +1,46 @@
+package com.hoale.automation.performance.scheduler;
+
+import com.hoale.automation.performance.model.TestResult;
+
+import java.util.List;
+
+/**
+ * Runs a {@link LoadProfile} against the wall clock and routes each request's
+ * result to the TestResult of the stage it was planned in.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 11:00:00 UTC
+ */
+public class StageTracker {
+
+    private final LoadProfile profile;
+    private final TestResult[] stageResults;
+    private final long startNanos;
+
+    public StageTracker(LoadProfile profile, TestResult testResult, long startNanos) {
+        this.profile = profile;
+        this.startNanos = startNanos;
+        List<LoadProfile.Stage> stages = profile.getStages();
+        this.stageResults = new TestResult[stages.size()];
+        for (int i = 0; i < stageResults.length; i++) {
+            stageResults[i] = testResult.addStage(stages.get(i).getName());
+        }
+    }
+
+    public LoadProfile getProfile() { return profile; }
+
+    public long getStartNanos() { return startNanos; }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /** Stage result for a request planned at {@code plannedNanos}. */
+    public TestResult stageFor(long plannedNanos) {
+        return stageResults[profile.stageIndexAt(plannedNanos - startNanos)];
+    }
+
+    public TestResult stageResult(int index) {
+        return stageResults[index];
+    }
+}
@@ -0,0 +1,185 @@
+package com.hoale.automation.performance.scheduler;
+
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Think-time / pacing model for closed-model users: decides when a user starts its
+ * next request. Think-time models wait after each response; pacing starts
+ * iterations on a fixed timer so every user runs at exactly 1 / pacingMs.
+ *
+ * <pre>
+ * thinkTime=none          # back to back (default)
+ * thinkTime=constant      # thinkTimeMs after every response
+ * thinkTime=uniform       # random in [thinkTimeMinMs, thinkTimeMaxMs]
+ * thinkTime=exponential   # random with mean thinkTimeMs (Poisson arrivals per user)
+ * thinkTime=pacing        # one iteration every pacingMs, measured start to start
+ * </pre>
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 12:00:00 UTC
+ */
+public abstract class ThinkTime {
+
+    public static final ThinkTime NONE = new Constant(0);
+
+    public static ThinkTime fromProperties(Properties props) {
+        String model = props.getProperty("thinkTime", "none").trim().toLowerCase();
+        switch (model) {
+            case "none":
+                return NONE;
+            case "constant":
+                return new Constant(positiveMillis(props, "thinkTimeMs"));
+            case "uniform": {
+                long min = nonNegativeMillis(props, "thinkTimeMinMs");
+                long max = nonNegativeMillis(props, "thinkTimeMaxMs");
+                if (max < min) {
+                    throw new IllegalArgumentException("thinkTimeMaxMs must be >= thinkTimeMinMs");
+                }
+                return new Uniform(min, max);
+            }
+            case "exponential":
+            case "poisson":
+                return new Exponential(positiveMillis(props, "thinkTimeMs"));
+            case "pacing":
+                return new Pacing(positiveMillis(props, "pacingMs"));
+            default:
+                throw new IllegalArgumentException("Unknown thinkTime: " + model
+                        + " (expected none, constant, uniform, exponential or pacing)");
+        }
+    }
+
+    private static long positiveMillis(Properties props, String key) {
+        long value = nonNegativeMillis(props, key);
+        if (value <= 0) {
+            throw new IllegalArgumentException(key + " must be > 0");
+        }
+        return value;
+    }
+
+    private static long nonNegativeMillis(Properties props, String key) {
+        String value = props.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + key + " for thinkTime=" + props.getProperty("thinkTime"));
+        }
+        long millis = Long.parseLong(value.trim());
+        if (millis < 0) {
+            throw new IllegalArgumentException(key + " must be >= 0");
+        }
+        return millis;
+    }
+
+    /**
+     * When a user should start its next iteration.
+     *
+     * @param iterationStartNanos planned start of the iteration that just finished
+     * @param iterationEndNanos   when its response arrived
+     */
+    public abstract long nextStartNanos(long iterationStartNanos, long iterationEndNanos);
+
+    /**
+     * Upper bound on one user's request rate (req/s) for an infinitely fast server;
+     * exact for pacing as long as responses fit in the pacing interval.
+     *
+     * @return the bound, or {@link Double#POSITIVE_INFINITY} when the server alone limits the rate
+     */
+    public abstract double maxRatePerUser();
+
+    public abstract String describe();
+
+    private static double ratePerSecond(double meanMillis) {
+        return meanMillis > 0 ? 1000.0 / meanMillis : Double.POSITIVE_INFINITY;
+    }
+
+    private static class Constant extends ThinkTime {
+        private final long delayNanos;
+
+        Constant(long delayMs) {
+            this.delayNanos = TimeUnit.MILLISECONDS.toNanos(delayMs);
+        }
+
+        @Override
+        public long nextStartNanos(long iterationStartNanos, long iterationEndNanos) {
+            return iterationEndNanos + delayNanos;
+        }
+
+        @Override
+        public double maxRatePerUser() { return ratePerSecond(delayNanos / 1e6); }
+
+        @Override
+        public String describe() {
+            return delayNanos == 0 ? "none" : "constant " + TimeUnit.NANOSECONDS.toMillis(delayNanos) + " ms";
+        }
+    }
+
+    private static class Uniform extends ThinkTime {
+        private final long minNanos;
+        private final long maxNanos;
+
+        Uniform(long minMs, long maxMs) {
+            this.minNanos = TimeUnit.MILLISECONDS.toNanos(minMs);
+            this.maxNanos = TimeUnit.MILLISECONDS.toNanos(maxMs);
+        }
+
+        @Override
+        public long nextStartNanos(long iterationStartNanos, long iterationEndNanos) {
+            return iterationEndNanos + ThreadLocalRandom.current().nextLong(minNanos, maxNanos + 1);
+        }
+
+        @Override
+        public double maxRatePerUser() { return ratePerSecond((minNanos + maxNanos) / 2e6); }
+
+        @Override
+        public String describe() {
+            return "uniform " + TimeUnit.NANOSECONDS.toMillis(minNanos) + "-" + TimeUnit.NANOSECONDS.toMillis(maxNanos) + " ms";
+        }
+    }
+
+    private static class Exponential extends ThinkTime {
+        private final double meanNanos;
+
+        Exponential(long meanMs) {
+            this.meanNanos = TimeUnit.MILLISECONDS.toNanos(meanMs);
+        }
+
+        @Override
+        public long nextStartNanos(long iterationStartNanos, long iterationEndNanos) {
+            // Inverse transform sampling; 1 - u keeps the argument of log in (0, 1]
+            double u = ThreadLocalRandom.current().nextDouble();
+            return iterationEndNanos + (long) (-meanNanos * Math.log(1 - u));
+        }
+
+        @Override
+        public double maxRatePerUser() { return ratePerSecond(meanNanos / 1e6); }
+
+        @Override
+        public String describe() {
+            return "exponential, mean " + (long) (meanNanos / 1e6) + " ms";
+        }
+    }
+
+    private static class Pacing extends ThinkTime {
+        private final long intervalNanos;
+
+        Pacing(long intervalMs) {
+            this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+        }
+
+        @Override
+        public long nextStartNanos(long iterationStartNanos, long iterationEndNanos) {
+            // Timer driven: the next slot follows the previous planned start, not the response.
+            // A response slower than the interval starts the next iteration right away
+            // without trying to catch up on the missed slots.
+            return Math.max(iterationStartNanos + intervalNanos, iterationEndNanos);
+        }
+
+        @Override
+        public double maxRatePerUser() { return ratePerSecond(intervalNanos / 1e6); }
+
+        @Override
+        public String describe() {
+            return "pacing, one iteration every " + TimeUnit.NANOSECONDS.toMillis(intervalNanos) + " ms";
+        }
+    }
+}
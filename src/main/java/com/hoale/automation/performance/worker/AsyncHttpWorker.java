@@ -0,0 +1,311 @@
+package com.hoale.automation.performance.worker;
+
+import com.hoale.automation.performance.config.PerformanceConfig;
+import com.hoale.automation.performance.model.OutcomeBreakdown;
+import com.hoale.automation.performance.model.TestResult;
+import com.hoale.automation.performance.samplelog.SampleLog;
+import com.hoale.automation.performance.scenario.EndpointMix;
+import com.hoale.automation.performance.scenario.Scenario;
+import com.hoale.automation.performance.scenario.Template;
+import com.hoale.automation.performance.scheduler.RunControl;
+import com.hoale.automation.performance.scheduler.StageTracker;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.config.TlsConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.message.BasicHeader;
+import org.apache.hc.core5.http2.HttpVersionPolicy;
+import org.apache.hc.core5.http2.config.H2Config;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking HTTP worker on httpclient5's CloseableHttpAsyncClient.
+ * A handful of I/O reactor threads drive all connections; the number of requests
+ * in flight is bounded by a semaphore instead of by the number of threads.
+ * With httpVersion=2 requests are multiplexed as HTTP/2 streams (h2c prior
+ * knowledge for http:// targets).
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 10:00:00 UTC
+ */
+public class AsyncHttpWorker implements Closeable {
+
+    private static final Header USER_AGENT = new BasicHeader("User-Agent", "Automation-Performance-Test/1.0");
+    // The reactor checks timeouts once per select; its 1 s default would stretch connect and response timeouts
+    private static final TimeValue SELECT_INTERVAL = TimeValue.ofMilliseconds(100);
+    private static final ThreadLocal<Template.Buffer> BODY_BUFFER = ThreadLocal.withInitial(Template.Buffer::new);
+
+    private final PerformanceConfig config;
+    private final TestResult testResult;
+    private final CloseableHttpAsyncClient client;
+    private final Semaphore inFlight;
+    private final StageTracker stages;
+    private final RunControl control;
+    private final AtomicLong iterations = new AtomicLong();
+    private final EndpointMix mix;
+    private final TestResult[] endpointResults;
+    private SampleLog sampleLog;
+
+    /**
+     * @param stages load profile being run (open model only), or null
+     */
+    public AsyncHttpWorker(PerformanceConfig config, TestResult testResult, StageTracker stages, RunControl control) {
+        this.config = config;
+        this.testResult = testResult;
+        this.stages = stages;
+        this.control = control;
+        this.inFlight = new Semaphore(config.getMaxInFlight());
+        this.mix = config.getMix();
+        this.endpointResults = mix != null ? HttpWorker.resolveEndpointResults(mix, testResult) : null;
+
+        boolean http2 = config.isHttp2();
+        PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(config.getMaxInFlight())
+                .setMaxConnPerRoute(config.getMaxInFlight())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(config.getConnectionTimeout()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(config.getResponseTimeout()))
+                        .build())
+                .setDefaultTlsConfig(TlsConfig.custom()
+                        .setVersionPolicy(http2 ? HttpVersionPolicy.FORCE_HTTP_2 : HttpVersionPolicy.FORCE_HTTP_1)
+                        .build())
+                .build();
+        this.client = HttpAsyncClients.custom()
+                .setIOReactorConfig(IOReactorConfig.custom()
+                        .setIoThreadCount(config.getIoThreads())
+                        .setSelectInterval(SELECT_INTERVAL)
+                        .build())
+                .setH2Config(H2Config.custom()
+                        .setMaxConcurrentStreams(config.getMaxInFlight())
+                        .setPushEnabled(false)
+                        .build())
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(config.getConnectionTimeout()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(config.getResponseTimeout()))
+                        .build())
+                .build();
+    }
+
+    /** @param sampleLog raw log every request is appended to (endpoint id: the mix endpoint, else 0), or null */
+    public void setSampleLog(SampleLog sampleLog) {
+        this.sampleLog = sampleLog;
+    }
+
+    public void start() {
+        client.start();
+    }
+
+    /**
+     * Sends one request without waiting for the response. Blocks only while
+     * maxInFlight requests are already outstanding, and never past the run's deadline.
+     *
+     * @param plannedStartNanos when the request was meant to be sent; latency is measured from
+     *                          here, so time spent waiting for a free slot counts (open model)
+     * @return false if the deadline passed before a slot freed up and nothing was sent
+     */
+    public boolean send(long plannedStartNanos) throws InterruptedException {
+        if (!inFlight.tryAcquire(control.nanosUntilDeadline(), TimeUnit.NANOSECONDS)) {
+            return false;
+        }
+        dispatch(plannedStartNanos);
+        return true;
+    }
+
+    /**
+     * Like {@link #send(long)}, but timed from the moment a slot is free, as the blocking
+     * engines time a user's next request (closed model).
+     */
+    public boolean send() throws InterruptedException {
+        if (!inFlight.tryAcquire(control.nanosUntilDeadline(), TimeUnit.NANOSECONDS)) {
+            return false;
+        }
+        dispatch(System.nanoTime());
+        return true;
+    }
+
+    private void dispatch(long plannedStartNanos) {
+        int endpoint = mix != null ? mix.select() : -1;
+        Scenario.Step step = endpoint >= 0 ? mix.getEndpoint(endpoint) : config.getRequest();
+        TestResult endpointResult = endpoint >= 0 ? endpointResults[endpoint] : null;
+        SimpleHttpRequest request;
+        try {
+            request = buildRequest(step);
+        } catch (RuntimeException e) {
+            testResult.recordRequest(false, 0);
+            testResult.recordError(OutcomeBreakdown.Category.INVALID_REQUEST, 0);
+            if (sampleLog != null) {
+                sampleLog.record(plannedStartNanos, 0, Math.max(0, endpoint), 0, OutcomeBreakdown.Category.INVALID_REQUEST, -1, false);
+            }
+            if (endpointResult != null) {
+                endpointResult.recordRequest(false, 0);
+            }
+            inFlight.release();
+            return;
+        }
+
+        PendingRequest pending = new PendingRequest();
+        control.register(pending);
+        pending.future = client.execute(request, new FutureCallback<SimpleHttpResponse>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                int status = response.getCode();
+                record(step.isSuccess(status), status, null, response.getBodyBytes() != null ? response.getBodyBytes().length : 0);
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                if (control.isCancelling()) {
+                    recordCancelled();
+                } else {
+                    record(false, 0, ErrorClassifier.classify(ex), -1);
+                }
+            }
+
+            @Override
+            public void cancelled() {
+                recordCancelled();
+            }
+
+            private void recordCancelled() {
+                control.unregister(pending);
+                testResult.recordCancelled(1);
+                if (stages != null) {
+                    stages.stageFor(plannedStartNanos).recordCancelled(1);
+                }
+                if (endpointResult != null) {
+                    endpointResult.recordCancelled(1);
+                }
+                inFlight.release();
+            }
+
+            private void record(boolean success, int status, OutcomeBreakdown.Category error, long bytes) {
+                control.unregister(pending);
+                long responseTime = System.nanoTime() - plannedStartNanos;
+                testResult.recordRequestNanos(success, responseTime);
+                if (error != null) {
+                    testResult.recordError(error, responseTime);
+                } else {
+                    testResult.recordStatus(status, responseTime);
+                }
+                if (sampleLog != null) {
+                    sampleLog.record(plannedStartNanos, responseTime, Math.max(0, endpoint), status, error, bytes, success);
+                }
+                if (stages != null) {
+                    stages.stageFor(plannedStartNanos).recordRequestNanos(success, responseTime);
+                }
+                if (endpointResult != null) {
+                    endpointResult.recordRequestNanos(success, responseTime);
+                }
+                inFlight.release();
+            }
+        });
+    }
+
+    /**
+     * Builds the configured request. Constant URL, headers and body are shared
+     * precompiled objects; variables are rendered per request (the body is copied
+     * because the async client sends it after this method returns).
+     */
+    private SimpleHttpRequest buildRequest(Scenario.Step step) {
+        Map<String, String> variables = Collections.emptyMap();
+        if (!step.isConstant()) {
+            variables = new HashMap<>();
+            variables.put("userId", "0");
+            variables.put("iteration", String.valueOf(iterations.getAndIncrement()));
+        }
+        SimpleRequestBuilder builder = SimpleRequestBuilder.create(step.getMethod())
+                .setUri(step.getUri() != null ? step.getUri() : URI.create(step.getUrl().render(variables)))
+                .addHeader(USER_AGENT);
+        for (Header header : step.getConstantHeaders()) {
+            builder.addHeader(header);
+        }
+        ContentType contentType = step.getContentType();
+        for (Map.Entry<String, Template> header : step.getVariableHeaders().entrySet()) {
+            String value = header.getValue().render(variables);
+            if ("Content-Type".equalsIgnoreCase(header.getKey())) {
+                contentType = ContentType.parse(value);
+            } else {
+                builder.setHeader(header.getKey(), value);
+            }
+        }
+        Template body = step.getBody();
+        if (body != null) {
+            byte[] bytes;
+            if (body.isConstant()) {
+                bytes = body.constantBytes();
+            } else {
+                Template.Buffer buffer = BODY_BUFFER.get();
+                body.renderTo(variables, buffer);
+                bytes = Arrays.copyOf(buffer.array(), buffer.size());
+            }
+            builder.setBody(bytes, contentType);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Waits until every request sent so far has completed.
+     *
+     * @return false if requests were still outstanding when the timeout expired
+     */
+    public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        int permits = config.getMaxInFlight();
+        if (inFlight.tryAcquire(permits, timeout, unit)) {
+            inFlight.release(permits);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Aborts every outstanding request; their callbacks record them as cancelled.
+     *
+     * @return number of requests cancelled
+     */
+    public int cancelOutstanding() {
+        int cancelled = control.cancelInFlight();
+        client.close(CloseMode.IMMEDIATE);
+        return cancelled;
+    }
+
+    @Override
+    public void close() {
+        client.close(CloseMode.GRACEFUL);
+    }
+
+    /** Handle registered with the RunControl before the exchange starts, so it can be cancelled at any point. */
+    private static class PendingRequest implements Cancellable {
+        private volatile Future<SimpleHttpResponse> future;
+
+        @Override
+        public boolean cancel() {
+            Future<SimpleHttpResponse> f = future;
+            return f != null && f.cancel(true);
+        }
+    }
+}
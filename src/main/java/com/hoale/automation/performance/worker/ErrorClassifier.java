@@ -0,0 +1,70 @@
+package com.hoale.automation.performance.worker;
+
+import com.hoale.automation.performance.model.OutcomeBreakdown.Category;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.core5.http.ConnectionClosedException;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+import org.apache.hc.core5.http.NoHttpResponseException;
+import org.apache.hc.core5.util.DeadlineTimeoutException;
+
+import javax.net.ssl.SSLException;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+
+/**
+ * Maps the exception a failed exchange ended with to an outcome category. The clients
+ * wrap causes now and then, so the cause chain is searched a few levels deep. Order
+ * matters: the pool and connect timeouts are subclasses of the generic I/O timeouts.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 20:00:00 UTC
+ */
+final class ErrorClassifier {
+
+    private static final int MAX_DEPTH = 5;
+
+    private ErrorClassifier() {
+    }
+
+    static Category classify(Throwable error) {
+        Throwable current = error;
+        for (int depth = 0; current != null && depth < MAX_DEPTH; depth++) {
+            Category category = classifyOne(current);
+            if (category != Category.OTHER) {
+                return category;
+            }
+            current = current.getCause();
+        }
+        return Category.OTHER;
+    }
+
+    private static Category classifyOne(Throwable error) {
+        // Lease timeouts: classic client, then the async pool
+        if (error instanceof ConnectionRequestTimeoutException || error instanceof DeadlineTimeoutException) {
+            return Category.POOL_EXHAUSTED;
+        }
+        if (error instanceof ConnectTimeoutException) {
+            return Category.CONNECT_TIMEOUT;
+        }
+        // HttpHostConnectException is a ConnectException
+        if (error instanceof ConnectException) {
+            return Category.CONNECTION_REFUSED;
+        }
+        if (error instanceof SocketTimeoutException) {
+            return Category.READ_TIMEOUT;
+        }
+        if (error instanceof UnknownHostException) {
+            return Category.UNKNOWN_HOST;
+        }
+        if (error instanceof SSLException) {
+            return Category.TLS;
+        }
+        if (error instanceof NoHttpResponseException || error instanceof ConnectionClosedException
+                || error instanceof SocketException) {
+            return Category.CONNECTION_RESET;
+        }
+        return Category.OTHER;
+    }
+}
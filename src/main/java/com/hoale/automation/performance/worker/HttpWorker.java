@@ -1,13 +1,37 @@
 package com.hoale.automation.performance.worker;
 
 import com.hoale.automation.performance.config.PerformanceConfig;
+import com.hoale.automation.performance.model.OutcomeBreakdown;
 import com.hoale.automation.performance.model.TestResult;
-import org.apache.hc.client5.http.classic.methods.HttpGet;
+import com.hoale.automation.performance.replay.ReplayLog;
+import com.hoale.automation.performance.samplelog.SampleLog;
+import com.hoale.automation.performance.scenario.EndpointMix;
+import com.hoale.automation.performance.scenario.Extractor;
+import com.hoale.automation.performance.scenario.Scenario;
+import com.hoale.automation.performance.scenario.Template;
+import com.hoale.automation.performance.scheduler.RateLimiter;
+import com.hoale.automation.performance.scheduler.RunControl;
+import com.hoale.automation.performance.scheduler.StageTracker;
+import com.hoale.automation.performance.scheduler.ThinkTime;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.ParseException;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.message.BasicHeader;
 
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * HTTP Worker for Performance Testing
@@ -17,42 +41,358 @@ import java.util.concurrent.Callable;
  */
 public class HttpWorker implements Callable<Void> {
 
+    // Waking later than this after the planned start means the user was held back (e.g. by the
+    // load profile), so the pacing timer restarts from now instead of bursting to catch up
+    private static final long ACTIVATION_SLACK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final Header USER_AGENT = new BasicHeader("User-Agent", "Automation-Performance-Test/1.0");
+    private static final ThreadLocal<Template.Buffer> BODY_BUFFER = ThreadLocal.withInitial(Template.Buffer::new);
+
     private final PerformanceConfig config;
     private final TestResult testResult;
+    private final CloseableHttpClient httpClient;
+    private final RunControl control;
+    private final StageTracker stages;
+    private final int userIndex;
+    private final Scenario scenario;
+    private final TestResult[] stepResults;
+    private final TestResult transactionResult;
+    private final EndpointMix mix;
+    private final TestResult[] endpointResults;
+    private final AtomicLong iterations = new AtomicLong();
+    private RateLimiter rateLimiter;
+    private SampleLog sampleLog;
+
+    /**
+     * @param httpClient pooled client owned by the engine and shared by all workers
+     */
+    public HttpWorker(PerformanceConfig config, TestResult testResult, CloseableHttpClient httpClient, RunControl control) {
+        this(config, testResult, httpClient, control, null, 0);
+    }
 
-    public HttpWorker(PerformanceConfig config, TestResult testResult) {
+    /**
+     * @param stages    load profile being run, or null to start immediately and run requestsPerThread requests
+     * @param userIndex 0-based user number; user N only runs while the profile has more than N users active
+     */
+    public HttpWorker(PerformanceConfig config, TestResult testResult, CloseableHttpClient httpClient,
+                      RunControl control, StageTracker stages, int userIndex) {
         this.config = config;
         this.testResult = testResult;
+        this.httpClient = httpClient;
+        this.control = control;
+        this.stages = stages;
+        this.userIndex = userIndex;
+        this.scenario = config.getScenario();
+        if (scenario != null) {
+            // Results are registered by the engine before the run; resolve them once per worker
+            this.stepResults = new TestResult[scenario.getSteps().size()];
+            for (int i = 0; i < stepResults.length; i++) {
+                stepResults[i] = testResult.getStepResults().get(scenario.getSteps().get(i).getName());
+            }
+            this.transactionResult = testResult.getTransactionResult();
+        } else {
+            this.stepResults = null;
+            this.transactionResult = null;
+        }
+        this.mix = config.getMix();
+        this.endpointResults = mix != null ? resolveEndpointResults(mix, testResult) : null;
+    }
+
+    /** Per-endpoint results registered by the engine, indexed like the mix. */
+    static TestResult[] resolveEndpointResults(EndpointMix mix, TestResult testResult) {
+        TestResult[] results = new TestResult[mix.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = testResult.getEndpointResults().get(mix.getEndpoint(i).getName());
+        }
+        return results;
+    }
+
+    /**
+     * @param rateLimiter global limiter every iteration takes its permits from before sending
+     *                    (one per request, so one per step for a scenario), or null for none
+     */
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * @param sampleLog raw log every request is appended to (endpoint id: the mix endpoint
+     *                  or scenario step index, else 0), or null for none
+     */
+    public void setSampleLog(SampleLog sampleLog) {
+        this.sampleLog = sampleLog;
     }
 
     @Override
     public Void call() throws Exception {
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            for (int i = 0; i < config.getRequestsPerThread(); i++) {
-                executeRequest(httpClient);
-                Thread.sleep(10); // Small delay
+        boolean timeBounded = config.isDurationBounded() || (stages != null && stages.getProfile().isTimeBounded());
+        ThinkTime thinkTime = config.getThinkTime();
+        long nextStart = System.nanoTime();
+        for (int i = 0; (timeBounded || i < config.getRequestsPerThread()) && control.isRunning(); i++) {
+            if (stages != null && !awaitActive()) {
+                break;
             }
+            // Park until the planned start instead of sleeping a fixed delay, so pacing does not drift
+            if (!control.awaitUntil(nextStart)) {
+                break;
+            }
+            if (rateLimiter != null && !rateLimiter.acquire(scenario != null ? stepResults.length : 1, control)) {
+                break;
+            }
+            long start = Math.max(nextStart, System.nanoTime() - ACTIVATION_SLACK_NANOS);
+            executeRequest(System.nanoTime());
+            nextStart = thinkTime.nextStartNanos(start, System.nanoTime());
         }
         return null;
     }
 
-    private void executeRequest(CloseableHttpClient httpClient) {
-        long startTime = System.currentTimeMillis();
-        boolean success = false;
+    /**
+     * Sleeps until the load profile has this user active.
+     *
+     * @return false once the profile will not activate this user again
+     */
+    private boolean awaitActive() throws InterruptedException {
+        long waitNanos = stages.getProfile().nanosUntilActive(userIndex, stages.elapsedNanos());
+        if (waitNanos < 0) {
+            return false;
+        }
+        return control.awaitUntil(System.nanoTime() + waitNanos);
+    }
+
+    /**
+     * Sends one request (picked from the mix when one is configured), or runs one scenario
+     * transaction when a scenario is configured, and records latency measured from {@code plannedStartNanos}.
+     * Used directly by the open-model schedulers, which passes the planned send time so
+     * any time spent queued behind busy threads is counted as latency.
+     */
+    public void executeRequest(long plannedStartNanos) {
+        if (scenario != null) {
+            executeTransaction(plannedStartNanos);
+            return;
+        }
+        Scenario.Step step = config.getRequest();
+        TestResult endpointResult = null;
+        int endpoint = 0;
+        if (mix != null) {
+            endpoint = mix.select();
+            step = mix.getEndpoint(endpoint);
+            endpointResult = endpointResults[endpoint];
+        }
+        Map<String, String> variables = step.isConstant() ? Collections.emptyMap() : builtInVariables();
+        HttpUriRequestBase request;
+        try {
+            request = buildRequest(step, variables);
+        } catch (RuntimeException e) {
+            recordInvalid(plannedStartNanos, endpoint);
+            if (endpointResult != null) {
+                endpointResult.recordRequest(false, 0);
+            }
+            return;
+        }
+        exchange(request, plannedStartNanos, step, variables, endpointResult, endpoint);
+    }
 
+    /**
+     * Sends one recorded request with the configured headers (header.*) and
+     * success rule (expectStatus), timed from {@code plannedStartNanos}.
+     */
+    public void executeReplay(ReplayLog.Entry entry, long plannedStartNanos) {
+        Scenario.Step step = config.getRequest();
+        HttpUriRequestBase request;
         try {
-            HttpGet request = new HttpGet(config.getTargetUrl());
-            request.setHeader("User-Agent", "Automation-Performance-Test/1.0");
+            request = new HttpUriRequestBase(entry.getMethod(), entry.getUri());
+            request.addHeader(USER_AGENT);
+            for (Header header : step.getConstantHeaders()) {
+                request.addHeader(header);
+            }
+            ContentType contentType = step.getContentType() != null ? step.getContentType() : ContentType.TEXT_PLAIN;
+            for (Map.Entry<String, String> header : entry.getHeaders().entrySet()) {
+                if ("Content-Type".equalsIgnoreCase(header.getKey())) {
+                    contentType = ContentType.parse(header.getValue());
+                } else {
+                    request.setHeader(header.getKey(), header.getValue());
+                }
+            }
+            if (entry.getBody() != null) {
+                request.setEntity(new ByteArrayEntity(entry.getBody(), contentType));
+            }
+        } catch (RuntimeException e) {
+            recordInvalid(plannedStartNanos, 0);
+            return;
+        }
+        exchange(request, plannedStartNanos, step, Collections.emptyMap(), null, 0);
+    }
 
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                int statusCode = response.getCode();
-                success = (statusCode >= 200 && statusCode < 300);
+    /** A request that could not be built (bad URL, missing variable); it was never sent. */
+    private void recordInvalid(long plannedStartNanos, int endpoint) {
+        testResult.recordRequest(false, 0);
+        testResult.recordError(OutcomeBreakdown.Category.INVALID_REQUEST, 0);
+        if (sampleLog != null) {
+            sampleLog.record(plannedStartNanos, 0, endpoint, 0, OutcomeBreakdown.Category.INVALID_REQUEST, -1, false);
+        }
+    }
+
+    private Map<String, String> builtInVariables() {
+        Map<String, String> variables = new HashMap<>();
+        variables.put("userId", String.valueOf(userIndex));
+        variables.put("iteration", String.valueOf(iterations.getAndIncrement()));
+        return variables;
+    }
+
+    /**
+     * Runs the scenario's steps in order with a fresh set of variables. A failed or
+     * cancelled step ends the transaction; the remaining steps are not sent.
+     */
+    private void executeTransaction(long plannedStartNanos) {
+        Map<String, String> variables = builtInVariables();
+
+        List<Scenario.Step> steps = scenario.getSteps();
+        Outcome outcome = Outcome.SUCCESS;
+        long stepStart = plannedStartNanos;
+        for (int i = 0; i < steps.size() && outcome == Outcome.SUCCESS; i++) {
+            Scenario.Step step = steps.get(i);
+            HttpUriRequestBase request;
+            try {
+                request = buildRequest(step, variables);
+            } catch (RuntimeException e) {
+                // A missing extracted value or a malformed URL fails the step without sending it
+                recordInvalid(stepStart, i);
+                stepResults[i].recordRequest(false, 0);
+                outcome = Outcome.FAILURE;
+                break;
+            }
+            outcome = exchange(request, stepStart, step, variables, stepResults[i], i);
+            stepStart = System.nanoTime();
+        }
+
+        if (outcome == Outcome.CANCELLED) {
+            transactionResult.recordCancelled(1);
+        } else {
+            transactionResult.recordRequestNanos(outcome == Outcome.SUCCESS, System.nanoTime() - plannedStartNanos);
+        }
+    }
+
+    /**
+     * Builds the step's request. Constant parts are shared, precompiled objects; a body
+     * with variables is rendered into this thread's reused buffer, which is safe because
+     * the classic client has written the entity by the time execute returns.
+     */
+    private HttpUriRequestBase buildRequest(Scenario.Step step, Map<String, String> variables) {
+        URI uri = step.getUri() != null ? step.getUri() : URI.create(step.getUrl().render(variables));
+        HttpUriRequestBase request = new HttpUriRequestBase(step.getMethod(), uri);
+        request.addHeader(USER_AGENT);
+        for (Header header : step.getConstantHeaders()) {
+            request.addHeader(header);
+        }
+        ContentType contentType = step.getContentType();
+        for (Map.Entry<String, Template> header : step.getVariableHeaders().entrySet()) {
+            String value = header.getValue().render(variables);
+            if ("Content-Type".equalsIgnoreCase(header.getKey())) {
+                contentType = ContentType.parse(value);
+            } else {
+                request.setHeader(header.getKey(), value);
+            }
+        }
+        Template body = step.getBody();
+        if (body != null) {
+            if (body.isConstant()) {
+                request.setEntity(new ByteArrayEntity(body.constantBytes(), contentType));
+            } else {
+                Template.Buffer buffer = BODY_BUFFER.get();
+                body.renderTo(variables, buffer);
+                request.setEntity(new ByteArrayEntity(buffer.array(), 0, buffer.size(), contentType));
+            }
+        }
+        return request;
+    }
+
+    /**
+     * Sends one request and records it in the totals, the stage and {@code stepResult}
+     * (the scenario step's or mix endpoint's result, or null); {@code endpoint} is its id in the sample log.
+     * The step's extractors copy values from the response into {@code variables}.
+     */
+    private Outcome exchange(HttpUriRequestBase request, long plannedStartNanos, Scenario.Step step,
+                             Map<String, String> variables, TestResult stepResult, int endpoint) {
+        boolean success = false;
+        boolean cancelled = control.isCancelling();
+        int status = 0;
+        long bytes = -1;
+        OutcomeBreakdown.Category error = null;
+        PhaseTimer phases = PhaseTimer.current();
+        phases.reset();
+
+        try {
+            if (!cancelled) {
+                control.register(request);
+                try (CloseableHttpResponse response = httpClient.execute(request)) {
+                    status = response.getCode();
+                    bytes = response.getEntity() != null ? response.getEntity().getContentLength() : 0;
+                    success = step.isSuccess(status) && extract(step, response, variables);
+                    phases.bodyRead(System.nanoTime());
+                }
             }
         } catch (Exception e) {
+            // An abort from the drain shows up here as an I/O error; it is not a server failure
+            cancelled = request.isCancelled() || control.isCancelling();
             success = false;
+            error = ErrorClassifier.classify(e);
         } finally {
-            long responseTime = System.currentTimeMillis() - startTime;
-            testResult.recordRequest(success, responseTime);
+            control.unregister(request);
+            TestResult stageResult = stages != null ? stages.stageFor(plannedStartNanos) : null;
+            if (cancelled) {
+                testResult.recordCancelled(1);
+                if (stageResult != null) {
+                    stageResult.recordCancelled(1);
+                }
+                if (stepResult != null) {
+                    stepResult.recordCancelled(1);
+                }
+            } else {
+                long responseTime = System.nanoTime() - plannedStartNanos;
+                testResult.recordRequestNanos(success, responseTime);
+                if (error != null) {
+                    testResult.recordError(error, responseTime);
+                } else {
+                    testResult.recordStatus(status, responseTime);
+                }
+                if (sampleLog != null) {
+                    sampleLog.record(plannedStartNanos, responseTime, endpoint, status, error, bytes, success);
+                }
+                if (phases.isComplete()) {
+                    testResult.recordPhases(phases.getNanos());
+                }
+                if (stageResult != null) {
+                    stageResult.recordRequestNanos(success, responseTime);
+                }
+                if (stepResult != null) {
+                    stepResult.recordRequestNanos(success, responseTime);
+                }
+            }
         }
+        return cancelled ? Outcome.CANCELLED : success ? Outcome.SUCCESS : Outcome.FAILURE;
     }
-}
\ No newline at end of file
+
+    /**
+     * Reads the response (the body only when a JSON extractor needs it) and stores extracted values.
+     *
+     * @return false when a value the step extracts is missing from the response
+     */
+    private boolean extract(Scenario.Step step, CloseableHttpResponse response, Map<String, String> variables)
+            throws IOException, ParseException {
+        String body = null;
+        if (step.needsBody() && response.getEntity() != null) {
+            body = EntityUtils.toString(response.getEntity());
+        } else {
+            EntityUtils.consume(response.getEntity());
+        }
+        for (Extractor extractor : step.getExtractors()) {
+            String value = extractor.extract(response, body);
+            if (value == null) {
+                return false;
+            }
+            variables.put(extractor.getVariable(), value);
+        }
+        return true;
+    }
+
+    private enum Outcome { SUCCESS, FAILURE, CANCELLED }
+}
@@ -0,0 +1,672 @@
+package com.hoale.automation.performance.worker;
+
+import com.hoale.automation.performance.config.PerformanceConfig;
+import com.hoale.automation.performance.model.OutcomeBreakdown;
+import com.hoale.automation.performance.model.TestResult;
+import com.hoale.automation.performance.samplelog.SampleLog;
+import com.hoale.automation.performance.scenario.Scenario;
+import com.hoale.automation.performance.scheduler.RunControl;
+import org.apache.hc.core5.http.Header;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal HTTP/1.1 load engine on java.nio channels and selectors, for raw
+ * throughput against servers where httpclient5's per-request cost would dominate.
+ * threadCount keep-alive connections are spread over ioThreads selector threads;
+ * each connection keeps up to pipelineDepth requests outstanding (HTTP/1.1
+ * pipelining). The request is encoded once into a direct buffer and written as is;
+ * responses are parsed only as far as the status line and Content-Length or
+ * chunked framing. Only constant requests to http:// targets are supported.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 16:00:00 UTC
+ */
+public class NioHttpWorker implements Closeable {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final long SELECT_TIMEOUT_MS = 100;
+
+    private final TestResult testResult;
+    private final RunControl control;
+    private final Scenario.Step step;
+    private final InetSocketAddress address;
+    private final int pipelineDepth;
+    private final boolean headRequest;
+    // pipelineDepth copies of the encoded request, so a batch of n is a single write of n * requestLength bytes
+    private final ByteBuffer requests;
+    private final int requestLength;
+    // Requests left to send; Long.MAX_VALUE when the run is bounded by time only
+    private final AtomicLong budget;
+    private final AtomicInteger cancelled = new AtomicInteger();
+    private final List<SelectorLoop> loops = new ArrayList<>();
+    private volatile boolean cancelling;
+    private SampleLog sampleLog;
+
+    /**
+     * @param totalRequests requests to send in total, or Long.MAX_VALUE to run until the deadline
+     */
+    public NioHttpWorker(PerformanceConfig config, TestResult testResult, RunControl control, long totalRequests) {
+        this.testResult = testResult;
+        this.control = control;
+        this.step = config.getRequest();
+        this.pipelineDepth = config.getPipelineDepth();
+        this.headRequest = "HEAD".equals(step.getMethod());
+        this.budget = new AtomicLong(totalRequests);
+
+        URI uri = step.getUri();
+        int port = uri.getPort() > 0 ? uri.getPort() : 80;
+        this.address = new InetSocketAddress(uri.getHost(), port);
+        byte[] request = encode(step, uri);
+        this.requestLength = request.length;
+        ByteBuffer batch = ByteBuffer.allocateDirect(request.length * pipelineDepth);
+        for (int i = 0; i < pipelineDepth; i++) {
+            batch.put(request);
+        }
+        batch.flip();
+        this.requests = batch.asReadOnlyBuffer();
+
+        int threads = Math.min(config.getIoThreads(), config.getThreadCount());
+        for (int i = 0; i < threads; i++) {
+            // Connections split as evenly as possible over the selector threads
+            int connections = config.getThreadCount() / threads + (i < config.getThreadCount() % threads ? 1 : 0);
+            loops.add(new SelectorLoop(i, connections));
+        }
+    }
+
+    /** Request line, headers and body as they go on the wire. */
+    static byte[] encode(Scenario.Step step, URI uri) {
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        if (uri.getRawQuery() != null) {
+            path += "?" + uri.getRawQuery();
+        }
+        StringBuilder head = new StringBuilder(256);
+        head.append(step.getMethod()).append(' ').append(path).append(" HTTP/1.1\r\n");
+        head.append("Host: ").append(uri.getHost()).append(uri.getPort() > 0 ? ":" + uri.getPort() : "").append("\r\n");
+        head.append("User-Agent: Automation-Performance-Test/1.0\r\n");
+        for (Header header : step.getConstantHeaders()) {
+            head.append(header.getName()).append(": ").append(header.getValue()).append("\r\n");
+        }
+        byte[] body = step.getBody() != null ? step.getBody().constantBytes() : null;
+        if (body != null) {
+            head.append("Content-Type: ").append(step.getContentType()).append("\r\n");
+            head.append("Content-Length: ").append(body.length).append("\r\n");
+        }
+        head.append("\r\n");
+        byte[] headBytes = head.toString().getBytes(StandardCharsets.ISO_8859_1);
+        if (body == null) {
+            return headBytes;
+        }
+        byte[] bytes = new byte[headBytes.length + body.length];
+        System.arraycopy(headBytes, 0, bytes, 0, headBytes.length);
+        System.arraycopy(body, 0, bytes, headBytes.length, body.length);
+        return bytes;
+    }
+
+    /** @param sampleLog raw log every request is appended to (endpoint id 0), or null */
+    public void setSampleLog(SampleLog sampleLog) {
+        this.sampleLog = sampleLog;
+    }
+
+    public void start() {
+        for (SelectorLoop loop : loops) {
+            loop.start();
+        }
+    }
+
+    /**
+     * Waits until the budget is spent (or the deadline passed) and every request sent has completed.
+     *
+     * @return false if requests were still outstanding when the timeout expired
+     */
+    public boolean awaitCompletion(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (SelectorLoop loop : loops) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining > 0) {
+                TimeUnit.NANOSECONDS.timedJoin(loop.thread, remaining);
+            }
+            if (loop.thread.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Closes every connection; requests still awaiting a response are counted as cancelled.
+     *
+     * @return number of requests cancelled
+     */
+    public int cancelOutstanding() throws InterruptedException {
+        cancelling = true;
+        for (SelectorLoop loop : loops) {
+            loop.selector.wakeup();
+        }
+        for (SelectorLoop loop : loops) {
+            loop.thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        return cancelled.get();
+    }
+
+    @Override
+    public void close() {
+        cancelling = true;
+        for (SelectorLoop loop : loops) {
+            loop.selector.wakeup();
+        }
+    }
+
+    /** Takes up to {@code wanted} requests from the budget. */
+    private int take(int wanted) {
+        if (!control.isRunning()) {
+            return 0;
+        }
+        while (true) {
+            long left = budget.get();
+            if (left == Long.MAX_VALUE) {
+                return wanted;
+            }
+            if (left <= 0) {
+                return 0;
+            }
+            int granted = (int) Math.min(left, wanted);
+            if (budget.compareAndSet(left, left - granted)) {
+                return granted;
+            }
+        }
+    }
+
+    private boolean isSending() {
+        return control.isRunning() && budget.get() > 0;
+    }
+
+    /** One selector thread and the connections it owns. */
+    private final class SelectorLoop implements Runnable {
+        private final Selector selector;
+        private final Thread thread;
+        private final List<Connection> connections = new ArrayList<>();
+
+        SelectorLoop(int index, int connectionCount) {
+            try {
+                this.selector = Selector.open();
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot open selector: " + e.getMessage(), e);
+            }
+            for (int i = 0; i < connectionCount; i++) {
+                connections.add(new Connection(selector));
+            }
+            this.thread = new Thread(this, "nio-load-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (Connection connection : connections) {
+                    connection.open();
+                }
+                while (!cancelling) {
+                    selector.select(SELECT_TIMEOUT_MS);
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        ((Connection) key.attachment()).handle(key);
+                    }
+                    if (!isSending() && isIdle()) {
+                        break;
+                    }
+                    // Connections lost to errors come back while there is load left to send
+                    for (Connection connection : connections) {
+                        if (connection.channel == null && isSending()) {
+                            connection.open();
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("NIO selector failed: " + e.getMessage());
+            } finally {
+                for (Connection connection : connections) {
+                    int outstanding = connection.close();
+                    if (outstanding > 0) {
+                        testResult.recordCancelled(outstanding);
+                        cancelled.addAndGet(outstanding);
+                    }
+                }
+                try {
+                    selector.close();
+                } catch (IOException ignored) {
+                    // Nothing left to release
+                }
+            }
+        }
+
+        private boolean isIdle() {
+            for (Connection connection : connections) {
+                if (connection.outstanding > 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /** A keep-alive connection with its write position, in-order send times and response parser. */
+    private final class Connection {
+        private final Selector selector;
+        private final ByteBuffer out = requests.duplicate();
+        private final ByteBuffer in = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        private final long[] sentAt = new long[pipelineDepth];
+        private final ResponseParser parser = new ResponseParser();
+        private SocketChannel channel;
+        private SelectionKey key;
+        private int head;
+        private int outstanding;
+        private boolean connected;
+
+        Connection(Selector selector) {
+            this.selector = selector;
+        }
+
+        void open() {
+            out.limit(0);
+            parser.reset(headRequest);
+            connected = false;
+            try {
+                channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                if (channel.connect(address)) {
+                    connected = true;
+                    key = channel.register(selector, SelectionKey.OP_READ, this);
+                    send();
+                } else {
+                    key = channel.register(selector, SelectionKey.OP_CONNECT, this);
+                }
+            } catch (IOException e) {
+                fail(ErrorClassifier.classify(e));
+            }
+        }
+
+        void handle(SelectionKey key) {
+            try {
+                if (key.isConnectable()) {
+                    if (!channel.finishConnect()) {
+                        return;
+                    }
+                    connected = true;
+                    key.interestOps(SelectionKey.OP_READ);
+                    send();
+                    return;
+                }
+                if (key.isReadable()) {
+                    read();
+                }
+                if (channel != null && key.isValid() && key.isWritable()) {
+                    send();
+                }
+            } catch (IOException e) {
+                fail(ErrorClassifier.classify(e));
+            }
+        }
+
+        /** Writes whatever is pending, then tops the pipeline up to pipelineDepth. */
+        private void send() throws IOException {
+            while (true) {
+                if (out.hasRemaining()) {
+                    channel.write(out);
+                    if (out.hasRemaining()) {
+                        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                        return;
+                    }
+                }
+                int count = take(pipelineDepth - outstanding);
+                if (count == 0) {
+                    key.interestOps(SelectionKey.OP_READ);
+                    return;
+                }
+                long now = System.nanoTime();
+                for (int i = 0; i < count; i++) {
+                    sentAt[(head + outstanding + i) % pipelineDepth] = now;
+                }
+                outstanding += count;
+                out.limit(count * requestLength).position(0);
+            }
+        }
+
+        private void read() throws IOException {
+            in.clear();
+            int read = channel.read(in);
+            if (read < 0) {
+                if (parser.endOfStream()) {
+                    // A response framed by the end of the connection is complete now
+                    complete();
+                    requeue();
+                } else if (outstanding > 0) {
+                    fail(OutcomeBreakdown.Category.CONNECTION_RESET);
+                } else {
+                    // The server closed an idle keep-alive connection; it reopens on the next loop pass
+                    close();
+                }
+                return;
+            }
+            in.flip();
+            while (in.hasRemaining()) {
+                if (!parser.parse(in)) {
+                    continue;
+                }
+                if (outstanding == 0) {
+                    throw new IOException("Response without a request");
+                }
+                complete();
+                if (parser.isClose()) {
+                    requeue();
+                    return;
+                }
+                parser.reset(headRequest);
+            }
+            send();
+        }
+
+        private void complete() {
+            long start = sentAt[head];
+            head = (head + 1) % pipelineDepth;
+            outstanding--;
+            long responseTime = System.nanoTime() - start;
+            boolean success = step.isSuccess(parser.getStatus());
+            testResult.recordRequestNanos(success, responseTime);
+            testResult.recordStatus(parser.getStatus(), responseTime);
+            if (sampleLog != null) {
+                sampleLog.record(start, responseTime, 0, parser.getStatus(), null, parser.getContentLength(), success);
+            }
+        }
+
+        /**
+         * Closes after the server's last response on this connection. Requests pipelined
+         * behind it were never processed, so they go back to the budget instead of failing.
+         */
+        private void requeue() {
+            int unprocessed = close();
+            if (unprocessed > 0) {
+                budget.getAndUpdate(left -> left == Long.MAX_VALUE ? left : left + unprocessed);
+            }
+        }
+
+        /**
+         * Drops the connection; requests that got no response are failures of {@code category}.
+         * It reopens on the next loop pass.
+         */
+        private void fail(OutcomeBreakdown.Category category) {
+            long now = System.nanoTime();
+            int lost = close();
+            for (int i = 0; i < lost; i++) {
+                long start = sentAt[(head + i) % pipelineDepth];
+                testResult.recordRequestNanos(false, now - start);
+                testResult.recordError(category, now - start);
+                if (sampleLog != null) {
+                    sampleLog.record(start, now - start, 0, 0, category, -1, false);
+                }
+            }
+            if (lost == 0 && !connected && !cancelling && isSending() && take(1) == 1) {
+                // Refused or reset before the connection was up: count the attempt
+                testResult.recordRequestNanos(false, 0);
+                testResult.recordError(category, 0);
+                if (sampleLog != null) {
+                    sampleLog.record(now, 0, 0, 0, category, -1, false);
+                }
+            }
+            head = 0;
+        }
+
+        /** @return requests that were still awaiting a response */
+        int close() {
+            int lost = outstanding;
+            outstanding = 0;
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // Already broken
+                }
+                channel = null;
+                key = null;
+            }
+            return lost;
+        }
+    }
+
+    /**
+     * Incremental HTTP/1.1 response framing: reads the status line and headers, then
+     * skips the body by Content-Length, chunked encoding or until the connection closes.
+     * Bytes may arrive in any split; state carries over between calls.
+     */
+    static final class ResponseParser {
+        private static final int STATUS_LINE = 0;
+        private static final int HEADERS = 1;
+        private static final int BODY = 2;
+        private static final int CHUNK_SIZE = 3;
+        private static final int CHUNK_DATA = 4;
+        private static final int CHUNK_END = 5;
+        private static final int TRAILERS = 6;
+        private static final int UNTIL_CLOSE = 7;
+        private static final int MAX_LINE = 8192;
+
+        private final byte[] line = new byte[MAX_LINE];
+        private int lineLength;
+        private boolean lineDone;
+        private int state;
+        private boolean headRequest;
+        private int status;
+        private long contentLength;
+        private boolean chunked;
+        private boolean close;
+        private long remaining;
+
+        void reset(boolean headRequest) {
+            this.headRequest = headRequest;
+            state = STATUS_LINE;
+            lineLength = 0;
+            lineDone = false;
+        }
+
+        int getStatus() { return status; }
+        /** Body length from Content-Length, or -1 for chunked and close-framed bodies. */
+        long getContentLength() { return chunked ? -1 : headRequest ? 0 : contentLength; }
+        /** True when the server asked to close the connection after this response. */
+        boolean isClose() { return close; }
+
+        /**
+         * Consumes bytes until one response is complete or the buffer is empty.
+         *
+         * @return true when a whole response has been read; the buffer may hold the next one
+         */
+        boolean parse(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                if (state == BODY || state == CHUNK_DATA) {
+                    int skip = (int) Math.min(remaining, buffer.remaining());
+                    buffer.position(buffer.position() + skip);
+                    remaining -= skip;
+                    if (remaining == 0) {
+                        if (state == BODY) {
+                            return done();
+                        }
+                        state = CHUNK_END;
+                    }
+                } else if (state == UNTIL_CLOSE) {
+                    buffer.position(buffer.limit());
+                } else if (readLine(buffer) && onLine()) {
+                    return done();
+                }
+            }
+            return false;
+        }
+
+        /** @return true when the response in progress is framed by the end of the connection */
+        boolean endOfStream() {
+            return state == UNTIL_CLOSE;
+        }
+
+        private boolean done() {
+            state = STATUS_LINE;
+            return true;
+        }
+
+        private boolean readLine(ByteBuffer buffer) {
+            if (lineDone) {
+                lineLength = 0;
+                lineDone = false;
+            }
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                if (b == '\n') {
+                    lineDone = true;
+                    return true;
+                }
+                // Overlong lines keep their start, which is all the parser looks at
+                if (b != '\r' && lineLength < MAX_LINE) {
+                    line[lineLength++] = b;
+                }
+            }
+            return false;
+        }
+
+        /** Handles one complete line. @return true when it ends the response */
+        private boolean onLine() throws IOException {
+            switch (state) {
+                case STATUS_LINE:
+                    if (lineLength == 0) {
+                        return false;
+                    }
+                    if (lineLength < 12 || !startsWith("http/")) {
+                        throw new IOException("Malformed status line");
+                    }
+                    status = digit(9) * 100 + digit(10) * 10 + digit(11);
+                    contentLength = -1;
+                    chunked = false;
+                    close = false;
+                    state = HEADERS;
+                    return false;
+                case HEADERS:
+                    if (lineLength > 0) {
+                        header();
+                        return false;
+                    }
+                    if (status < 200) {
+                        // Interim response (100 Continue); the real one follows
+                        state = STATUS_LINE;
+                        return false;
+                    }
+                    if (headRequest || status == 204 || status == 304 || contentLength == 0) {
+                        return true;
+                    }
+                    if (chunked) {
+                        state = CHUNK_SIZE;
+                    } else if (contentLength > 0) {
+                        remaining = contentLength;
+                        state = BODY;
+                    } else {
+                        close = true;
+                        state = UNTIL_CLOSE;
+                    }
+                    return false;
+                case CHUNK_SIZE:
+                    long size = 0;
+                    for (int i = 0; i < lineLength && line[i] != ';'; i++) {
+                        int value = Character.digit(line[i], 16);
+                        if (value < 0) {
+                            if (line[i] == ' ' || line[i] == '\t') {
+                                continue;
+                            }
+                            throw new IOException("Malformed chunk size");
+                        }
+                        size = size * 16 + value;
+                    }
+                    if (size == 0) {
+                        state = TRAILERS;
+                    } else {
+                        remaining = size;
+                        state = CHUNK_DATA;
+                    }
+                    return false;
+                case CHUNK_END:
+                    state = CHUNK_SIZE;
+                    return false;
+                case TRAILERS:
+                    return lineLength == 0;
+                default:
+                    throw new IllegalStateException("Unexpected parser state " + state);
+            }
+        }
+
+        private void header() {
+            if (startsWith("content-length:")) {
+                long length = 0;
+                for (int i = "content-length:".length(); i < lineLength; i++) {
+                    if (line[i] >= '0' && line[i] <= '9') {
+                        length = length * 10 + (line[i] - '0');
+                    }
+                }
+                contentLength = length;
+            } else if (startsWith("transfer-encoding:")) {
+                chunked = contains("chunked", "transfer-encoding:".length());
+            } else if (startsWith("connection:")) {
+                close = contains("close", "connection:".length());
+            }
+        }
+
+        private int digit(int index) throws IOException {
+            int value = line[index] - '0';
+            if (value < 0 || value > 9) {
+                throw new IOException("Malformed status code");
+            }
+            return value;
+        }
+
+        /** Case-insensitive match of a lower-case ASCII prefix. */
+        private boolean startsWith(String prefix) {
+            if (lineLength < prefix.length()) {
+                return false;
+            }
+            for (int i = 0; i < prefix.length(); i++) {
+                if (Character.toLowerCase(line[i]) != prefix.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /** Case-insensitive search for a lower-case ASCII token from {@code from} on. */
+        private boolean contains(String token, int from) {
+            for (int start = from; start + token.length() <= lineLength; start++) {
+                int i = 0;
+                while (i < token.length() && Character.toLowerCase(line[start + i]) == token.charAt(i)) {
+                    i++;
+                }
+                if (i == token.length()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.hoale.automation.performance.worker;
+
+import com.hoale.automation.performance.model.PhaseBreakdown.Phase;
+
+import java.util.Arrays;
+
+/**
+ * Phase timings of the request the current thread is executing. The classic client
+ * runs the whole exchange on the caller's thread, so the connection manager and the
+ * request executor can add their part here without passing anything through the client.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 16:30:00 UTC
+ */
+final class PhaseTimer {
+
+    private static final ThreadLocal<PhaseTimer> CURRENT = ThreadLocal.withInitial(PhaseTimer::new);
+
+    private final long[] nanos = new long[Phase.values().length];
+    private long writeStartNanos;
+    private long responseHeadNanos;
+    private boolean complete;
+
+    static PhaseTimer current() {
+        return CURRENT.get();
+    }
+
+    void reset() {
+        Arrays.fill(nanos, 0);
+        writeStartNanos = 0;
+        responseHeadNanos = 0;
+        complete = false;
+    }
+
+    void add(Phase phase, long elapsedNanos) {
+        nanos[phase.ordinal()] += elapsedNanos;
+    }
+
+    /** The executor starts sending the request. */
+    void writeStarted(long now) {
+        writeStartNanos = now;
+    }
+
+    /** The request is flushed and the executor starts waiting for the response head. */
+    void writeFinished(long now) {
+        if (writeStartNanos != 0) {
+            add(Phase.WRITE, now - writeStartNanos);
+            writeStartNanos = 0;
+        }
+    }
+
+    /** The response head arrived after waiting since {@code waitStart}. */
+    void responseHead(long waitStart, long now) {
+        add(Phase.TTFB, now - waitStart);
+        responseHeadNanos = now;
+    }
+
+    /** The worker has read the body. */
+    void bodyRead(long now) {
+        if (responseHeadNanos != 0) {
+            add(Phase.BODY, now - responseHeadNanos);
+            complete = true;
+        }
+    }
+
+    /** True once the current request's response has been read in full, so every phase is known. */
+    boolean isComplete() {
+        return complete;
+    }
+
+    long[] getNanos() {
+        return nanos;
+    }
+}
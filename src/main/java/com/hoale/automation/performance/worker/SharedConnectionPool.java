@@ -0,0 +1,291 @@
+package com.hoale.automation.performance.worker;
+
+import com.hoale.automation.performance.config.PerformanceConfig;
+import com.hoale.automation.performance.model.ConnectionPoolStats;
+import com.hoale.automation.performance.model.PhaseBreakdown.Phase;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.EndpointDetails;
+import org.apache.hc.core5.http.HttpException;
+import org.apache.hc.core5.http.ProtocolVersion;
+import org.apache.hc.core5.http.impl.io.HttpRequestExecutor;
+import org.apache.hc.core5.http.io.HttpClientConnection;
+import org.apache.hc.core5.http.io.HttpResponseInformationCallback;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.SocketAddress;
+import javax.net.ssl.SSLSession;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One pooled HTTP client owned by the engine and shared by every blocking worker.
+ * Pool limits, keep-alive, idle eviction and stale-connection validation come from
+ * PerformanceConfig. The connection manager is wrapped so that time spent waiting
+ * for a pooled connection and connection churn are measured separately from
+ * server latency. The connection manager and a timing request executor also report
+ * each request's lease, connect, write and time-to-first-byte phases to the
+ * calling thread's {@link PhaseTimer}.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 10:30:00 UTC
+ */
+public class SharedConnectionPool implements Closeable {
+
+    private final PoolingHttpClientConnectionManager pool;
+    private final InstrumentedConnectionManager connectionManager;
+    private final CloseableHttpClient client;
+
+    public SharedConnectionPool(PerformanceConfig config) {
+        this.pool = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(config.getMaxConnectionsTotal())
+                .setMaxConnPerRoute(config.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(config.getConnectionTimeout()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(config.getResponseTimeout()))
+                        .setValidateAfterInactivity(TimeValue.ofMilliseconds(config.getValidateAfterInactivityMs()))
+                        .build())
+                .build();
+        this.connectionManager = new InstrumentedConnectionManager(pool);
+
+        HttpClientBuilder builder = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setRequestExecutor(new TimedRequestExecutor())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(config.getConnectionTimeout()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(config.getResponseTimeout()))
+                        .build());
+        if (config.getKeepAliveMs() > 0) {
+            TimeValue keepAlive = TimeValue.ofMilliseconds(config.getKeepAliveMs());
+            builder.setKeepAliveStrategy((response, context) -> keepAlive);
+        }
+        if (config.getIdleEvictionMs() > 0) {
+            builder.evictExpiredConnections();
+            builder.evictIdleConnections(TimeValue.ofMilliseconds(config.getIdleEvictionMs()));
+        }
+        this.client = builder.build();
+    }
+
+    public CloseableHttpClient getClient() {
+        return client;
+    }
+
+    public ConnectionPoolStats snapshot() {
+        PoolStats totals = pool.getTotalStats();
+        return new ConnectionPoolStats(
+                pool.getMaxTotal(),
+                pool.getDefaultMaxPerRoute(),
+                connectionManager.leases.sum(),
+                connectionManager.leaseWaitNanos.sum(),
+                connectionManager.maxLeaseWaitNanos.get(),
+                connectionManager.connectionsOpened.sum(),
+                connectionManager.connectionsClosed.sum(),
+                totals.getLeased(),
+                totals.getPending());
+    }
+
+    @Override
+    public void close() throws IOException {
+        client.close();
+    }
+
+    /**
+     * Delegating connection manager that times each pool lease and counts
+     * connections opened (connect) and discarded (released while disconnected).
+     */
+    private static final class InstrumentedConnectionManager implements HttpClientConnectionManager {
+
+        private final HttpClientConnectionManager delegate;
+        private final LongAdder leases = new LongAdder();
+        private final LongAdder leaseWaitNanos = new LongAdder();
+        private final AtomicLong maxLeaseWaitNanos = new AtomicLong();
+        private final LongAdder connectionsOpened = new LongAdder();
+        private final LongAdder connectionsClosed = new LongAdder();
+
+        InstrumentedConnectionManager(HttpClientConnectionManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+            LeaseRequest leaseRequest = delegate.lease(id, route, requestTimeout, state);
+            return new LeaseRequest() {
+                @Override
+                public ConnectionEndpoint get(Timeout timeout)
+                        throws InterruptedException, ExecutionException, TimeoutException {
+                    long start = System.nanoTime();
+                    try {
+                        return leaseRequest.get(timeout);
+                    } finally {
+                        long waitNanos = System.nanoTime() - start;
+                        recordLease(waitNanos);
+                        PhaseTimer.current().add(Phase.LEASE, waitNanos);
+                    }
+                }
+
+                @Override
+                public boolean cancel() {
+                    return leaseRequest.cancel();
+                }
+            };
+        }
+
+        private void recordLease(long waitNanos) {
+            leases.increment();
+            leaseWaitNanos.add(waitNanos);
+            long max = maxLeaseWaitNanos.get();
+            while (waitNanos > max && !maxLeaseWaitNanos.compareAndSet(max, waitNanos)) {
+                max = maxLeaseWaitNanos.get();
+            }
+        }
+
+        @Override
+        public void release(ConnectionEndpoint endpoint, Object newState, TimeValue validDuration) {
+            if (!endpoint.isConnected()) {
+                connectionsClosed.increment();
+            }
+            delegate.release(endpoint, newState, validDuration);
+        }
+
+        @Override
+        public void connect(ConnectionEndpoint endpoint, TimeValue connectTimeout, HttpContext context) throws IOException {
+            connectionsOpened.increment();
+            long start = System.nanoTime();
+            try {
+                delegate.connect(endpoint, connectTimeout, context);
+            } finally {
+                PhaseTimer.current().add(Phase.CONNECT, System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public void upgrade(ConnectionEndpoint endpoint, HttpContext context) throws IOException {
+            delegate.upgrade(endpoint, context);
+        }
+
+        @Override
+        public void close(CloseMode closeMode) {
+            delegate.close(closeMode);
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    /** Request executor that hands the exchange a connection timing the write and the wait for the response head. */
+    private static final class TimedRequestExecutor extends HttpRequestExecutor {
+
+        @Override
+        public ClassicHttpResponse execute(ClassicHttpRequest request, HttpClientConnection conn,
+                                           HttpResponseInformationCallback informationCallback, HttpContext context)
+                throws IOException, HttpException {
+            PhaseTimer timer = PhaseTimer.current();
+            timer.writeStarted(System.nanoTime());
+            return super.execute(request, new TimedConnection(conn, timer), informationCallback, context);
+        }
+    }
+
+    /** Delegating connection: the write ends where the wait for the response head begins. */
+    private static final class TimedConnection implements HttpClientConnection {
+
+        private final HttpClientConnection delegate;
+        private final PhaseTimer timer;
+
+        TimedConnection(HttpClientConnection delegate, PhaseTimer timer) {
+            this.delegate = delegate;
+            this.timer = timer;
+        }
+
+        @Override
+        public ClassicHttpResponse receiveResponseHeader() throws HttpException, IOException {
+            long start = System.nanoTime();
+            timer.writeFinished(start);
+            ClassicHttpResponse response = delegate.receiveResponseHeader();
+            timer.responseHead(start, System.nanoTime());
+            return response;
+        }
+
+        @Override
+        public boolean isConsistent() { return delegate.isConsistent(); }
+
+        @Override
+        public void sendRequestHeader(ClassicHttpRequest request) throws HttpException, IOException {
+            delegate.sendRequestHeader(request);
+        }
+
+        @Override
+        public void terminateRequest(ClassicHttpRequest request) throws HttpException, IOException {
+            delegate.terminateRequest(request);
+        }
+
+        @Override
+        public void sendRequestEntity(ClassicHttpRequest request) throws HttpException, IOException {
+            delegate.sendRequestEntity(request);
+        }
+
+        @Override
+        public void receiveResponseEntity(ClassicHttpResponse response) throws HttpException, IOException {
+            delegate.receiveResponseEntity(response);
+        }
+
+        @Override
+        public boolean isDataAvailable(Timeout timeout) throws IOException { return delegate.isDataAvailable(timeout); }
+
+        @Override
+        public boolean isStale() throws IOException { return delegate.isStale(); }
+
+        @Override
+        public void flush() throws IOException { delegate.flush(); }
+
+        @Override
+        public EndpointDetails getEndpointDetails() { return delegate.getEndpointDetails(); }
+
+        @Override
+        public SocketAddress getLocalAddress() { return delegate.getLocalAddress(); }
+
+        @Override
+        public SocketAddress getRemoteAddress() { return delegate.getRemoteAddress(); }
+
+        @Override
+        public ProtocolVersion getProtocolVersion() { return delegate.getProtocolVersion(); }
+
+        @Override
+        public SSLSession getSSLSession() { return delegate.getSSLSession(); }
+
+        @Override
+        public boolean isOpen() { return delegate.isOpen(); }
+
+        @Override
+        public Timeout getSocketTimeout() { return delegate.getSocketTimeout(); }
+
+        @Override
+        public void setSocketTimeout(Timeout timeout) { delegate.setSocketTimeout(timeout); }
+
+        @Override
+        public void close(CloseMode closeMode) { delegate.close(closeMode); }
+
+        @Override
+        public void close() throws IOException { delegate.close(); }
+    }
+}
@@ -0,0 +1,38 @@
+package com.hoale.automation.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+
+/**
+ * Decorator that times any {@link HttpHandler} into its route's {@link ServerMetrics}.
+ * The clock runs from dispatch to the handler until it returns, so it measures server
+ * processing only: time spent in the accept queue or on the network is not included.
+ * A handler that throws counts under the "none" status class unless it already sent
+ * a status.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 22:00:00 UTC
+ */
+public class InstrumentedHandler implements HttpHandler {
+
+    private final ServerMetrics.Route route;
+    private final HttpHandler delegate;
+
+    public InstrumentedHandler(ServerMetrics metrics, String route, HttpHandler delegate) {
+        this.route = metrics.route(route);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        route.started();
+        long start = System.nanoTime();
+        try {
+            delegate.handle(exchange);
+        } finally {
+            route.finished(exchange.getRequestMethod(), exchange.getResponseCode(), System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.hoale.automation.server;
+
+import com.hoale.automation.performance.metrics.LatencyHistogram;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server-side request metrics per route and method: counts by status class, requests
+ * in flight and a latency histogram (in microseconds). Recording touches only striped
+ * counters and one histogram bucket, with no lock and no allocation, so it can stay on
+ * under load. Filled by {@link InstrumentedHandler}, served by {@code MetricsServlet}.
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 22:00:00 UTC
+ */
+public class ServerMetrics {
+
+    static final String[] METHODS = {"GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS", "OTHER"};
+    // Status classes by status / 100; slot 0 is a handler that failed before sending a status
+    static final String[] STATUS_CLASSES = {"none", "1xx", "2xx", "3xx", "4xx", "5xx"};
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9};
+
+    private final ConcurrentMap<String, Route> routes = new ConcurrentHashMap<>();
+
+    /** The route's metrics, created on first use. */
+    public Route route(String name) {
+        return routes.computeIfAbsent(name, Route::new);
+    }
+
+    /** Routes in name order. */
+    public List<Route> getRoutes() {
+        return new ArrayList<>(new TreeMap<>(routes).values());
+    }
+
+    public String toPrometheus() {
+        List<Route> sorted = getRoutes();
+        StringBuilder out = new StringBuilder();
+        out.append("# HELP http_server_requests_total Requests handled, by route, method and status class\n");
+        out.append("# TYPE http_server_requests_total counter\n");
+        for (Route route : sorted) {
+            for (Endpoint endpoint : route.getEndpoints()) {
+                for (Map.Entry<String, Long> status : endpoint.getStatusCounts().entrySet()) {
+                    out.append("http_server_requests_total{").append(labels(route, endpoint))
+                            .append(",status=\"").append(status.getKey()).append("\"} ").append(status.getValue()).append('\n');
+                }
+            }
+        }
+        out.append("# HELP http_server_requests_in_flight Requests being handled right now\n");
+        out.append("# TYPE http_server_requests_in_flight gauge\n");
+        for (Route route : sorted) {
+            out.append("http_server_requests_in_flight{route=\"").append(route.getName()).append("\"} ")
+                    .append(route.getInFlight()).append('\n');
+        }
+        out.append("# HELP http_server_request_duration_seconds Time spent in the handler\n");
+        out.append("# TYPE http_server_request_duration_seconds summary\n");
+        for (Route route : sorted) {
+            for (Endpoint endpoint : route.getEndpoints()) {
+                String labels = labels(route, endpoint);
+                for (double percentile : PERCENTILES) {
+                    String quantile = BigDecimal.valueOf(percentile).movePointLeft(2).stripTrailingZeros().toPlainString();
+                    out.append("http_server_request_duration_seconds{").append(labels).append(",quantile=\"").append(quantile)
+                            .append("\"} ").append(seconds(endpoint.getPercentileMicros(percentile))).append('\n');
+                }
+                out.append("http_server_request_duration_seconds_sum{").append(labels).append("} ")
+                        .append(seconds(endpoint.getTotalMicros())).append('\n');
+                out.append("http_server_request_duration_seconds_count{").append(labels).append("} ")
+                        .append(endpoint.getCount()).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (Route route : getRoutes()) {
+            Map<String, Object> routeMap = new LinkedHashMap<>();
+            routeMap.put("inFlight", route.getInFlight());
+            Map<String, Object> methods = new LinkedHashMap<>();
+            for (Endpoint endpoint : route.getEndpoints()) {
+                Map<String, Object> method = new LinkedHashMap<>();
+                method.put("count", endpoint.getCount());
+                method.put("statusCounts", endpoint.getStatusCounts());
+                method.put("averageMs", endpoint.getCount() > 0 ? endpoint.getTotalMs() / endpoint.getCount() : 0.0);
+                Map<String, Object> percentiles = new LinkedHashMap<>();
+                for (double percentile : PERCENTILES) {
+                    percentiles.put("p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                            endpoint.getPercentileMs(percentile));
+                }
+                method.put("percentilesMs", percentiles);
+                methods.put(endpoint.getMethod(), method);
+            }
+            routeMap.put("methods", methods);
+            map.put(route.getName(), routeMap);
+        }
+        return map;
+    }
+
+    private static String seconds(long micros) {
+        return BigDecimal.valueOf(micros).movePointLeft(6).stripTrailingZeros().toPlainString();
+    }
+
+    private static String labels(Route route, Endpoint endpoint) {
+        return "route=\"" + route.getName() + "\",method=\"" + endpoint.getMethod() + "\"";
+    }
+
+    /** One registered context path; methods outside {@link #METHODS} count as OTHER. */
+    public static final class Route {
+        private final String name;
+        private final LongAdder inFlight = new LongAdder();
+        private final AtomicReferenceArray<Endpoint> endpoints = new AtomicReferenceArray<>(METHODS.length);
+
+        Route(String name) {
+            this.name = name;
+        }
+
+        void started() {
+            inFlight.increment();
+        }
+
+        void finished(String method, int status, long nanos) {
+            inFlight.decrement();
+            endpoint(methodIndex(method)).record(status, nanos);
+        }
+
+        private Endpoint endpoint(int index) {
+            Endpoint endpoint = endpoints.get(index);
+            if (endpoint == null) {
+                endpoints.compareAndSet(index, null, new Endpoint(METHODS[index]));
+                endpoint = endpoints.get(index);
+            }
+            return endpoint;
+        }
+
+        private static int methodIndex(String method) {
+            for (int i = 0; i < METHODS.length - 1; i++) {
+                if (METHODS[i].equals(method)) {
+                    return i;
+                }
+            }
+            return METHODS.length - 1;
+        }
+
+        public String getName() { return name; }
+        public long getInFlight() { return inFlight.sum(); }
+
+        /** Methods that have seen requests, in {@link #METHODS} order. */
+        public List<Endpoint> getEndpoints() {
+            List<Endpoint> seen = new ArrayList<>();
+            for (int i = 0; i < METHODS.length; i++) {
+                if (endpoints.get(i) != null) {
+                    seen.add(endpoints.get(i));
+                }
+            }
+            return seen;
+        }
+    }
+
+    /** One route and method. */
+    public static final class Endpoint {
+        private final String method;
+        private final LongAdder[] statusCounts = new LongAdder[STATUS_CLASSES.length];
+        private final LongAdder totalMicros = new LongAdder();
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        Endpoint(String method) {
+            this.method = method;
+            for (int i = 0; i < statusCounts.length; i++) {
+                statusCounts[i] = new LongAdder();
+            }
+        }
+
+        void record(int status, long nanos) {
+            int statusClass = status / 100;
+            statusCounts[statusClass >= 1 && statusClass < STATUS_CLASSES.length ? statusClass : 0].increment();
+            long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+            totalMicros.add(micros);
+            histogram.record(micros);
+        }
+
+        public String getMethod() { return method; }
+        public long getCount() { return histogram.getTotalCount(); }
+        public long getTotalMicros() { return totalMicros.sum(); }
+        public double getTotalMs() { return getTotalMicros() / 1000.0; }
+        public long getPercentileMicros(double percentile) { return histogram.getValueAtPercentile(percentile); }
+        public double getPercentileMs(double percentile) { return getPercentileMicros(percentile) / 1000.0; }
+
+        /** Requests per status class; classes never seen are left out. */
+        public Map<String, Long> getStatusCounts() {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (int i = 0; i < statusCounts.length; i++) {
+                long count = statusCounts[i].sum();
+                if (count > 0) {
+                    counts.put(STATUS_CLASSES[i], count);
+                }
+            }
+            return counts;
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.hoale.automation.server;
 
 import com.hoale.automation.servlet.HealthServlet;
 import com.hoale.automation.servlet.InfoServlet;
+import com.hoale.automation.servlet.MetricsServlet;
 import com.hoale.automation.servlet.UserServlet;
+import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
 
 import java.net.InetSocketAddress;
@@ -16,6 +18,7 @@ import java.net.InetSocketAddress;
 public class SimpleServer {
 
     private HttpServer server;
+    private final ServerMetrics metrics = new ServerMetrics();
     private static final int PORT = 8080;
 
     public void start() throws Exception {
@@ -23,10 +26,11 @@ public class SimpleServer {
 
         server = HttpServer.create(new InetSocketAddress(PORT), 0);
 
-        // Register handlers
-        server.createContext("/api/health", new HealthServlet());
-        server.createContext("/api/info", new InfoServlet());
-        server.createContext("/api/users", new UserServlet());
+        // Register handlers, each timed per route and method
+        register("/api/health", new HealthServlet());
+        register("/api/info", new InfoServlet());
+        register("/api/users", new UserServlet());
+        register("/api/metrics", new MetricsServlet(metrics));
 
         server.setExecutor(null); // Use default executor
         server.start();
@@ -34,6 +38,14 @@ public class SimpleServer {
         System.out.println("✅ Simple Server started on http://localhost:" + PORT);
     }
 
+    private void register(String path, HttpHandler handler) {
+        server.createContext(path, new InstrumentedHandler(metrics, path, handler));
+    }
+
+    public ServerMetrics getMetrics() {
+        return metrics;
+    }
+
     public void stop() {
         if (server != null) {
             server.stop(0);
@@ -38,7 +38,7 @@ public class InfoServlet implements HttpHandler {
             info.put("os_name", System.getProperty("os.name"));
             info.put("available_processors", Runtime.getRuntime().availableProcessors());
             info.put("max_memory", Runtime.getRuntime().maxMemory());
-            info.put("endpoints", List.of("/api/health", "/api/info", "/api/users/{id}"));
+            info.put("endpoints", List.of("/api/health", "/api/info", "/api/users/{id}", "/api/metrics"));
 
             String jsonResponse = objectMapper.writeValueAsString(info);
 
@@ -0,0 +1,55 @@
+package com.hoale.automation.servlet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hoale.automation.server.ServerMetrics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Server Metrics Handler: Prometheus text on /api/metrics, JSON on /api/metrics.json
+ *
+ * @author leanhhoa30012004
+ * @created 2026-10-18 22:00:00 UTC
+ */
+public class MetricsServlet implements HttpHandler {
+
+    private static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ServerMetrics metrics;
+
+    public MetricsServlet(ServerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (!"/api/metrics".equals(path) && !"/api/metrics.json".equals(path)) {
+            // The context matches by prefix; only the two exact paths are served
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        } else if ("GET".equals(exchange.getRequestMethod())) {
+            String body;
+            if (path.endsWith(".json")) {
+                body = objectMapper.writeValueAsString(metrics.toMap());
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+            } else {
+                body = metrics.toPrometheus();
+                exchange.getResponseHeaders().set("Content-Type", PROMETHEUS_CONTENT_TYPE);
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        } else {
+            exchange.sendResponseHeaders(405, -1);
+        }
+    }
+}